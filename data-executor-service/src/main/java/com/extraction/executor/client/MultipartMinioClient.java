@@ -0,0 +1,51 @@
+package com.extraction.executor.client;
+
+import io.minio.AbortMultipartUploadResponse;
+import io.minio.CreateMultipartUploadResponse;
+import io.minio.MinioAsyncClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.UploadPartResponse;
+import io.minio.messages.Part;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * MinIO async client exposing the low-level S3 multipart upload API.
+ *
+ * The SDK keeps createMultipartUpload / uploadPart / completeMultipartUpload
+ * protected and only drives them from putObject, where parts are uploaded one
+ * after another from a single stream. Exposing them lets the executor upload
+ * parts of one object from several SFTP channels at once.
+ */
+public class MultipartMinioClient extends MinioAsyncClient {
+
+    public MultipartMinioClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    public CompletableFuture<CreateMultipartUploadResponse> createMultipartUpload(
+            String bucket, String objectName, String contentType) throws Exception {
+        return createMultipartUploadAsync(bucket, null, objectName,
+                contentType != null ? newMultimap("Content-Type", contentType) : null, null);
+    }
+
+    /**
+     * Upload one part from the first {@code length} bytes of {@code data}.
+     * The caller must not reuse {@code data} until the returned future completes.
+     */
+    public CompletableFuture<UploadPartResponse> uploadPart(
+            String bucket, String objectName, String uploadId, int partNumber, byte[] data, int length)
+            throws Exception {
+        return uploadPartAsync(bucket, null, objectName, data, length, uploadId, partNumber, null, null);
+    }
+
+    public CompletableFuture<ObjectWriteResponse> completeMultipartUpload(
+            String bucket, String objectName, String uploadId, Part[] parts) throws Exception {
+        return completeMultipartUploadAsync(bucket, null, objectName, uploadId, parts, null, null);
+    }
+
+    public CompletableFuture<AbortMultipartUploadResponse> abortMultipartUpload(
+            String bucket, String objectName, String uploadId) throws Exception {
+        return abortMultipartUploadAsync(bucket, null, objectName, uploadId, null, null);
+    }
+}
@@ -1,5 +1,7 @@
 package com.extraction.executor.config;
 
+import com.extraction.executor.client.MultipartMinioClient;
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -24,4 +26,15 @@ public class MinioConfig {
                 .credentials(accessKey, secretKey)
                 .build();
     }
+
+    /**
+     * Async client used for multipart uploads fed from several SFTP channels at once
+     */
+    @Bean
+    public MultipartMinioClient multipartMinioClient() {
+        return new MultipartMinioClient(MinioAsyncClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .build());
+    }
 }
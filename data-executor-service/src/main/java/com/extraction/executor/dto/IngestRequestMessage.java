@@ -18,6 +18,7 @@ public class IngestRequestMessage {
     private String systemId;
     private RequestType type;
     private String sourcePath;
+    private String sourceEtag;
     private String sourceConfig;
     private Instant createdAt;
 
@@ -0,0 +1,70 @@
+package com.extraction.executor.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA Entity for the incremental SFTP sync manifest
+ *
+ * One row per file already downloaded from a source, with the size and
+ * modification time it had at the time. A later sync skips files that
+ * still match their row.
+ */
+@Entity
+@Table(name = "sftp_sync_manifest", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_sftp_manifest_source_path", columnNames = { "source_key", "remote_path" })
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SftpSyncManifestEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * SFTP source as user@host:port
+     */
+    @Column(name = "source_key", nullable = false, length = 255)
+    private String sourceKey;
+
+    /**
+     * Absolute path of the file on the SFTP server
+     */
+    @Column(name = "remote_path", nullable = false, columnDefinition = "TEXT")
+    private String remotePath;
+
+    /**
+     * Size in bytes when the file was synced
+     */
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    /**
+     * Remote modification time (epoch seconds) when the file was synced
+     */
+    @Column(name = "mtime", nullable = false)
+    private Long mtime;
+
+    /**
+     * Sync job that last ingested the file
+     */
+    @Column(name = "job_id", length = 100)
+    private String jobId;
+
+    /**
+     * Where the last ingested copy was stored
+     */
+    @Column(name = "minio_path", columnDefinition = "TEXT")
+    private String minioPath;
+
+    @Column(name = "synced_at", nullable = false)
+    private LocalDateTime syncedAt;
+}
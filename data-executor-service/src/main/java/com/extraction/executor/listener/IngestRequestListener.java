@@ -4,23 +4,34 @@ import com.extraction.executor.dto.FileReadyEvent;
 import com.extraction.executor.dto.IngestRequestMessage;
 import com.extraction.executor.service.KafkaProducerService;
 import com.extraction.executor.service.MinioStorageService;
+import com.extraction.executor.service.RemoteFileMatcher;
+import com.extraction.executor.service.SftpChannelPool;
+import com.extraction.executor.service.SftpRangedDownloader;
 import com.extraction.executor.service.SftpService;
+import com.extraction.executor.service.SftpStreamingCopier;
+import com.extraction.executor.service.SftpSyncManifestService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.jcraft.jsch.ChannelSftp;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.minio.StatObjectResponse;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
 import java.time.Instant;
-import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Component
@@ -29,8 +40,12 @@ public class IngestRequestListener {
 
     private final MinioStorageService minioStorageService;
     private final SftpService sftpService;
+    private final SftpRangedDownloader sftpRangedDownloader;
+    private final SftpStreamingCopier sftpStreamingCopier;
+    private final SftpSyncManifestService manifestService;
     private final KafkaProducerService kafkaProducerService;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
     @Value("${sftp.default.host}")
     private String defaultSftpHost;
@@ -47,9 +62,28 @@ public class IngestRequestListener {
     @Value("${sftp.default.remote-directory}")
     private String defaultRemoteDir;
 
+    @Value("${sftp.sync.skip-growing-files:false}")
+    private boolean defaultSkipGrowingFiles;
+
     // Virtual Thread executor for parallel downloads
     private final ExecutorService virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
+    // Files being downloaded until their manifest row is written, so overlapping syncs of a source skip them
+    private final Set<String> inFlightFiles = ConcurrentHashMap.newKeySet();
+
+    private Counter manifestFailures;
+    private Counter syncFailures;
+
+    @PostConstruct
+    void init() {
+        manifestFailures = Counter.builder("sftp.sync.manifest.failures")
+                .description("Published files whose manifest row could not be written; the next sync ingests them again")
+                .register(meterRegistry);
+        syncFailures = Counter.builder("sftp.sync.failures")
+                .description("Syncs whose connection or listing failed after the request was acked")
+                .register(meterRegistry);
+    }
+
     @RabbitListener(queues = "${messaging.queue.executor-ingest}")
     public void handleIngestRequest(IngestRequestMessage message) {
         log.info("Received ingest request: jobId={}, type={}, systemId={}",
@@ -64,7 +98,8 @@ public class IngestRequestListener {
         } catch (Exception e) {
             log.error("Error processing ingest request: jobId={}, error={}",
                     message.getJobId(), e.getMessage(), e);
-            // TODO: Send to DLQ or error topic
+            // Dead-letter instead of acking, so the gateway learns the job failed
+            throw new AmqpRejectAndDontRequeueException("Ingest request failed: " + message.getJobId(), e);
         }
     }
 
@@ -75,7 +110,7 @@ public class IngestRequestListener {
         log.info("Processing upload request: jobId={}, path={}", message.getJobId(), message.getSourcePath());
 
         // Move file from temp to raw bucket
-        String rawPath = minioStorageService.moveToRawBucket(message.getSourcePath());
+        String rawPath = minioStorageService.moveToRawBucket(message.getSourcePath(), message.getSourceEtag());
 
         // Get file info
         StatObjectResponse stat = minioStorageService.getObjectInfo(rawPath);
@@ -115,63 +150,169 @@ public class IngestRequestListener {
     }
 
     /**
-     * Download files from SFTP in parallel using Virtual Threads
+     * Download new or changed files from SFTP in parallel using Virtual Threads.
+     *
+     * Only the config is checked on the listener thread. The listing and the
+     * downloads run on a Virtual Thread, so the request is acked at once rather
+     * than held unacked for the whole sync, which for a large drop folder could
+     * outlast the broker's consumer timeout and get the sync redelivered. A sync
+     * that fails after that is logged and counted, not dead-lettered; files it
+     * did not get to are picked up by the next sync through the manifest.
      */
-    private void handleSftpSync(IngestRequestMessage message, JsonNode config) throws Exception {
+    private void handleSftpSync(IngestRequestMessage message, JsonNode config) {
         String host = config.has("host") ? config.get("host").asText() : defaultSftpHost;
         int port = config.has("port") ? config.get("port").asInt() : defaultSftpPort;
         String username = config.has("username") ? config.get("username").asText() : defaultSftpUsername;
         String password = config.has("password") ? config.get("password").asText() : defaultSftpPassword;
         String remoteDir = config.has("remotePath") ? config.get("remotePath").asText() : defaultRemoteDir;
-        String pattern = config.has("filePattern") ? config.get("filePattern").asText() : null;
-
-        ChannelSftp channel = null;
-        try {
-            channel = sftpService.connect(host, port, username, password);
-            List<String> files = sftpService.listFiles(channel, remoteDir, pattern);
+        // Regex on the file name, or "glob:*.csv"
+        RemoteFileMatcher matcher = RemoteFileMatcher.compile(
+                config.has("filePattern") ? config.get("filePattern").asText() : null);
+        boolean recursive = config.has("recursive") && config.get("recursive").asBoolean();
+        // fullSync ignores the manifest and ingests every matching file again
+        boolean fullSync = config.has("fullSync") && config.get("fullSync").asBoolean();
+        boolean skipGrowing = config.has("skipGrowingFiles")
+                ? config.get("skipGrowingFiles").asBoolean()
+                : defaultSkipGrowingFiles;
 
-            log.info("Found {} files to download for job: {}", files.size(), message.getJobId());
-
-            // Download files in parallel using Virtual Threads
-            final ChannelSftp finalChannel = channel;
-            for (String filePath : files) {
-                virtualExecutor.submit(() -> downloadAndPublish(finalChannel, filePath, message));
+        virtualExecutor.submit(() -> {
+            try {
+                runSftpSync(message, host, port, username, password, remoteDir, matcher, recursive, fullSync,
+                        skipGrowing);
+            } catch (Exception e) {
+                syncFailures.increment();
+                log.error("SFTP sync failed: jobId={}, source={}, error={}", message.getJobId(),
+                        SftpService.sourceKey(host, port, username), e.getMessage(), e);
             }
+        });
+    }
+
+    private void runSftpSync(IngestRequestMessage message, String host, int port, String username, String password,
+            String remoteDir, RemoteFileMatcher matcher, boolean recursive, boolean fullSync, boolean skipGrowing)
+            throws Exception {
+        String sourceKey = SftpService.sourceKey(host, port, username);
 
+        // Files are handed to Virtual Threads as the listing streams in, each download on its
+        // own pooled channel. Taking a slot before submitting holds the listing back instead of
+        // parking a thread per file; one channel is left for the listing until it is done
+        int parallelism = sftpService.maxParallelTransfers();
+        Semaphore slots = new Semaphore(Math.max(1, parallelism - 1));
+        AtomicInteger skipped = new AtomicInteger();
+        int queued;
+        try (SftpChannelPool.Lease lease = sftpService.borrow(host, port, username, password)) {
+            queued = sftpService.streamFiles(lease.channel(), fullSync ? null : sourceKey, remoteDir, matcher,
+                    recursive, skipGrowing, file -> {
+                        String fileKey = sourceKey + file.path();
+                        if (!inFlightFiles.add(fileKey)) {
+                            // Another sync of this source is already ingesting it
+                            skipped.incrementAndGet();
+                            return;
+                        }
+                        try {
+                            slots.acquire();
+                        } catch (InterruptedException e) {
+                            // Stops the listing
+                            inFlightFiles.remove(fileKey);
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        virtualExecutor.submit(() -> {
+                            try {
+                                downloadAndPublish(host, port, username, password, file, message, fileKey);
+                            } finally {
+                                slots.release();
+                            }
+                        });
+                    });
         } finally {
-            // Note: In production, manage connection lifecycle better
-            // For now, leave connection open for parallel downloads
+            if (parallelism > 1) {
+                slots.release();
+            }
         }
+
+        log.info("Queued {} files to download for job: {} ({} already in progress)", queued - skipped.get(),
+                message.getJobId(), skipped.get());
     }
 
-    private void downloadAndPublish(ChannelSftp channel, String remotePath, IngestRequestMessage message) {
+    /**
+     * Download one file, publish it and record it in the manifest; {@code fileKey}
+     * leaves {@link #inFlightFiles} once that is done or has failed
+     */
+    private void downloadAndPublish(String host, int port, String username, String password,
+            SftpService.RemoteFile file, IngestRequestMessage message, String fileKey) {
+        String remotePath = file.path();
+        String fileName = remotePath.substring(remotePath.lastIndexOf('/') + 1);
+        String contentType = "application/octet-stream";
+        boolean handedOff = false;
         try {
-            String fileName = remotePath.substring(remotePath.lastIndexOf('/') + 1);
-            long fileSize = sftpService.getFileSize(channel, remotePath);
-
-            try (InputStream inputStream = sftpService.downloadFile(channel, remotePath)) {
-                // Upload to MinIO
-                String minioPath = minioStorageService.uploadToRaw(
-                        inputStream, fileName, message.getSystemId(), fileSize, "application/octet-stream");
-
-                // Publish file ready event
-                FileReadyEvent event = FileReadyEvent.builder()
-                        .jobId(message.getJobId())
-                        .fileId(UUID.randomUUID().toString())
-                        .systemId(message.getSystemId())
-                        .fileName(fileName)
-                        .minioPath(minioPath)
-                        .bucket(minioStorageService.getRawBucket())
-                        .fileSize(fileSize)
-                        .contentType("application/octet-stream")
-                        .createdAt(Instant.now())
-                        .build();
-
-                kafkaProducerService.publishFileReady(event);
-                log.info("Downloaded and published: jobId={}, file={}", message.getJobId(), fileName);
+            String minioPath;
+            long fileSize;
+            if (sftpRangedDownloader.shouldUse(file.size())) {
+                // Large file: read byte ranges over several channels into a multipart upload
+                minioPath = sftpRangedDownloader.download(host, port, username, password, remotePath, file.size(),
+                        fileName, message.getSystemId(), contentType);
+                fileSize = file.size();
+            } else {
+                try (SftpChannelPool.Lease lease = sftpService.borrow(host, port, username, password)) {
+                    // Streamed without a stat: the object is as long as what was actually read
+                    try (InputStream inputStream = sftpService.downloadFile(lease.channel(), remotePath)) {
+                        SftpStreamingCopier.StoredFile stored = sftpStreamingCopier.copyToRaw(
+                                inputStream, remotePath, fileName, message.getSystemId(), contentType);
+                        minioPath = stored.path();
+                        fileSize = stored.size();
+                    } catch (Exception e) {
+                        // The channel may be left mid-transfer; don't hand it to the next download
+                        lease.invalidate();
+                        throw e;
+                    }
+                }
             }
+
+            // Publish file ready event
+            FileReadyEvent event = FileReadyEvent.builder()
+                    .jobId(message.getJobId())
+                    .fileId(UUID.randomUUID().toString())
+                    .systemId(message.getSystemId())
+                    .fileName(fileName)
+                    .minioPath(minioPath)
+                    .bucket(minioStorageService.getRawBucket())
+                    .fileSize(fileSize)
+                    .contentType(contentType)
+                    .createdAt(Instant.now())
+                    .build();
+
+            // Only a published file counts as synced; anything else is retried by the next sync
+            String sourceKey = SftpService.sourceKey(host, port, username);
+            String storedPath = minioPath;
+            kafkaProducerService.publishFileReady(event)
+                    .thenRunAsync(() -> recordSynced(sourceKey, file, message.getJobId(), storedPath), virtualExecutor)
+                    .whenComplete((ignored, ex) -> inFlightFiles.remove(fileKey));
+            handedOff = true;
+            log.info("Downloaded and published: jobId={}, file={}", message.getJobId(), fileName);
+
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             log.error("Error downloading file: {}, error={}", remotePath, e.getMessage(), e);
+        } finally {
+            if (!handedOff) {
+                inFlightFiles.remove(fileKey);
+            }
+        }
+    }
+
+    /**
+     * Write the manifest row of a published file. A failure only means the
+     * next sync ingests the file again, so it is logged and counted, not rethrown.
+     */
+    private void recordSynced(String sourceKey, SftpService.RemoteFile file, String jobId, String minioPath) {
+        try {
+            manifestService.recordSynced(sourceKey, file, jobId, minioPath);
+        } catch (RuntimeException e) {
+            manifestFailures.increment();
+            log.warn("Failed to record synced file in manifest: jobId={}, file={}, error={}",
+                    jobId, file.path(), e.getMessage());
         }
     }
 
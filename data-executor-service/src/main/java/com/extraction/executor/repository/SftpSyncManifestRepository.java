@@ -0,0 +1,52 @@
+package com.extraction.executor.repository;
+
+import com.extraction.executor.entity.SftpSyncManifestEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for SftpSyncManifestEntry entity
+ */
+@Repository
+public interface SftpSyncManifestRepository extends JpaRepository<SftpSyncManifestEntry, Long> {
+
+    /**
+     * Find the manifest rows of one source under a directory
+     *
+     * @param sourceKey  Source as user@host:port
+     * @param pathPrefix Directory path ending in '/', with '\', '%' and '_' escaped by a backslash
+     * @return Manifest rows for files below the directory
+     */
+    @Query("SELECT m FROM SftpSyncManifestEntry m WHERE m.sourceKey = :sourceKey"
+            + " AND m.remotePath LIKE CONCAT(:pathPrefix, '%') ESCAPE '\\'")
+    List<SftpSyncManifestEntry> findBySourceKeyUnder(@Param("sourceKey") String sourceKey,
+            @Param("pathPrefix") String pathPrefix);
+
+    /**
+     * Insert or refresh the row for a synced file
+     *
+     * @return Number of rows written
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sftp_sync_manifest (source_key, remote_path, file_size, mtime, job_id, minio_path, synced_at)
+            VALUES (:sourceKey, :remotePath, :fileSize, :mtime, :jobId, :minioPath, CURRENT_TIMESTAMP)
+            ON CONFLICT (source_key, remote_path) DO UPDATE SET
+                file_size = EXCLUDED.file_size,
+                mtime = EXCLUDED.mtime,
+                job_id = EXCLUDED.job_id,
+                minio_path = EXCLUDED.minio_path,
+                synced_at = EXCLUDED.synced_at
+            """, nativeQuery = true)
+    int upsert(@Param("sourceKey") String sourceKey,
+            @Param("remotePath") String remotePath,
+            @Param("fileSize") long fileSize,
+            @Param("mtime") long mtime,
+            @Param("jobId") String jobId,
+            @Param("minioPath") String minioPath);
+}
@@ -23,8 +23,10 @@ public class KafkaProducerService {
     /**
      * Publish file ready event to Kafka
      * Uses jobId as partition key for ordering
+     *
+     * @return Completes once the broker has acknowledged the event
      */
-    public void publishFileReady(FileReadyEvent event) {
+    public CompletableFuture<SendResult<String, FileReadyEvent>> publishFileReady(FileReadyEvent event) {
         log.info("Publishing file ready event: jobId={}, fileId={}, path={}",
                 event.getJobId(), event.getFileId(), event.getMinioPath());
 
@@ -42,5 +44,6 @@ public class KafkaProducerService {
                         result.getRecordMetadata().offset());
             }
         });
+        return future;
     }
 }
@@ -2,6 +2,7 @@ package com.extraction.executor.service;
 
 import io.minio.*;
 import io.minio.messages.Item;
+import io.minio.errors.ErrorResponseException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -48,21 +49,40 @@ public class MinioStorageService {
      * Move file from temp bucket to raw bucket
      */
     public String moveToRawBucket(String sourcePath) throws Exception {
+        return moveToRawBucket(sourcePath, null);
+    }
+
+    /**
+     * Move a temp object to the raw bucket only if its ETag is still
+     * {@code expectedEtag}, i.e. it was not overwritten after the gateway checked it
+     *
+     * @param expectedEtag ETag to require, or null to move whatever is there
+     */
+    public String moveToRawBucket(String sourcePath, String expectedEtag) throws Exception {
         String[] parts = sourcePath.split("/", 2);
         String sourceBucket = parts[0];
         String sourceObject = parts[1];
 
         String destObject = "raw/" + sourceObject;
 
-        // Copy to raw bucket
-        minioClient.copyObject(CopyObjectArgs.builder()
-                .bucket(rawBucket)
-                .object(destObject)
-                .source(CopySource.builder()
-                        .bucket(sourceBucket)
-                        .object(sourceObject)
-                        .build())
-                .build());
+        // Copy to raw bucket; the ETag condition makes check and copy one step in MinIO
+        try {
+            minioClient.copyObject(CopyObjectArgs.builder()
+                    .bucket(rawBucket)
+                    .object(destObject)
+                    .source(CopySource.builder()
+                            .bucket(sourceBucket)
+                            .object(sourceObject)
+                            .matchETag(expectedEtag)
+                            .build())
+                    .build());
+        } catch (ErrorResponseException e) {
+            if ("PreconditionFailed".equals(e.errorResponse().code())) {
+                throw new IllegalStateException("Temp object " + sourcePath
+                        + " was overwritten after it was verified; not processing it", e);
+            }
+            throw e;
+        }
 
         // Delete from temp
         minioClient.removeObject(RemoveObjectArgs.builder()
@@ -136,6 +156,13 @@ public class MinioStorageService {
         return objects;
     }
 
+    /**
+     * Object name in the raw bucket for a new file from a system
+     */
+    public String newRawObjectName(String systemId, String fileName) {
+        return buildObjectPath(systemId, fileName);
+    }
+
     private String buildObjectPath(String systemId, String fileName) {
         String uuid = UUID.randomUUID().toString().substring(0, 8);
         return String.format("%s/%s/%s_%s",
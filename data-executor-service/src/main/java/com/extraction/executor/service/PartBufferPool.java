@@ -0,0 +1,92 @@
+package com.extraction.executor.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of fixed-size part buffers shared by all streaming transfers.
+ *
+ * Buffers are allocated lazily up to {@code maxBuffers} and recycled, so the
+ * memory used for in-flight parts never exceeds {@code maxBuffers * partSize}
+ * however many transfers are running. They are heap buffers: the MinIO SDK
+ * and JSch both work on byte arrays, and a direct buffer would cost a copy on
+ * each side.
+ */
+@Slf4j
+@Component
+public class PartBufferPool {
+
+    private final int partSize;
+    private final int maxBuffers;
+    private final long acquireTimeoutMs;
+
+    private final BlockingQueue<ByteBuffer> free;
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    public PartBufferPool(
+            @Value("${sftp.streaming.part-size:8MB}") DataSize partSize,
+            @Value("${sftp.streaming.pool-buffers:64}") int maxBuffers,
+            @Value("${sftp.streaming.buffer-wait-ms:30000}") long acquireTimeoutMs) {
+        this.partSize = (int) partSize.toBytes();
+        this.maxBuffers = maxBuffers;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.free = new ArrayBlockingQueue<>(maxBuffers);
+    }
+
+    /**
+     * Borrow a cleared buffer, allocating a new one while under the cap.
+     *
+     * @throws IllegalStateException if no buffer frees up within the wait timeout
+     */
+    public ByteBuffer acquire() throws InterruptedException {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            if (allocated.incrementAndGet() <= maxBuffers) {
+                return ByteBuffer.allocate(partSize);
+            }
+            allocated.decrementAndGet();
+
+            buffer = free.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            if (buffer == null) {
+                log.warn("Part buffer pool exhausted: allocated={}, partSize={}", allocated.get(), partSize);
+                throw new IllegalStateException("Transfer buffer pool exhausted");
+            }
+        }
+        return buffer.clear();
+    }
+
+    /**
+     * Borrow a cleared buffer only if one is free or may still be allocated
+     *
+     * @return The buffer, or null if the pool is exhausted
+     */
+    public ByteBuffer tryAcquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            if (allocated.incrementAndGet() <= maxBuffers) {
+                return ByteBuffer.allocate(partSize);
+            }
+            allocated.decrementAndGet();
+            return null;
+        }
+        return buffer.clear();
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.capacity() == partSize && !free.offer(buffer)) {
+            allocated.decrementAndGet();
+        }
+    }
+
+    public int getPartSize() {
+        return partSize;
+    }
+}
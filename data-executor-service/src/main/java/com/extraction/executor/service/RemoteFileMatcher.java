@@ -0,0 +1,90 @@
+package com.extraction.executor.service;
+
+import java.util.regex.Pattern;
+
+/**
+ * File name filter for SFTP listings, compiled once per sync.
+ *
+ * A pattern is a regular expression matched against the whole file name, as
+ * {@code filePattern} always was; a {@code glob:} prefix takes a glob instead
+ * ({@code *} and {@code ?} within a name, {@code [...]} classes,
+ * {@code {a,b}} alternatives).
+ */
+public final class RemoteFileMatcher {
+
+    private static final RemoteFileMatcher ANY = new RemoteFileMatcher(null);
+
+    private final Pattern pattern;
+
+    private RemoteFileMatcher(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * @param pattern Regex, {@code glob:} pattern, or null/blank to match every file
+     */
+    public static RemoteFileMatcher compile(String pattern) {
+        if (pattern == null || pattern.isBlank()) {
+            return ANY;
+        }
+        if (pattern.startsWith("glob:")) {
+            return new RemoteFileMatcher(Pattern.compile(globToRegex(pattern.substring("glob:".length()))));
+        }
+        return new RemoteFileMatcher(Pattern.compile(pattern));
+    }
+
+    public boolean matches(String fileName) {
+        return pattern == null || pattern.matcher(fileName).matches();
+    }
+
+    @Override
+    public String toString() {
+        return pattern == null ? "*" : pattern.pattern();
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 8);
+        boolean inGroup = false;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            switch (c) {
+                case '*' -> regex.append("[^/]*");
+                case '?' -> regex.append("[^/]");
+                case '[' -> {
+                    int end = glob.indexOf(']', i + 1);
+                    if (end < 0) {
+                        regex.append("\\[");
+                    } else {
+                        String body = glob.substring(i + 1, end);
+                        if (body.startsWith("!")) {
+                            body = "^" + body.substring(1);
+                        }
+                        regex.append('[').append(body.replace("\\", "\\\\")).append(']');
+                        i = end;
+                    }
+                }
+                case '{' -> {
+                    regex.append("(?:");
+                    inGroup = true;
+                }
+                case '}' -> regex.append(inGroup ? ")" : "\\}");
+                case ',' -> regex.append(inGroup ? "|" : ",");
+                case '\\' -> {
+                    if (i + 1 < glob.length()) {
+                        regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+                    }
+                }
+                default -> {
+                    if ("().+^$|".indexOf(c) >= 0) {
+                        regex.append('\\');
+                    }
+                    regex.append(c);
+                }
+            }
+            if (c == '}') {
+                inGroup = false;
+            }
+        }
+        return regex.toString();
+    }
+}
@@ -0,0 +1,530 @@
+package com.extraction.executor.service;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool of SFTP sessions and channels, keyed by host, port, user and a
+ * fingerprint of the password, so a borrow only ever gets sessions opened
+ * with the credentials it supplied.
+ *
+ * JSch channels must not be shared between threads, so every transfer
+ * borrows its own {@link Lease} and returns it when done. Each host gets at
+ * most {@code max-sessions-per-host} SSH sessions with up to
+ * {@code max-channels-per-session} channels each; borrowers beyond that wait
+ * up to {@code borrow-timeout}.
+ *
+ * A host reached with more than one password gets one pool per password;
+ * pools left without sessions are dropped on eviction.
+ *
+ * Sessions send keepalives; channels idle longer than
+ * {@code validation-interval} are checked with a round trip before reuse,
+ * channels idle longer than {@code idle-timeout} are closed, and leases held
+ * longer than {@code leak-detection-threshold} are logged with the stack of
+ * the borrower.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SftpChannelPool {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sftp.pool.max-sessions-per-host:4}")
+    private int maxSessionsPerHost;
+
+    // OpenSSH allows 10 channels per connection by default (MaxSessions)
+    @Value("${sftp.pool.max-channels-per-session:8}")
+    private int maxChannelsPerSession;
+
+    @Value("${sftp.pool.connect-timeout:30s}")
+    private Duration connectTimeout;
+
+    @Value("${sftp.pool.borrow-timeout:60s}")
+    private Duration borrowTimeout;
+
+    @Value("${sftp.pool.keepalive-interval:30s}")
+    private Duration keepaliveInterval;
+
+    @Value("${sftp.pool.validation-interval:30s}")
+    private Duration validationInterval;
+
+    @Value("${sftp.pool.idle-timeout:5m}")
+    private Duration idleTimeout;
+
+    // 0 disables leak detection
+    @Value("${sftp.pool.leak-detection-threshold:30m}")
+    private Duration leakDetectionThreshold;
+
+    private final Map<String, HostPool> pools = new ConcurrentHashMap<>();
+    private final Set<Lease> leased = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Borrow a connected channel for {@code username@host:port}; close the lease to return it
+     */
+    public Lease borrow(String host, int port, String username, String password)
+            throws JSchException, InterruptedException {
+        return borrow(host, port, username, password, true);
+    }
+
+    /**
+     * Borrow a channel only if one is idle or can be opened right away
+     *
+     * @return The lease, or null if the host is at its channel limit
+     */
+    public Lease tryBorrow(String host, int port, String username, String password)
+            throws JSchException, InterruptedException {
+        return borrow(host, port, username, password, false);
+    }
+
+    private Lease borrow(String host, int port, String username, String password, boolean wait)
+            throws JSchException, InterruptedException {
+        String key = SftpService.sourceKey(host, port, username);
+        // Reserved inside compute so that eviction cannot drop the pool while this borrow uses it
+        HostPool pool = pools.compute(key + "#" + fingerprint(password), (poolKey, existing) -> {
+            HostPool reserved = existing != null ? existing : new HostPool(key, password);
+            reserved.borrowers.incrementAndGet();
+            return reserved;
+        });
+
+        long start = System.nanoTime();
+        Lease lease;
+        try {
+            lease = pool.borrow(host, port, username, wait);
+        } finally {
+            pool.borrowers.decrementAndGet();
+        }
+        if (lease == null) {
+            return null;
+        }
+        pool.borrowWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!leakDetectionThreshold.isZero()) {
+            lease.borrowStack = new Exception("SFTP channel borrowed here");
+        }
+        leased.add(lease);
+        return lease;
+    }
+
+    /**
+     * Total channels one host may have open at once
+     */
+    public int maxChannelsPerHost() {
+        return maxSessionsPerHost * maxChannelsPerSession;
+    }
+
+    /**
+     * Close idle channels and empty sessions, and report leases held too long
+     */
+    @Scheduled(fixedDelayString = "${sftp.pool.eviction-interval-ms:30000}")
+    public void evict() {
+        long now = System.nanoTime();
+        pools.values().forEach(pool -> pool.evictIdle(now));
+        pools.keySet().forEach(poolKey -> pools.computeIfPresent(poolKey,
+                (k, pool) -> pool.isUnused() ? null : pool));
+
+        if (!leakDetectionThreshold.isZero()) {
+            for (Lease lease : leased) {
+                if (now - lease.borrowedAt > leakDetectionThreshold.toNanos() && !lease.leakReported) {
+                    lease.leakReported = true;
+                    log.warn("SFTP channel to {} held for {}s without being returned; possible leak",
+                            lease.pool.key, TimeUnit.NANOSECONDS.toSeconds(now - lease.borrowedAt),
+                            lease.borrowStack);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.values().forEach(HostPool::closeAll);
+    }
+
+    /**
+     * A borrowed channel. {@link #close()} returns it to the pool; call
+     * {@link #invalidate()} first if a transfer failed and the channel may be
+     * left mid-request.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final HostPool pool;
+        private final PooledChannel pooled;
+        private final long borrowedAt = System.nanoTime();
+        private final AtomicBoolean returned = new AtomicBoolean();
+        private volatile boolean invalid;
+        private volatile Exception borrowStack;
+        private volatile boolean leakReported;
+
+        private Lease(HostPool pool, PooledChannel pooled) {
+            this.pool = pool;
+            this.pooled = pooled;
+        }
+
+        public ChannelSftp channel() {
+            return pooled.channel;
+        }
+
+        public void invalidate() {
+            invalid = true;
+        }
+
+        @Override
+        public void close() {
+            if (returned.compareAndSet(false, true)) {
+                leased.remove(this);
+                pool.giveBack(pooled, invalid);
+            }
+        }
+    }
+
+    // ==================== Private Methods ====================
+
+    private static String fingerprint(String password) {
+        if (password == null) {
+            return "";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Sum of a gauge over every pool for one host, whatever the credentials
+     */
+    private int hostTotal(String key, ToIntFunction<HostPool> value) {
+        int total = 0;
+        for (HostPool pool : pools.values()) {
+            if (pool.key.equals(key)) {
+                total += value.applyAsInt(pool);
+            }
+        }
+        return total;
+    }
+
+    private final class HostPool {
+        final String key;
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition released = lock.newCondition();
+        // LIFO so that surplus channels stay idle long enough to be evicted
+        final ArrayDeque<PooledChannel> idle = new ArrayDeque<>();
+        final List<PooledSession> sessions = new ArrayList<>();
+        final Timer borrowWait;
+        final Counter borrowTimeouts;
+        final Counter broken;
+        final String password;
+        // Borrows between looking the pool up and taking a channel
+        final AtomicInteger borrowers = new AtomicInteger();
+        int openingSessions;
+        int activeChannels;
+
+        HostPool(String key, String password) {
+            this.key = key;
+            this.password = password;
+            // Meters are per host; pools opened later with other credentials get the same meters back
+            borrowWait = Timer.builder("sftp.pool.borrow.wait")
+                    .description("Time spent waiting for a pooled SFTP channel")
+                    .tag("host", key)
+                    .register(meterRegistry);
+            borrowTimeouts = Counter.builder("sftp.pool.borrow.timeouts")
+                    .description("Borrows that gave up waiting for a channel")
+                    .tag("host", key)
+                    .register(meterRegistry);
+            broken = Counter.builder("sftp.pool.channels.broken")
+                    .description("Channels discarded because they failed or failed validation")
+                    .tag("host", key)
+                    .register(meterRegistry);
+            Gauge.builder("sftp.pool.sessions", pools, all -> hostTotal(key, other -> other.sessions.size()))
+                    .description("Open SSH sessions")
+                    .tag("host", key)
+                    .register(meterRegistry);
+            Gauge.builder("sftp.pool.channels.active", pools, all -> hostTotal(key, other -> other.activeChannels))
+                    .description("Channels currently borrowed")
+                    .tag("host", key)
+                    .register(meterRegistry);
+            Gauge.builder("sftp.pool.channels.idle", pools, all -> hostTotal(key, other -> other.idle.size()))
+                    .description("Channels open and available for reuse")
+                    .tag("host", key)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * @param wait Wait up to the borrow timeout for a channel, or return null at once if none is free
+         */
+        Lease borrow(String host, int port, String username, boolean wait) throws JSchException, InterruptedException {
+            long deadline = System.nanoTime() + borrowTimeout.toNanos();
+            while (true) {
+                PooledChannel candidate = null;
+                PooledSession target = null;
+                boolean newSession = false;
+
+                lock.lock();
+                try {
+                    while (candidate == null && target == null && !newSession) {
+                        if (!idle.isEmpty()) {
+                            candidate = idle.pollLast();
+                            activeChannels++;
+                        } else if ((target = sessionWithRoom()) != null) {
+                            target.channels++;
+                            activeChannels++;
+                        } else if (sessions.size() + openingSessions < maxSessionsPerHost) {
+                            openingSessions++;
+                            activeChannels++;
+                            newSession = true;
+                        } else if (!wait) {
+                            return null;
+                        } else {
+                            long remaining = deadline - System.nanoTime();
+                            if (remaining <= 0) {
+                                borrowTimeouts.increment();
+                                throw new JSchException("Timed out after " + borrowTimeout.toSeconds()
+                                        + "s waiting for an SFTP channel to " + key);
+                            }
+                            released.awaitNanos(remaining);
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                if (candidate != null) {
+                    if (isHealthy(candidate)) {
+                        return new Lease(this, candidate);
+                    }
+                    broken.increment();
+                    discard(candidate);
+                    continue;
+                }
+
+                try {
+                    if (newSession) {
+                        target = openSession(host, port, username);
+                    }
+                    return new Lease(this, new PooledChannel(target, openChannel(target)));
+                } catch (JSchException | RuntimeException e) {
+                    lock.lock();
+                    try {
+                        activeChannels--;
+                        if (newSession && target == null) {
+                            openingSessions--;
+                        } else if (target != null) {
+                            target.channels--;
+                        }
+                        released.signal();
+                    } finally {
+                        lock.unlock();
+                    }
+                    throw e;
+                }
+            }
+        }
+
+        void giveBack(PooledChannel pooled, boolean invalid) {
+            if (invalid || !pooled.channel.isConnected() || !pooled.session.session.isConnected()) {
+                if (invalid) {
+                    broken.increment();
+                }
+                discard(pooled);
+                return;
+            }
+            lock.lock();
+            try {
+                activeChannels--;
+                pooled.idleSince = System.nanoTime();
+                idle.addLast(pooled);
+                released.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void evictIdle(long now) {
+            List<PooledChannel> expired = new ArrayList<>();
+            List<PooledSession> emptySessions = new ArrayList<>();
+            lock.lock();
+            try {
+                for (Iterator<PooledChannel> it = idle.iterator(); it.hasNext(); ) {
+                    PooledChannel pooled = it.next();
+                    if (now - pooled.idleSince > idleTimeout.toNanos() || !pooled.channel.isConnected()) {
+                        it.remove();
+                        pooled.session.channels--;
+                        expired.add(pooled);
+                    }
+                }
+                for (Iterator<PooledSession> it = sessions.iterator(); it.hasNext(); ) {
+                    PooledSession session = it.next();
+                    if (session.channels == 0 || !session.session.isConnected()) {
+                        it.remove();
+                        emptySessions.add(session);
+                    }
+                }
+                if (!expired.isEmpty() || !emptySessions.isEmpty()) {
+                    released.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+            expired.forEach(pooled -> pooled.channel.disconnect());
+            emptySessions.forEach(session -> session.session.disconnect());
+            if (!expired.isEmpty() || !emptySessions.isEmpty()) {
+                log.debug("Evicted {} idle SFTP channels and {} sessions for {}", expired.size(),
+                        emptySessions.size(), key);
+            }
+        }
+
+        /**
+         * No sessions and nobody borrowing. Called inside compute on the pool map.
+         */
+        boolean isUnused() {
+            lock.lock();
+            try {
+                return borrowers.get() == 0 && sessions.isEmpty() && openingSessions == 0 && activeChannels == 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void closeAll() {
+            lock.lock();
+            try {
+                idle.forEach(pooled -> pooled.channel.disconnect());
+                idle.clear();
+                sessions.forEach(session -> session.session.disconnect());
+                sessions.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Connected session with a free channel slot. Caller holds the lock.
+         */
+        private PooledSession sessionWithRoom() {
+            for (PooledSession session : sessions) {
+                if (session.channels < maxChannelsPerSession && session.session.isConnected()) {
+                    return session;
+                }
+            }
+            return null;
+        }
+
+        private boolean isHealthy(PooledChannel pooled) {
+            if (!pooled.channel.isConnected() || !pooled.session.session.isConnected()) {
+                return false;
+            }
+            if (System.nanoTime() - pooled.idleSince < validationInterval.toNanos()) {
+                return true;
+            }
+            try {
+                pooled.channel.realpath(".");
+                return true;
+            } catch (Exception e) {
+                log.debug("Pooled SFTP channel to {} failed validation: {}", key, e.getMessage());
+                return false;
+            }
+        }
+
+        private void discard(PooledChannel pooled) {
+            pooled.channel.disconnect();
+            lock.lock();
+            try {
+                activeChannels--;
+                pooled.session.channels--;
+                if (!pooled.session.session.isConnected()) {
+                    sessions.remove(pooled.session);
+                }
+                released.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private PooledSession openSession(String host, int port, String username) throws JSchException {
+            JSch jsch = new JSch();
+            Session session = jsch.getSession(username, host, port);
+            session.setPassword(password);
+
+            Properties config = new Properties();
+            config.put("StrictHostKeyChecking", "no");
+            session.setConfig(config);
+            session.setServerAliveInterval((int) keepaliveInterval.toMillis());
+            session.setServerAliveCountMax(3);
+            session.connect((int) connectTimeout.toMillis());
+
+            PooledSession pooled = new PooledSession(session);
+            pooled.channels = 1;
+            lock.lock();
+            try {
+                openingSessions--;
+                sessions.add(pooled);
+                // Waiters can now open channels on the new session
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            log.info("Connected to SFTP: {} (session {}/{})", key, sessions.size(), maxSessionsPerHost);
+            return pooled;
+        }
+
+        private ChannelSftp openChannel(PooledSession session) throws JSchException {
+            ChannelSftp channel = (ChannelSftp) session.session.openChannel("sftp");
+            channel.connect((int) connectTimeout.toMillis());
+            return channel;
+        }
+    }
+
+    private static final class PooledChannel {
+        final PooledSession session;
+        final ChannelSftp channel;
+        // Guarded by the host pool's lock
+        long idleSince;
+
+        PooledChannel(PooledSession session, ChannelSftp channel) {
+            this.session = session;
+            this.channel = channel;
+        }
+    }
+
+    private static final class PooledSession {
+        final Session session;
+        // Open channels, borrowed or idle; guarded by the host pool's lock
+        int channels;
+
+        PooledSession(Session session) {
+            this.session = session;
+        }
+    }
+}
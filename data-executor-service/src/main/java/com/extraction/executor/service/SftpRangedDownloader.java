@@ -0,0 +1,266 @@
+package com.extraction.executor.service;
+
+import com.extraction.executor.client.MultipartMinioClient;
+import com.jcraft.jsch.JSchException;
+import io.minio.messages.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Downloads a large SFTP file over several pooled channels at once into a
+ * MinIO multipart upload.
+ *
+ * The file is cut into byte ranges of whole parts. Workers, each holding its
+ * own channel, claim ranges in order, open the file at the range offset and
+ * upload every part of it, so one slow SSH window no longer caps the
+ * transfer. Part size grows so a file never needs more than 10,000 parts;
+ * the number of channels grows with the file size up to
+ * {@code max-parallelism}, and there are a few ranges per worker so a slow
+ * channel does not hold up the end of the transfer. The first failing worker
+ * stops the others and aborts the upload.
+ *
+ * Memory is one part buffer per worker, taken from the shared
+ * {@link PartBufferPool}; only the first worker waits for a channel or a
+ * buffer, the others join if both are free right away.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SftpRangedDownloader {
+
+    // S3 limits
+    private static final int MAX_PARTS = 10_000;
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final long MAX_PART_SIZE = 512L * 1024 * 1024;
+
+    private final SftpService sftpService;
+    private final MultipartMinioClient multipartMinioClient;
+    private final MinioStorageService minioStorageService;
+    private final TransferMetrics transferMetrics;
+    private final PartBufferPool bufferPool;
+
+    // Files at least this large are downloaded in ranges
+    @Value("${sftp.ranged.threshold:256MB}")
+    private DataSize threshold;
+
+    // One more channel per this many bytes, up to max-parallelism
+    @Value("${sftp.ranged.bytes-per-channel:128MB}")
+    private DataSize bytesPerChannel;
+
+    @Value("${sftp.ranged.max-parallelism:8}")
+    private int maxParallelism;
+
+    @Value("${sftp.ranged.ranges-per-channel:4}")
+    private int rangesPerChannel;
+
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Whether a file of this size should be downloaded in ranges
+     */
+    public boolean shouldUse(long fileSize) {
+        return fileSize >= threshold.toBytes();
+    }
+
+    /**
+     * Download {@code remotePath} ({@code fileSize} bytes) into the raw bucket
+     *
+     * @return MinIO path of the stored object
+     */
+    public String download(String host, int port, String username, String password, String remotePath,
+            long fileSize, String fileName, String systemId, String contentType) throws Exception {
+        long start = System.nanoTime();
+        Plan plan = plan(fileSize, sftpService.maxParallelTransfers());
+        String bucket = minioStorageService.getRawBucket();
+        String objectName = minioStorageService.newRawObjectName(systemId, fileName);
+
+        String uploadId = multipartMinioClient.createMultipartUpload(bucket, objectName, contentType)
+                .get().result().uploadId();
+        log.info("Ranged download: file={}, size={}, parts={}x{}, ranges={}, channels={}",
+                remotePath, fileSize, plan.partCount(), plan.partSize(), plan.rangeCount(), plan.parallelism());
+
+        AtomicInteger nextRange = new AtomicInteger();
+        AtomicReferenceArray<Part> parts = new AtomicReferenceArray<>(plan.partCount());
+        AtomicBoolean failed = new AtomicBoolean();
+        CompletionService<Void> completion = new ExecutorCompletionService<>(workers);
+        List<Future<Void>> running = new ArrayList<>();
+        try {
+            for (int i = 0; i < plan.parallelism(); i++) {
+                boolean required = i == 0;
+                running.add(completion.submit(() -> {
+                    try {
+                        runWorker(host, port, username, password, remotePath, fileSize, plan, bucket, objectName,
+                                uploadId, nextRange, parts, required, failed);
+                    } catch (Exception e) {
+                        // Tell the other workers before the failure is even collected
+                        failed.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            // In completion order, so the first failure cancels the rest at once
+            for (int i = 0; i < running.size(); i++) {
+                completion.take().get();
+            }
+
+            Part[] completed = new Part[plan.partCount()];
+            for (int i = 0; i < completed.length; i++) {
+                completed[i] = parts.get(i);
+            }
+            multipartMinioClient.completeMultipartUpload(bucket, objectName, uploadId, completed).get();
+
+        } catch (Exception e) {
+            failed.set(true);
+            running.forEach(worker -> worker.cancel(true));
+            abortQuietly(bucket, objectName, uploadId);
+            if (e instanceof ExecutionException && e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        log.info("Uploaded file to raw bucket: {}/{} ({} bytes over {} channels)", bucket, objectName, fileSize,
+                plan.parallelism());
+        transferMetrics.record("ranged", remotePath, fileSize, System.nanoTime() - start);
+        return bucket + "/" + objectName;
+    }
+
+    /**
+     * How a file is split: {@code partCount} parts of {@code partSize} (the last
+     * one shorter), grouped into ranges of {@code partsPerRange} parts
+     */
+    record Plan(long partSize, int partCount, int partsPerRange, int rangeCount, int parallelism) {
+    }
+
+    // ==================== Private Methods ====================
+
+    private Plan plan(long fileSize, int channelLimit) {
+        // Pool-sized parts so workers can use pooled buffers; only huge files need larger ones
+        long part = Math.max(bufferPool.getPartSize(), MIN_PART_SIZE);
+        long needed = Math.ceilDiv(fileSize, (long) MAX_PARTS);
+        if (needed > part) {
+            // Round up to whole MiB
+            part = Math.ceilDiv(needed, 1024L * 1024) * 1024 * 1024;
+        }
+        part = Math.min(part, MAX_PART_SIZE);
+        int partCount = (int) Math.max(1, Math.ceilDiv(fileSize, part));
+
+        int parallelism = (int) Math.clamp(Math.ceilDiv(fileSize, bytesPerChannel.toBytes()), 1,
+                Math.max(1, Math.min(maxParallelism, channelLimit)));
+        parallelism = Math.min(parallelism, partCount);
+
+        int partsPerRange = Math.max(1, Math.ceilDiv(partCount, parallelism * rangesPerChannel));
+        int rangeCount = Math.ceilDiv(partCount, partsPerRange);
+        return new Plan(part, partCount, partsPerRange, rangeCount, parallelism);
+    }
+
+    /**
+     * Claim ranges until none are left or another worker failed, reading each
+     * over this worker's own channel into a pooled part buffer. The required
+     * worker waits for its channel and buffer and fails the download without
+     * them; the others only join if both are free right away, and otherwise
+     * leave their share to the workers that got them.
+     */
+    private void runWorker(String host, int port, String username, String password, String remotePath,
+            long fileSize, Plan plan, String bucket, String objectName, String uploadId,
+            AtomicInteger nextRange, AtomicReferenceArray<Part> parts, boolean required, AtomicBoolean failed)
+            throws Exception {
+        SftpChannelPool.Lease borrowed;
+        try {
+            borrowed = required
+                    ? sftpService.borrow(host, port, username, password)
+                    : sftpService.tryBorrow(host, port, username, password);
+        } catch (JSchException e) {
+            if (required) {
+                throw e;
+            }
+            log.debug("Ranged download of {} continues with fewer channels: {}", remotePath, e.getMessage());
+            return;
+        }
+        if (borrowed == null) {
+            log.debug("Ranged download of {} continues with fewer channels: none free", remotePath);
+            return;
+        }
+
+        try (SftpChannelPool.Lease lease = borrowed) {
+            ByteBuffer pooled = null;
+            byte[] buffer;
+            if (plan.partSize() == bufferPool.getPartSize()) {
+                pooled = required ? bufferPool.acquire() : bufferPool.tryAcquire();
+                if (pooled == null) {
+                    log.debug("Ranged download of {} continues with fewer channels: no part buffer free", remotePath);
+                    return;
+                }
+                buffer = pooled.array();
+            } else {
+                // Parts grown past the pool's size for a file over 10,000 pool-sized parts
+                buffer = new byte[(int) plan.partSize()];
+            }
+            try {
+                int range;
+                while (!failed.get() && (range = nextRange.getAndIncrement()) < plan.rangeCount()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException("Ranged download cancelled");
+                    }
+                    int firstPart = range * plan.partsPerRange();
+                    int lastPart = Math.min(firstPart + plan.partsPerRange(), plan.partCount());
+                    long offset = firstPart * plan.partSize();
+
+                    try (InputStream in = sftpService.downloadFile(lease.channel(), remotePath, offset)) {
+                        for (int index = firstPart; index < lastPart && !failed.get(); index++) {
+                            int length = (int) Math.min(plan.partSize(), fileSize - index * plan.partSize());
+                            readFully(in, buffer, length, remotePath);
+                            String etag = multipartMinioClient.uploadPart(bucket, objectName, uploadId, index + 1,
+                                    buffer, length).get().etag();
+                            parts.set(index, new Part(index + 1, etag));
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                lease.invalidate();
+                throw e;
+            } finally {
+                bufferPool.release(pooled);
+            }
+        }
+    }
+
+    private void readFully(InputStream in, byte[] buffer, int length, String remotePath) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int read = in.read(buffer, offset, length - offset);
+            if (read < 0) {
+                throw new IOException("File shrank during download: " + remotePath);
+            }
+            offset += read;
+        }
+    }
+
+    private void abortQuietly(String bucket, String objectName, String uploadId) {
+        try {
+            multipartMinioClient.abortMultipartUpload(bucket, objectName, uploadId).get();
+            log.info("Aborted multipart upload: bucket={}, object={}", bucket, objectName);
+        } catch (Exception e) {
+            log.warn("Failed to abort multipart upload {}: {}", uploadId, e.getMessage());
+        }
+    }
+}
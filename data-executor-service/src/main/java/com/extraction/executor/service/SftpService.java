@@ -1,59 +1,132 @@
 package com.extraction.executor.service;
 
+import com.extraction.executor.entity.SftpSyncManifestEntry;
 import com.jcraft.jsch.*;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Properties;
-import java.util.Vector;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class SftpService {
 
+    private final SftpChannelPool channelPool;
+    private final SftpSyncManifestService manifestService;
+
+    @Value("${sftp.sync.settle-time:5s}")
+    private Duration settleTime;
+
     /**
-     * Connect to SFTP server
+     * Borrow a pooled channel to the SFTP server; close the lease to return it.
+     * Never share one lease between threads.
      */
-    public ChannelSftp connect(String host, int port, String username, String password) throws JSchException {
-        JSch jsch = new JSch();
-        Session session = jsch.getSession(username, host, port);
-        session.setPassword(password);
-
-        Properties config = new Properties();
-        config.put("StrictHostKeyChecking", "no");
-        session.setConfig(config);
-        session.connect(30000); // 30s timeout
+    public SftpChannelPool.Lease borrow(String host, int port, String username, String password)
+            throws JSchException, InterruptedException {
+        return channelPool.borrow(host, port, username, password);
+    }
 
-        ChannelSftp channel = (ChannelSftp) session.openChannel("sftp");
-        channel.connect(30000);
+    /**
+     * Borrow a channel without waiting; null if the host has none to spare
+     */
+    public SftpChannelPool.Lease tryBorrow(String host, int port, String username, String password)
+            throws JSchException, InterruptedException {
+        return channelPool.tryBorrow(host, port, username, password);
+    }
 
-        log.info("Connected to SFTP: {}@{}:{}", username, host, port);
-        return channel;
+    /**
+     * Channels one host can serve at once, i.e. the useful download parallelism per source
+     */
+    public int maxParallelTransfers() {
+        return channelPool.maxChannelsPerHost();
     }
 
     /**
-     * List files in remote directory
+     * Source key used by the pool and the sync manifest
      */
-    public List<String> listFiles(ChannelSftp channel, String remoteDir, String pattern) throws SftpException {
-        List<String> files = new ArrayList<>();
+    public static String sourceKey(String host, int port, String username) {
+        return username + "@" + host + ":" + port;
+    }
 
-        @SuppressWarnings("unchecked")
-        Vector<ChannelSftp.LsEntry> entries = channel.ls(remoteDir);
+    /**
+     * Stream the files under a remote directory that are new or changed since the
+     * last sync into {@code sink}, as the server returns them.
+     *
+     * Entries are read through an {@link ChannelSftp.LsEntrySelector}, one
+     * READDIR batch at a time, so a huge directory is never held as a whole and
+     * the first files reach {@code sink} before the listing is done. Subdirectories
+     * are queued and listed after their parent; symlinks are not followed.
+     * {@code sink} runs on the calling thread and may block to hold the listing back.
+     *
+     * @param sourceKey   Source the manifest is kept under; null streams every matching file
+     * @param recursive   Also list subdirectories
+     * @param skipGrowing List twice, {@code settle-time} apart, and leave out files
+     *                    whose size or mtime moved in between (still being written).
+     *                    The first pass has to be kept, so only new or changed files are
+     *                    held, and nothing reaches {@code sink} before the second pass
+     * @return Number of files passed to {@code sink}
+     */
+    public int streamFiles(ChannelSftp channel, String sourceKey, String remoteDir, RemoteFileMatcher matcher,
+            boolean recursive, boolean skipGrowing, Consumer<RemoteFile> sink)
+            throws SftpException, InterruptedException {
+        Map<String, SftpSyncManifestEntry> synced = sourceKey != null
+                ? manifestService.load(sourceKey, remoteDir)
+                : Map.of();
+        int[] counts = new int[2];
+        Predicate<RemoteFile> changed = file -> {
+            counts[0]++;
+            SftpSyncManifestEntry entry = synced.get(file.path());
+            boolean unchanged = entry != null && entry.getFileSize() == file.size()
+                    && entry.getMtime() == file.mtime();
+            if (!unchanged) {
+                counts[1]++;
+            }
+            return !unchanged;
+        };
 
-        for (ChannelSftp.LsEntry entry : entries) {
-            if (!entry.getAttrs().isDir()) {
-                String fileName = entry.getFilename();
-                if (pattern == null || fileName.matches(pattern)) {
-                    files.add(remoteDir + "/" + fileName);
+        int emitted;
+        if (!skipGrowing) {
+            emitted = walk(channel, remoteDir, matcher, recursive, file -> {
+                if (changed.test(file)) {
+                    sink.accept(file);
+                    return true;
                 }
+                return false;
+            });
+        } else {
+            Map<String, RemoteFile> pending = new HashMap<>();
+            walk(channel, remoteDir, matcher, recursive, file -> {
+                if (changed.test(file)) {
+                    pending.put(file.path(), file);
+                }
+                return false;
+            });
+            if (pending.isEmpty()) {
+                emitted = 0;
+            } else {
+                Thread.sleep(settleTime);
+                emitted = walk(channel, remoteDir, matcher, recursive, file -> {
+                    if (file.equals(pending.remove(file.path()))) {
+                        sink.accept(file);
+                        return true;
+                    }
+                    return false;
+                });
             }
         }
 
-        log.info("Found {} files in {}", files.size(), remoteDir);
-        return files;
+        log.info("Listed {} files in {}: {} new or changed, {} queued", counts[0], remoteDir, counts[1], emitted);
+        return emitted;
     }
 
     /**
@@ -65,28 +138,56 @@ public class SftpService {
     }
 
     /**
-     * Get file size
+     * Download file as InputStream starting {@code offset} bytes in
+     */
+    public InputStream downloadFile(ChannelSftp channel, String remotePath, long offset) throws SftpException {
+        log.debug("Downloading file: {} from offset {}", remotePath, offset);
+        return channel.get(remotePath, null, offset);
+    }
+
+    /**
+     * A listed remote file with the size and modification time (epoch seconds) it had
      */
-    public long getFileSize(ChannelSftp channel, String remotePath) throws SftpException {
-        SftpATTRS attrs = channel.stat(remotePath);
-        return attrs.getSize();
+    public record RemoteFile(String path, long size, long mtime) {
     }
 
     /**
-     * Disconnect from SFTP
+     * Visit matching files under {@code remoteDir}, breadth first
+     *
+     * @param visitor Returns whether the file was taken
+     * @return Number of files taken
      */
-    public void disconnect(ChannelSftp channel) {
-        if (channel != null) {
-            try {
-                Session session = channel.getSession();
-                channel.disconnect();
-                if (session != null) {
-                    session.disconnect();
+    private int walk(ChannelSftp channel, String remoteDir, RemoteFileMatcher matcher, boolean recursive,
+            Predicate<RemoteFile> visitor) throws SftpException, InterruptedException {
+        Deque<String> directories = new ArrayDeque<>();
+        directories.add(remoteDir);
+        int[] taken = new int[1];
+
+        while (!directories.isEmpty()) {
+            String dir = directories.poll();
+            // The channel is busy until ls returns, so subdirectories are only queued here
+            channel.ls(dir, entry -> {
+                String fileName = entry.getFilename();
+                SftpATTRS attrs = entry.getAttrs();
+                if (attrs.isDir()) {
+                    if (recursive && !".".equals(fileName) && !"..".equals(fileName)) {
+                        directories.add(dir + "/" + fileName);
+                    }
+                } else if (!attrs.isLink() && matcher.matches(fileName)) {
+                    String path = dir + "/" + fileName;
+                    if (visitor.test(new RemoteFile(path, attrs.getSize(),
+                            Integer.toUnsignedLong(attrs.getMTime())))) {
+                        taken[0]++;
+                    }
                 }
-                log.debug("Disconnected from SFTP");
-            } catch (Exception e) {
-                log.warn("Error disconnecting from SFTP: {}", e.getMessage());
+                return Thread.currentThread().isInterrupted()
+                        ? ChannelSftp.LsEntrySelector.BREAK
+                        : ChannelSftp.LsEntrySelector.CONTINUE;
+            });
+            if (Thread.interrupted()) {
+                throw new InterruptedException("Listing of " + remoteDir + " interrupted");
             }
         }
+        return taken[0];
     }
 }
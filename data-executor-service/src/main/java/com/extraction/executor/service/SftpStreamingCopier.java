@@ -0,0 +1,223 @@
+package com.extraction.executor.service;
+
+import com.extraction.executor.client.MultipartMinioClient;
+import io.minio.UploadPartResponse;
+import io.minio.messages.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies a stream of unknown length from SFTP into the raw bucket.
+ *
+ * The calling thread reads the SFTP stream into pooled part buffers and
+ * hands each full buffer to a writer thread through a queue of
+ * {@code queue-depth} buffers; the writer uploads them as multipart parts in
+ * order. Reading the next part overlaps uploading the previous one, and a
+ * transfer never holds more than {@code queue-depth + 2} buffers. A file that
+ * fits in the first buffer is stored with a single put instead.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SftpStreamingCopier {
+
+    private static final Slot END = new Slot(0, null, 0);
+
+    private final PartBufferPool bufferPool;
+    private final MultipartMinioClient multipartMinioClient;
+    private final MinioStorageService minioStorageService;
+    private final TransferMetrics transferMetrics;
+
+    @Value("${sftp.streaming.queue-depth:2}")
+    private int queueDepth;
+
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Copy {@code in} to a new object in the raw bucket
+     *
+     * @return Where it was stored and how many bytes were copied
+     */
+    public StoredFile copyToRaw(InputStream in, String remotePath, String fileName, String systemId,
+            String contentType) throws Exception {
+        long start = System.nanoTime();
+        ByteBuffer first = bufferPool.acquire();
+        StoredFile stored;
+        try {
+            boolean eof = fill(in, first);
+            if (eof) {
+                String path = minioStorageService.uploadToRaw(
+                        new ByteArrayInputStream(first.array(), 0, first.position()),
+                        fileName, systemId, first.position(), contentType);
+                stored = new StoredFile(path, first.position());
+            } else {
+                ByteBuffer handedOff = first;
+                first = null;
+                stored = copyMultipart(in, handedOff, fileName, systemId, contentType);
+            }
+        } finally {
+            bufferPool.release(first);
+        }
+        transferMetrics.record("stream", remotePath, stored.size(), System.nanoTime() - start);
+        return stored;
+    }
+
+    /**
+     * MinIO path of the stored object and its size in bytes
+     */
+    public record StoredFile(String path, long size) {
+    }
+
+    // ==================== Private Methods ====================
+
+    private StoredFile copyMultipart(InputStream in, ByteBuffer first, String fileName, String systemId,
+            String contentType) throws Exception {
+        String bucket = minioStorageService.getRawBucket();
+        String objectName = minioStorageService.newRawObjectName(systemId, fileName);
+        String uploadId;
+        try {
+            uploadId = multipartMinioClient.createMultipartUpload(bucket, objectName, contentType)
+                    .get().result().uploadId();
+        } catch (Exception e) {
+            bufferPool.release(first);
+            throw e;
+        }
+
+        BlockingQueue<Slot> queue = new ArrayBlockingQueue<>(queueDepth);
+        Future<List<Part>> writer = writers.submit(() -> writeParts(queue, bucket, objectName, uploadId));
+        long total = 0;
+        try {
+            ByteBuffer buffer = first;
+            int partNumber = 0;
+            boolean eof = false;
+            while (true) {
+                total += buffer.position();
+                enqueue(queue, new Slot(++partNumber, buffer, buffer.position()), writer);
+                if (eof) {
+                    break;
+                }
+
+                buffer = bufferPool.acquire();
+                try {
+                    eof = fill(in, buffer);
+                } catch (IOException e) {
+                    bufferPool.release(buffer);
+                    throw e;
+                }
+                if (buffer.position() == 0) {
+                    // Stream ended exactly on a part boundary
+                    bufferPool.release(buffer);
+                    break;
+                }
+            }
+            enqueue(queue, END, writer);
+
+            Part[] parts = writer.get().toArray(Part[]::new);
+            multipartMinioClient.completeMultipartUpload(bucket, objectName, uploadId, parts).get();
+            log.info("Uploaded file to raw bucket: {}/{} ({} bytes in {} parts)", bucket, objectName, total,
+                    parts.length);
+            return new StoredFile(bucket + "/" + objectName, total);
+
+        } catch (Exception e) {
+            writer.cancel(true);
+            drain(queue);
+            abortQuietly(bucket, objectName, uploadId);
+            if (e instanceof ExecutionException && e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Writer side: upload parts in queue order until the end marker
+     */
+    private List<Part> writeParts(BlockingQueue<Slot> queue, String bucket, String objectName, String uploadId)
+            throws Exception {
+        List<Part> parts = new ArrayList<>();
+        while (true) {
+            Slot slot = queue.take();
+            if (slot == END) {
+                return parts;
+            }
+            try {
+                CompletableFuture<UploadPartResponse> upload = multipartMinioClient.uploadPart(
+                        bucket, objectName, uploadId, slot.partNumber(), slot.buffer().array(), slot.length());
+                parts.add(new Part(slot.partNumber(), upload.get().etag()));
+            } finally {
+                bufferPool.release(slot.buffer());
+            }
+        }
+    }
+
+    /**
+     * Hand a slot to the writer, giving up if the writer has already failed
+     */
+    private void enqueue(BlockingQueue<Slot> queue, Slot slot, Future<List<Part>> writer) throws Exception {
+        try {
+            while (!queue.offer(slot, 100, TimeUnit.MILLISECONDS)) {
+                if (writer.isDone()) {
+                    // Surfaces the writer's failure
+                    writer.get();
+                    throw new IllegalStateException("Part writer stopped early");
+                }
+            }
+        } catch (Exception e) {
+            bufferPool.release(slot.buffer());
+            throw e;
+        }
+    }
+
+    private void drain(BlockingQueue<Slot> queue) {
+        Slot slot;
+        while ((slot = queue.poll()) != null) {
+            bufferPool.release(slot.buffer());
+        }
+    }
+
+    /**
+     * Read until the buffer is full or the stream ends
+     *
+     * @return Whether the stream ended
+     */
+    private static boolean fill(InputStream in, ByteBuffer buffer) throws IOException {
+        byte[] array = buffer.array();
+        while (buffer.hasRemaining()) {
+            int read = in.read(array, buffer.position(), buffer.remaining());
+            if (read < 0) {
+                return true;
+            }
+            buffer.position(buffer.position() + read);
+        }
+        return false;
+    }
+
+    private void abortQuietly(String bucket, String objectName, String uploadId) {
+        try {
+            multipartMinioClient.abortMultipartUpload(bucket, objectName, uploadId).get();
+            log.info("Aborted multipart upload: bucket={}, object={}", bucket, objectName);
+        } catch (Exception e) {
+            log.warn("Failed to abort multipart upload {}: {}", uploadId, e.getMessage());
+        }
+    }
+
+    private record Slot(int partNumber, ByteBuffer buffer, int length) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.extraction.executor.service;
+
+import com.extraction.executor.entity.SftpSyncManifestEntry;
+import com.extraction.executor.repository.SftpSyncManifestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Service for the incremental SFTP sync manifest
+ *
+ * Records each file once it has been downloaded and published, so the next
+ * sync of the same source only picks up files that are new or whose size or
+ * modification time changed since.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SftpSyncManifestService {
+
+    private final SftpSyncManifestRepository manifestRepository;
+
+    /**
+     * Load what was already synced from a source directory
+     *
+     * @param sourceKey Source as user@host:port
+     * @param remoteDir Remote directory being synced
+     * @return Manifest rows keyed by remote path
+     */
+    @Transactional(readOnly = true)
+    public Map<String, SftpSyncManifestEntry> load(String sourceKey, String remoteDir) {
+        String prefix = remoteDir.endsWith("/") ? remoteDir : remoteDir + "/";
+        Map<String, SftpSyncManifestEntry> entries = new HashMap<>();
+        for (SftpSyncManifestEntry entry : manifestRepository.findBySourceKeyUnder(sourceKey, escapeLike(prefix))) {
+            entries.put(entry.getRemotePath(), entry);
+        }
+        log.debug("Loaded {} manifest entries for {}:{}", entries.size(), sourceKey, remoteDir);
+        return entries;
+    }
+
+    /**
+     * Record a file as synced at the size and modification time it was listed with
+     *
+     * @param sourceKey Source as user@host:port
+     * @param file      Listed remote file
+     * @param jobId     Sync job that ingested it
+     * @param minioPath Where it was stored
+     */
+    @Transactional
+    public void recordSynced(String sourceKey, SftpService.RemoteFile file, String jobId, String minioPath) {
+        manifestRepository.upsert(sourceKey, file.path(), file.size(), file.mtime(), jobId, minioPath);
+    }
+
+    /**
+     * Escape LIKE wildcards so a directory named {@code data_2024} or {@code 100%}
+     * matches only itself
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,52 @@
+package com.extraction.executor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-transfer throughput of SFTP to MinIO copies
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransferMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, DistributionSummary> throughput = new ConcurrentHashMap<>();
+    private final Map<String, Counter> bytes = new ConcurrentHashMap<>();
+
+    /**
+     * Record one finished transfer
+     *
+     * @param mode  How it was copied (stream, ranged)
+     * @param size  Bytes copied
+     * @param nanos Wall time of the whole transfer
+     */
+    public void record(String mode, String remotePath, long size, long nanos) {
+        double bytesPerSecond = nanos > 0 ? size * (double) TimeUnit.SECONDS.toNanos(1) / nanos : 0;
+        throughput.computeIfAbsent(mode, m -> DistributionSummary.builder("sftp.transfer.throughput")
+                        .description("Average bytes per second of each SFTP to MinIO transfer")
+                        .baseUnit("bytes_per_second")
+                        .tag("mode", m)
+                        .publishPercentiles(0.5, 0.9)
+                        .register(meterRegistry))
+                .record(bytesPerSecond);
+        bytes.computeIfAbsent(mode, m -> Counter.builder("sftp.transfer.bytes")
+                        .description("Bytes copied from SFTP to MinIO")
+                        .baseUnit("bytes")
+                        .tag("mode", m)
+                        .register(meterRegistry))
+                .increment(size);
+        log.debug("Transfer finished: file={}, mode={}, size={}, rate={} KiB/s", remotePath, mode, size,
+                Math.round(bytesPerSecond / 1024));
+    }
+}
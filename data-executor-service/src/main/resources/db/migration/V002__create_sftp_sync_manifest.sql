@@ -0,0 +1,24 @@
+-- Flyway migration to create sftp_sync_manifest table
+-- Version: V002
+-- Description: Per-source manifest of SFTP files already ingested, for incremental sync
+
+CREATE TABLE sftp_sync_manifest (
+    id BIGSERIAL PRIMARY KEY,
+    source_key VARCHAR(255) NOT NULL,
+    remote_path TEXT NOT NULL,
+    file_size BIGINT NOT NULL,
+    mtime BIGINT NOT NULL,
+    job_id VARCHAR(100),
+    minio_path TEXT,
+    synced_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_sftp_manifest_source_path UNIQUE (source_key, remote_path)
+);
+
+-- Add comments for documentation
+COMMENT ON TABLE sftp_sync_manifest IS 'SFTP files already downloaded and published, one row per source and remote path';
+COMMENT ON COLUMN sftp_sync_manifest.source_key IS 'SFTP source as user@host:port';
+COMMENT ON COLUMN sftp_sync_manifest.remote_path IS 'Absolute path of the file on the SFTP server';
+COMMENT ON COLUMN sftp_sync_manifest.file_size IS 'Size in bytes when the file was synced';
+COMMENT ON COLUMN sftp_sync_manifest.mtime IS 'Remote modification time (epoch seconds) when the file was synced';
+COMMENT ON COLUMN sftp_sync_manifest.job_id IS 'Sync job that last ingested the file';
+COMMENT ON COLUMN sftp_sync_manifest.minio_path IS 'Where the last ingested copy was stored';
@@ -3,12 +3,14 @@ package com.extraction.integration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import org.springframework.cloud.openfeign.EnableFeignClients;
 
 @SpringBootApplication
 @EnableCaching
 @EnableFeignClients
+@EnableScheduling
 public class IntegrationServiceApplication {
 
     public static void main(String[] args) {
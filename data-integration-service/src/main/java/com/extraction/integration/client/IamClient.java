@@ -1,14 +1,28 @@
 package com.extraction.integration.client;
 
+import com.extraction.integration.dto.BatchIntrospectRequest;
 import com.extraction.integration.dto.ValidateRequest;
 import com.extraction.integration.dto.ValidateResponse;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
+import java.util.Map;
+
 @FeignClient(name = "iam-service", url = "${iam.service.url:http://localhost:8082}", fallback = IamClientFallback.class)
 public interface IamClient {
 
     @PostMapping("/internal/auth/introspect")
     ValidateResponse validate(@RequestBody ValidateRequest request);
+
+    /**
+     * One response per token, in request order
+     */
+    @PostMapping("/internal/auth/introspect/batch")
+    List<ValidateResponse> introspectBatch(@RequestBody BatchIntrospectRequest request);
+
+    @GetMapping("/internal/auth/jwks")
+    Map<String, Object> jwks();
 }
@@ -1,18 +1,37 @@
 package com.extraction.integration.client;
 
+import com.extraction.integration.dto.BatchIntrospectRequest;
 import com.extraction.integration.dto.ValidateRequest;
 import com.extraction.integration.dto.ValidateResponse;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
+
 @Component
 public class IamClientFallback implements IamClient {
 
+    public static final String UNAVAILABLE_MESSAGE = "IAM Service Unavailable (Fallback)";
+
     @Override
     public ValidateResponse validate(ValidateRequest request) {
         // Fallback when IAM Service is down
         return ValidateResponse.builder()
                 .valid(false)
-                .message("IAM Service Unavailable (Fallback)")
+                .message(UNAVAILABLE_MESSAGE)
                 .build();
     }
+
+    @Override
+    public List<ValidateResponse> introspectBatch(BatchIntrospectRequest request) {
+        return request.getTokens().stream()
+                .map(token -> validate(null))
+                .toList();
+    }
+
+    @Override
+    public Map<String, Object> jwks() {
+        // No keys: the verifier keeps the set it already has
+        return Map.of("keys", List.of());
+    }
 }
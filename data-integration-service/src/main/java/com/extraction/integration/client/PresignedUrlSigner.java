@@ -0,0 +1,47 @@
+package com.extraction.integration.client;
+
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.http.Method;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Signs presigned PUT URLs that clients use to upload straight to MinIO.
+ *
+ * Uses its own client so URLs carry the endpoint clients can reach, which
+ * is not necessarily the one the gateway talks to. The region is fixed so
+ * signing is purely local and never calls MinIO.
+ */
+public class PresignedUrlSigner {
+
+    private final MinioClient client;
+
+    public PresignedUrlSigner(String publicEndpoint, String region, String accessKey, String secretKey) {
+        this.client = MinioClient.builder()
+                .endpoint(publicEndpoint)
+                .region(region)
+                .credentials(accessKey, secretKey)
+                .build();
+    }
+
+    public String presignPut(String bucket, String objectName, Duration expiry) throws Exception {
+        return presignPut(bucket, objectName, expiry, Map.of());
+    }
+
+    /**
+     * Presign a PUT; {@code queryParams} become part of the signature, e.g. the
+     * uploadId and partNumber of a multipart part
+     */
+    public String presignPut(String bucket, String objectName, Duration expiry, Map<String, String> queryParams)
+            throws Exception {
+        return client.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                .method(Method.PUT)
+                .bucket(bucket)
+                .object(objectName)
+                .expiry((int) expiry.toSeconds())
+                .extraQueryParams(queryParams)
+                .build());
+    }
+}
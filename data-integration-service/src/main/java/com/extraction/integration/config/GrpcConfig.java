@@ -0,0 +1,20 @@
+package com.extraction.integration.config;
+
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class GrpcConfig {
+
+    /**
+     * Run call handlers on virtual threads: the ingest stream blocks on MinIO
+     * between messages, which is how it applies flow control to the client
+     */
+    @Bean
+    public GrpcServerConfigurer virtualThreadExecutor() {
+        return serverBuilder -> serverBuilder.executor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
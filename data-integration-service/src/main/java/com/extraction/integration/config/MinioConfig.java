@@ -1,5 +1,8 @@
 package com.extraction.integration.config;
 
+import com.extraction.integration.client.MultipartMinioClient;
+import com.extraction.integration.client.PresignedUrlSigner;
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -17,6 +20,12 @@ public class MinioConfig {
     @Value("${minio.secret-key}")
     private String secretKey;
 
+    @Value("${minio.public-endpoint:${minio.endpoint}}")
+    private String publicEndpoint;
+
+    @Value("${minio.region:us-east-1}")
+    private String region;
+
     @Bean
     public MinioClient minioClient() {
         return MinioClient.builder()
@@ -24,4 +33,23 @@ public class MinioConfig {
                 .credentials(accessKey, secretKey)
                 .build();
     }
+
+    /**
+     * Async client used for streaming multipart uploads with gateway-owned part buffers
+     */
+    @Bean
+    public MultipartMinioClient multipartMinioClient() {
+        return new MultipartMinioClient(MinioAsyncClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .build());
+    }
+
+    /**
+     * Signer for presigned direct uploads, addressed to the endpoint clients can reach
+     */
+    @Bean
+    public PresignedUrlSigner presignedUrlSigner() {
+        return new PresignedUrlSigner(publicEndpoint, region, accessKey, secretKey);
+    }
 }
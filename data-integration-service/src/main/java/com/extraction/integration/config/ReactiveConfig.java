@@ -0,0 +1,123 @@
+package com.extraction.integration.config;
+
+import com.extraction.integration.dto.ApiResponse;
+import com.extraction.integration.service.IamAuthService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Reactive ingest mode (profile {@code reactive}): WebFlux on Netty instead of
+ * servlet + Tomcat. Only active when the application runs as a reactive web
+ * application; the servlet security chain and controllers stand down.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    /**
+     * Offloads the remaining blocking calls (IAM auth cache misses, Redis rate
+     * limiting, RabbitMQ publish) from the event loop onto virtual threads
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler() {
+        return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "reactive-blocking");
+    }
+
+    @Bean
+    public SecurityWebFilterChain reactiveSecurityFilterChain(ServerHttpSecurity http,
+            IamAuthService iamAuthService, Scheduler blockingScheduler, ObjectMapper objectMapper) {
+
+        AuthenticationWebFilter bearerFilter = new AuthenticationWebFilter(
+                bearerAuthenticationManager(iamAuthService, blockingScheduler));
+        bearerFilter.setServerAuthenticationConverter(bearerTokenConverter());
+        bearerFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exception -> exception
+                        .authenticationEntryPoint(unauthorizedEntryPoint(objectMapper)))
+                .authorizeExchange(auth -> auth
+                        .pathMatchers("/actuator/**", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        .anyExchange().authenticated())
+                .addFilterAt(bearerFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * Feign (IAM client) needs HttpMessageConverters, which Boot only
+     * auto-configures for servlet applications
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public HttpMessageConverters httpMessageConverters(ObjectProvider<HttpMessageConverter<?>> converters) {
+        return new HttpMessageConverters(converters.orderedStream().toList());
+    }
+
+    private ReactiveAuthenticationManager bearerAuthenticationManager(IamAuthService iamAuthService,
+            Scheduler blockingScheduler) {
+        return authentication -> Mono
+                .fromCallable(() -> iamAuthService.validate((String) authentication.getCredentials()))
+                .subscribeOn(blockingScheduler)
+                .onErrorMap(e -> new BadCredentialsException(e.getMessage(), e))
+                .map(systemInfo -> new UsernamePasswordAuthenticationToken(
+                        systemInfo, // SystemInfo as principal, same as the servlet chain
+                        null,
+                        List.of(new SimpleGrantedAuthority("ROLE_SYSTEM"))));
+    }
+
+    private ServerAuthenticationConverter bearerTokenConverter() {
+        return exchange -> {
+            String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (bearerToken == null || !bearerToken.startsWith("Bearer ")) {
+                return Mono.empty();
+            }
+            String token = bearerToken.substring(7);
+            return Mono.just(new UsernamePasswordAuthenticationToken(null, token));
+        };
+    }
+
+    private ServerAuthenticationEntryPoint unauthorizedEntryPoint(ObjectMapper objectMapper) {
+        return (exchange, authException) -> {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return Mono.fromCallable(() -> objectMapper.writeValueAsBytes(ApiResponse.<Void>error(
+                            "Unauthorized: " + authException.getMessage(), "UNAUTHORIZED")))
+                    .flatMap(body -> {
+                        DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(body);
+                        return exchange.getResponse().writeWith(Mono.just(buffer));
+                    });
+        };
+    }
+}
@@ -0,0 +1,262 @@
+package com.extraction.integration.controller;
+
+import com.extraction.integration.dto.ApiResponse;
+import com.extraction.integration.dto.BatchIngestResponse;
+import com.extraction.integration.dto.BatchTriggerRequest;
+import com.extraction.integration.dto.IngestRequestMessage;
+import com.extraction.integration.dto.SystemInfo;
+import com.extraction.integration.dto.TriggerJobRequest;
+import com.extraction.integration.service.MessagePublisherService;
+import com.extraction.integration.service.MinioStorageService;
+import com.extraction.integration.service.RateLimitService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Batch ingest API: many trigger jobs or files per request.
+ * Flow: reserve N rate-limit tokens at once -> (store files) -> publish all
+ * messages as one confirmed batch -> per-item jobIds and errors
+ *
+ * Protected by:
+ * - IAM (JWT Token via Authorization header)
+ * - Rate Limiting (one token per item, reserved in a single operation)
+ * - Bulkhead (same bulkheads as the single-item endpoints)
+ */
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+public class BatchIngestController {
+
+        private final RateLimitService rateLimitService;
+        private final MinioStorageService minioStorageService;
+        private final MessagePublisherService messagePublisherService;
+        private final ObjectMapper objectMapper;
+
+        /**
+         * Trigger up to {@value BatchTriggerRequest#MAX_ITEMS} jobs in one request
+         */
+        @PostMapping("/job/trigger/batch")
+        @Bulkhead(name = "triggerBulkhead", fallbackMethod = "triggerBatchBulkheadFallback")
+        public CompletableFuture<ResponseEntity<ApiResponse<BatchIngestResponse>>> triggerBatch(
+                        @Valid @RequestBody BatchTriggerRequest request) {
+
+                SystemInfo systemInfo = currentSystem();
+                String systemId = systemInfo.getSystemId();
+                String requestId = UUID.randomUUID().toString();
+                List<TriggerJobRequest> jobs = request.getJobs();
+
+                int granted = rateLimitService.reserve(systemId, systemInfo.getDailyLimit(), jobs.size());
+                log.info("Received batch trigger: requestId={}, systemId={}, jobs={}, tokensGranted={}",
+                                requestId, systemId, jobs.size(), granted);
+
+                Batch batch = new Batch(jobs.size());
+                for (int i = 0; i < jobs.size(); i++) {
+                        if (i >= granted) {
+                                batch.reject(i, null, "RATE_LIMIT_EXCEEDED", "Daily request limit exceeded");
+                                continue;
+                        }
+                        TriggerJobRequest job = jobs.get(i);
+                        try {
+                                batch.add(i, null, IngestRequestMessage.builder()
+                                                .requestId(requestId)
+                                                .systemId(systemId)
+                                                .type(IngestRequestMessage.RequestType.SYNC)
+                                                .sourcePath(job.getRemotePath())
+                                                .sourceConfig(objectMapper.writeValueAsString(job))
+                                                .build());
+                        } catch (JsonProcessingException e) {
+                                batch.reject(i, null, "INVALID_REQUEST", e.getOriginalMessage());
+                        }
+                }
+
+                return publish(batch, requestId, systemInfo, granted);
+        }
+
+        /**
+         * Bulkhead fallback when max concurrent triggers reached
+         */
+        public CompletableFuture<ResponseEntity<ApiResponse<BatchIngestResponse>>> triggerBatchBulkheadFallback(
+                        BatchTriggerRequest request, Throwable throwable) {
+                log.warn("Trigger bulkhead full, rejecting batch of {}", request.getJobs().size());
+                return CompletableFuture.completedFuture(busy());
+        }
+
+        /**
+         * Upload up to {@value BatchTriggerRequest#MAX_ITEMS} files in one multipart request
+         */
+        @PostMapping(value = "/upload/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+        @Bulkhead(name = "uploadBulkhead", fallbackMethod = "uploadBatchBulkheadFallback")
+        public CompletableFuture<ResponseEntity<ApiResponse<BatchIngestResponse>>> uploadBatch(
+                        @RequestParam("files") List<MultipartFile> files) {
+
+                if (files.size() > BatchTriggerRequest.MAX_ITEMS) {
+                        return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                                        .body(ApiResponse.error("At most " + BatchTriggerRequest.MAX_ITEMS
+                                                        + " files per batch", "VALIDATION_ERROR")));
+                }
+
+                SystemInfo systemInfo = currentSystem();
+                String systemId = systemInfo.getSystemId();
+                String requestId = UUID.randomUUID().toString();
+
+                int granted = rateLimitService.reserve(systemId, systemInfo.getDailyLimit(), files.size());
+                log.info("Received batch upload: requestId={}, systemId={}, files={}, tokensGranted={}",
+                                requestId, systemId, files.size(), granted);
+
+                Batch batch = new Batch(files.size());
+                for (int i = 0; i < files.size(); i++) {
+                        MultipartFile file = files.get(i);
+                        if (i >= granted) {
+                                batch.reject(i, file.getOriginalFilename(), "RATE_LIMIT_EXCEEDED",
+                                                "Daily request limit exceeded");
+                                continue;
+                        }
+                        try {
+                                String minioPath = minioStorageService.uploadToTemp(file, systemId).path();
+                                batch.add(i, file.getOriginalFilename(), IngestRequestMessage.builder()
+                                                .requestId(requestId)
+                                                .systemId(systemId)
+                                                .type(IngestRequestMessage.RequestType.UPLOAD)
+                                                .sourcePath(minioPath)
+                                                .build());
+                        } catch (Exception e) {
+                                // Circuit breaker or storage error; the other files still go through
+                                log.error("Batch upload item failed: requestId={}, file={}, error={}",
+                                                requestId, file.getOriginalFilename(), e.getMessage());
+                                batch.reject(i, file.getOriginalFilename(), "SERVICE_UNAVAILABLE", e.getMessage());
+                        }
+                }
+
+                return publish(batch, requestId, systemInfo, granted);
+        }
+
+        /**
+         * Bulkhead fallback when max concurrent uploads reached
+         */
+        public CompletableFuture<ResponseEntity<ApiResponse<BatchIngestResponse>>> uploadBatchBulkheadFallback(
+                        List<MultipartFile> files, Throwable throwable) {
+                log.warn("Upload bulkhead full, rejecting batch of {}", files.size());
+                return CompletableFuture.completedFuture(busy());
+        }
+
+        // ==================== Private Methods ====================
+
+        /**
+         * Publish the prepared messages as one batch and answer once every
+         * confirm is in: 202 when any item was accepted, otherwise the status of
+         * the dominant failure. Tokens of granted items that failed to store or
+         * publish are refunded
+         */
+        private CompletableFuture<ResponseEntity<ApiResponse<BatchIngestResponse>>> publish(
+                        Batch batch, String requestId, SystemInfo systemInfo, int granted) {
+
+                List<CompletableFuture<String>> confirms = messagePublisherService
+                                .publishIngestRequests(batch.messages);
+                for (int i = 0; i < confirms.size(); i++) {
+                        BatchIngestResponse.Item item = batch.pending.get(i);
+                        confirms.set(i, confirms.get(i).whenComplete((jobId, ex) -> {
+                                if (ex == null) {
+                                        item.setJobId(jobId);
+                                } else {
+                                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null
+                                                        ? ex.getCause()
+                                                        : ex;
+                                        item.setErrorCode("SERVICE_UNAVAILABLE");
+                                        item.setMessage(cause.getMessage());
+                                }
+                        }));
+                }
+
+                return CompletableFuture.allOf(confirms.toArray(new CompletableFuture[0]))
+                                .handle((ignored, ex) -> {
+                                        List<BatchIngestResponse.Item> items = List.of(batch.items);
+                                        int accepted = (int) items.stream().filter(i -> i.getJobId() != null).count();
+                                        // Every granted item that did not end up queued gets its token back
+                                        int failed = granted - accepted;
+                                        if (failed > 0) {
+                                                rateLimitService.release(systemInfo.getSystemId(),
+                                                                systemInfo.getDailyLimit(), failed);
+                                        }
+                                        BatchIngestResponse response = BatchIngestResponse.builder()
+                                                        .requestId(requestId)
+                                                        .accepted(accepted)
+                                                        .rejected(items.size() - accepted)
+                                                        .remaining(rateLimitService.getRemainingQuota(
+                                                                        systemInfo.getSystemId(),
+                                                                        systemInfo.getDailyLimit()))
+                                                        .items(items)
+                                                        .build();
+                                        log.info("Batch processed: requestId={}, accepted={}, rejected={}",
+                                                        requestId, accepted, items.size() - accepted);
+
+                                        HttpStatus status = accepted > 0 ? HttpStatus.ACCEPTED
+                                                        : granted == 0 ? HttpStatus.TOO_MANY_REQUESTS
+                                                                        : HttpStatus.SERVICE_UNAVAILABLE;
+                                        return ResponseEntity.status(status).body(ApiResponse.<BatchIngestResponse>builder()
+                                                        .success(accepted > 0)
+                                                        .message(accepted + " of " + items.size() + " items accepted")
+                                                        .errorCode(accepted > 0 ? null : "BATCH_REJECTED")
+                                                        .data(response)
+                                                        .build());
+                                });
+        }
+
+        private ResponseEntity<ApiResponse<BatchIngestResponse>> busy() {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header("Retry-After", "1")
+                                .body(ApiResponse.error(
+                                                "Server is busy processing other requests. Please retry in a few seconds.",
+                                                "BULKHEAD_FULL"));
+        }
+
+        private SystemInfo currentSystem() {
+                return (SystemInfo) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        }
+
+        /**
+         * Per-item results in submission order, plus the messages still to publish
+         */
+        private static final class Batch {
+                final BatchIngestResponse.Item[] items;
+                final List<IngestRequestMessage> messages = new ArrayList<>();
+                final List<BatchIngestResponse.Item> pending = new ArrayList<>();
+
+                Batch(int size) {
+                        items = new BatchIngestResponse.Item[size];
+                }
+
+                void add(int index, String fileName, IngestRequestMessage message) {
+                        items[index] = BatchIngestResponse.Item.builder().index(index).fileName(fileName).build();
+                        messages.add(message);
+                        pending.add(items[index]);
+                }
+
+                void reject(int index, String fileName, String errorCode, String message) {
+                        items[index] = BatchIngestResponse.Item.builder()
+                                        .index(index)
+                                        .fileName(fileName)
+                                        .errorCode(errorCode)
+                                        .message(message)
+                                        .build();
+                }
+        }
+}
@@ -0,0 +1,153 @@
+package com.extraction.integration.controller;
+
+import com.extraction.integration.dto.ApiResponse;
+import com.extraction.integration.dto.ChunkedUploadStatus;
+import com.extraction.integration.dto.IngestRequestMessage;
+import com.extraction.integration.dto.InitChunkedUploadRequest;
+import com.extraction.integration.dto.SystemInfo;
+import com.extraction.integration.service.ChunkedUploadService;
+import com.extraction.integration.service.MessagePublisherService;
+import com.extraction.integration.service.MinioStorageService;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resumable chunked upload API
+ * Flow: init -> upload parts (any order, in parallel, any replica) -> complete
+ * -> Publish message to RabbitMQ
+ * If the publish fails, complete can be retried without re-sending parts; a
+ * retry after success returns the same job.
+ * 
+ * Protected by:
+ * - IAM (JWT Token via Authorization header)
+ * - Rate Limiting (one token per file, consumed on init)
+ * - Bulkhead (per part request, so a slow client never holds a slot for the
+ * whole file)
+ */
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/uploads")
+@RequiredArgsConstructor
+public class ChunkedUploadController {
+
+        private final ChunkedUploadService chunkedUploadService;
+        private final MessagePublisherService messagePublisherService;
+
+        @PostMapping
+        public ResponseEntity<ApiResponse<ChunkedUploadStatus>> init(
+                        @Valid @RequestBody InitChunkedUploadRequest request) throws Exception {
+
+                SystemInfo systemInfo = currentSystem();
+                String systemId = systemInfo.getSystemId();
+
+                // Daily quota was consumed by AdmissionFilter
+
+                ChunkedUploadStatus status = chunkedUploadService.init(systemId, request);
+                return ResponseEntity.status(HttpStatus.CREATED)
+                                .body(ApiResponse.success("Chunked upload started", status));
+        }
+
+        @PutMapping(value = "/{uploadId}/parts/{partNumber}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+        @Bulkhead(name = "chunkBulkhead", fallbackMethod = "partBulkheadFallback")
+        public ResponseEntity<ApiResponse<Map<String, Object>>> uploadPart(
+                        @PathVariable String uploadId,
+                        @PathVariable int partNumber,
+                        HttpServletRequest request) throws Exception {
+
+                Map<String, Object> receipt = chunkedUploadService.uploadPart(
+                                currentSystem().getSystemId(), uploadId, partNumber, request.getInputStream());
+                return ResponseEntity.ok(ApiResponse.success(receipt));
+        }
+
+        /**
+         * Bulkhead fallback when max concurrent part uploads reached
+         */
+        public ResponseEntity<ApiResponse<Map<String, Object>>> partBulkheadFallback(
+                        String uploadId, int partNumber, HttpServletRequest request, BulkheadFullException exception) {
+                log.warn("Chunk bulkhead full, rejecting part {} of upload {}", partNumber, uploadId);
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header("Retry-After", "1")
+                                .body(ApiResponse.error(
+                                                "Server is busy processing other requests. Please retry in a few seconds.",
+                                                "BULKHEAD_FULL"));
+        }
+
+        @GetMapping("/{uploadId}")
+        public ResponseEntity<ApiResponse<ChunkedUploadStatus>> status(@PathVariable String uploadId) {
+                return ResponseEntity.ok(ApiResponse.success(
+                                chunkedUploadService.getStatus(currentSystem().getSystemId(), uploadId)));
+        }
+
+        @PostMapping("/{uploadId}/complete")
+        public CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> complete(
+                        @PathVariable String uploadId)
+                        throws Exception {
+
+                String systemId = currentSystem().getSystemId();
+
+                ChunkedUploadService.Completion completion = chunkedUploadService.complete(systemId, uploadId);
+                MinioStorageService.StoredObject stored = completion.stored();
+                String requestId = completion.requestId();
+                if (completion.jobId() != null) {
+                        // Retry after a completion whose response the client never saw
+                        return CompletableFuture.completedFuture(accepted(completion.jobId(), requestId, stored));
+                }
+
+                IngestRequestMessage message = IngestRequestMessage.builder()
+                                .requestId(requestId)
+                                .systemId(systemId)
+                                .type(IngestRequestMessage.RequestType.UPLOAD)
+                                .sourcePath(stored.path())
+                                .build();
+
+                // Publish failures surface through GlobalExceptionHandler once the future fails;
+                // the assembled file stays in the session so complete can be retried
+                return messagePublisherService.publishIngestRequest(message)
+                                .whenComplete((jobId, ex) -> {
+                                        if (ex == null) {
+                                                chunkedUploadService.published(uploadId, jobId);
+                                        } else {
+                                                chunkedUploadService.publishFailed(uploadId);
+                                        }
+                                })
+                                .thenApply(jobId -> {
+                                        log.info("Chunked upload accepted: jobId={}, requestId={}, uploadId={}, size={}",
+                                                        jobId, requestId, uploadId, stored.size());
+                                        return accepted(jobId, requestId, stored);
+                                });
+        }
+
+        @DeleteMapping("/{uploadId}")
+        public ResponseEntity<Void> abort(@PathVariable String uploadId) {
+                chunkedUploadService.abort(currentSystem().getSystemId(), uploadId);
+                return ResponseEntity.noContent().build();
+        }
+
+        private ResponseEntity<ApiResponse<Map<String, String>>> accepted(String jobId, String requestId,
+                        MinioStorageService.StoredObject stored) {
+                return ResponseEntity.accepted()
+                                .body(ApiResponse.success("File upload accepted for processing",
+                                                Map.of(
+                                                                "jobId", jobId,
+                                                                "requestId", requestId,
+                                                                "size", String.valueOf(stored.size()))));
+        }
+
+        private SystemInfo currentSystem() {
+                return (SystemInfo) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        }
+}
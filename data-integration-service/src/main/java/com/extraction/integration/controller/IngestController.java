@@ -4,36 +4,53 @@ import com.extraction.integration.dto.ApiResponse;
 import com.extraction.integration.dto.IngestRequestMessage;
 import com.extraction.integration.dto.SystemInfo;
 import com.extraction.integration.dto.TriggerJobRequest;
+import com.extraction.integration.service.BackpressureMonitor;
+import com.extraction.integration.service.ContentIndexService;
 import com.extraction.integration.service.IamAuthService;
+import com.extraction.integration.service.IdempotencyService;
 import com.extraction.integration.service.MessagePublisherService;
 import com.extraction.integration.service.MinioStorageService;
 import com.extraction.integration.service.RateLimitService;
+import com.extraction.integration.service.StreamingUploadService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.core.FileUploadException;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.springframework.security.core.context.SecurityContextHolder;
 
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1")
 @RequiredArgsConstructor
 public class IngestController {
 
         private final RateLimitService rateLimitService;
         private final MinioStorageService minioStorageService;
+        private final ContentIndexService contentIndexService;
+        private final BackpressureMonitor backpressureMonitor;
+        private final IdempotencyService idempotencyService;
+        private final StreamingUploadService streamingUploadService;
         private final MessagePublisherService messagePublisherService;
         private final IamAuthService iamAuthService;
         private final ObjectMapper objectMapper;
@@ -45,17 +62,24 @@ public class IngestController {
          * Protected by:
          * - IAM (JWT Token via Authorization header)
          * - Rate Limiting (100/day per system)
-         * - Bulkhead (max 30 concurrent uploads)
+         * - Bulkhead (adaptive limit, 5-120 concurrent uploads)
          * - Circuit Breaker (on MinIO and RabbitMQ services)
          */
         @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
         @Bulkhead(name = "uploadBulkhead", fallbackMethod = "uploadBulkheadFallback")
-        public ResponseEntity<ApiResponse<Map<String, String>>> uploadFile(
-                        @RequestParam("file") MultipartFile file) {
+        public CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> uploadFile(
+                        @RequestParam("file") MultipartFile file,
+                        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
                 // Retrieve SystemInfo from Security Context (set by JwtAuthenticationFilter)
                 SystemInfo systemInfo = (SystemInfo) SecurityContextHolder.getContext().getAuthentication()
                                 .getPrincipal();
+                return idempotencyService.execute(systemInfo.getSystemId(), idempotencyKey, "upload",
+                                () -> upload(file, systemInfo));
+        }
+
+        private CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> upload(MultipartFile file,
+                        SystemInfo systemInfo) {
                 String systemId = systemInfo.getSystemId();
 
                 String requestId = UUID.randomUUID().toString();
@@ -63,65 +87,125 @@ public class IngestController {
                                 requestId, systemId, file.getOriginalFilename(), file.getSize(),
                                 systemInfo.isCachedL1(), systemInfo.isCachedL2());
 
-                // Rate limit check (uses system-specific limit if configured)
-                if (!rateLimitService.checkAndIncrementRateLimit(systemId, systemInfo.getDailyLimit())) {
-                        log.warn("Rate limit exceeded for system: {}", systemId);
-                        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                                        .body(ApiResponse.error(
-                                                        "Daily request limit exceeded. Remaining: 0",
-                                                        "RATE_LIMIT_EXCEEDED"));
-                }
+                // Daily quota was consumed by AdmissionFilter before the body was read
 
                 try {
                         // Upload to MinIO temp bucket (Circuit Breaker protected)
-                        String minioPath = minioStorageService.uploadToTemp(file, systemId);
-
-                        // Create and publish message (Circuit Breaker protected)
-                        IngestRequestMessage message = IngestRequestMessage.builder()
-                                        .requestId(requestId)
-                                        .systemId(systemId)
-                                        .type(IngestRequestMessage.RequestType.UPLOAD)
-                                        .sourcePath(minioPath)
-                                        .build();
-
-                        String jobId = messagePublisherService.publishIngestRequest(message);
+                        MinioStorageService.StoredObject stored = minioStorageService.uploadToTemp(file, systemId);
 
-                        log.info("Upload accepted: jobId={}, requestId={}", jobId, requestId);
-
-                        return ResponseEntity.accepted()
-                                        .body(ApiResponse.success("File upload accepted for processing",
-                                                        Map.of(
-                                                                        "jobId", jobId,
-                                                                        "requestId", requestId,
-                                                                        "remaining",
-                                                                        String.valueOf(rateLimitService
-                                                                                        .getRemainingQuota(
-                                                                                                        systemId)))));
+                        // Publish message (Circuit Breaker protected) unless this content is already queued
+                        return acceptUpload(requestId, systemId, stored,
+                                        Map.of(
+                                                        "requestId", requestId,
+                                                        "remaining",
+                                                        String.valueOf(rateLimitService
+                                                                        .getRemainingQuota(
+                                                                                        systemId,
+                                                                                        systemInfo.getDailyLimit()))));
 
                 } catch (RuntimeException e) {
                         // Circuit breaker or service error
                         log.error("Service error during upload: {}", e.getMessage());
-                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                                        .body(ApiResponse.error(e.getMessage(), "SERVICE_UNAVAILABLE"));
+                        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                        .body(ApiResponse.error(e.getMessage(), "SERVICE_UNAVAILABLE")));
                 } catch (Exception e) {
                         log.error("Failed to process upload: {}", e.getMessage(), e);
-                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                                         .body(ApiResponse.error("Failed to process upload: " + e.getMessage(),
-                                                        "UPLOAD_ERROR"));
+                                                        "UPLOAD_ERROR")));
                 }
         }
 
         /**
          * Bulkhead fallback when max concurrent uploads reached
          */
-        public ResponseEntity<ApiResponse<Map<String, String>>> uploadBulkheadFallback(
-                        MultipartFile file, Throwable throwable) {
+        public CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> uploadBulkheadFallback(
+                        MultipartFile file, String idempotencyKey, Throwable throwable) {
                 log.warn("Upload bulkhead full, rejecting request for file: {}",
                                 file.getOriginalFilename());
-                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                refundQuota(throwable);
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
                                 .body(ApiResponse.error(
                                                 "Server is busy processing other requests. Please retry in a few seconds.",
-                                                "BULKHEAD_FULL"));
+                                                "BULKHEAD_FULL")));
+        }
+
+        /**
+         * Upload file for processing without local disk spooling
+         * Flow: Parse multipart incrementally -> MinIO multipart upload -> Publish
+         * message to RabbitMQ
+         * 
+         * The rate limit is checked before any body bytes are read, and the file part
+         * is piped into MinIO through bounded, pooled part buffers.
+         */
+        @PostMapping(value = "/upload/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+        @Bulkhead(name = "uploadBulkhead", fallbackMethod = "streamUploadBulkheadFallback")
+        public CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> uploadFileStreaming(HttpServletRequest request) {
+
+                SystemInfo systemInfo = (SystemInfo) SecurityContextHolder.getContext().getAuthentication()
+                                .getPrincipal();
+                // A duplicate is answered before any of its body is read
+                return idempotencyService.execute(systemInfo.getSystemId(),
+                                request.getHeader(IdempotencyService.HEADER), "upload/stream",
+                                () -> uploadStreaming(request, systemInfo));
+        }
+
+        private CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> uploadStreaming(
+                        HttpServletRequest request, SystemInfo systemInfo) {
+                String systemId = systemInfo.getSystemId();
+
+                String requestId = UUID.randomUUID().toString();
+                log.info("Received streaming upload request: requestId={}, systemId={}, contentLength={}",
+                                requestId, systemId, request.getContentLengthLong());
+
+                // Daily quota was consumed by AdmissionFilter before the body was read
+
+                try {
+                        MinioStorageService.StoredObject stored = streamingUploadService.streamToTemp(request,
+                                        systemId);
+
+                        return acceptUpload(requestId, systemId, stored,
+                                        Map.of(
+                                                        "requestId", requestId,
+                                                        "size", String.valueOf(stored.size()),
+                                                        "remaining",
+                                                        String.valueOf(rateLimitService
+                                                                        .getRemainingQuota(
+                                                                                        systemId,
+                                                                                        systemInfo.getDailyLimit()))));
+
+                } catch (FileUploadSizeException e) {
+                        log.warn("Streaming upload too large: requestId={}, error={}", requestId, e.getMessage());
+                        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                                        .body(ApiResponse.error("File size exceeds maximum allowed size",
+                                                        "FILE_TOO_LARGE")));
+                } catch (FileUploadException e) {
+                        log.warn("Invalid multipart body: requestId={}, error={}", requestId, e.getMessage());
+                        return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                                        .body(ApiResponse.error(e.getMessage(), "INVALID_MULTIPART")));
+                } catch (RuntimeException e) {
+                        log.error("Service error during streaming upload: {}", e.getMessage());
+                        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                        .body(ApiResponse.error(e.getMessage(), "SERVICE_UNAVAILABLE")));
+                } catch (Exception e) {
+                        log.error("Failed to process streaming upload: {}", e.getMessage(), e);
+                        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                        .body(ApiResponse.error("Failed to process upload: " + e.getMessage(),
+                                                        "UPLOAD_ERROR")));
+                }
+        }
+
+        /**
+         * Bulkhead fallback when max concurrent streaming uploads reached
+         */
+        public CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> streamUploadBulkheadFallback(
+                        HttpServletRequest request, Throwable throwable) {
+                log.warn("Upload bulkhead full, rejecting streaming upload");
+                refundQuota(throwable);
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .body(ApiResponse.error(
+                                                "Server is busy processing other requests. Please retry in a few seconds.",
+                                                "BULKHEAD_FULL")));
         }
 
         /**
@@ -130,17 +214,24 @@ public class IngestController {
          * Protected by:
          * - IAM (JWT Token via Authorization header)
          * - Rate Limiting (100/day per system)
-         * - Bulkhead (max 50 concurrent triggers)
+         * - Bulkhead (adaptive limit, 10-200 concurrent triggers)
          * - Circuit Breaker (on RabbitMQ service)
          */
         @PostMapping("/job/trigger")
         @Bulkhead(name = "triggerBulkhead", fallbackMethod = "triggerBulkheadFallback")
-        public ResponseEntity<ApiResponse<Map<String, String>>> triggerJob(
-                        @Valid @RequestBody TriggerJobRequest request) {
+        public CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> triggerJob(
+                        @Valid @RequestBody TriggerJobRequest request,
+                        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
                 // Retrieve SystemInfo from Security Context
                 SystemInfo systemInfo = (SystemInfo) SecurityContextHolder.getContext().getAuthentication()
                                 .getPrincipal();
+                return idempotencyService.execute(systemInfo.getSystemId(), idempotencyKey, "job/trigger",
+                                () -> trigger(request, systemInfo));
+        }
+
+        private CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> trigger(
+                        TriggerJobRequest request, SystemInfo systemInfo) {
                 String systemId = systemInfo.getSystemId();
 
                 String requestId = UUID.randomUUID().toString();
@@ -148,14 +239,7 @@ public class IngestController {
                                 requestId, systemId, request.getSourceType(),
                                 systemInfo.isCachedL1(), systemInfo.isCachedL2());
 
-                // Rate limit check
-                if (!rateLimitService.checkAndIncrementRateLimit(systemId, systemInfo.getDailyLimit())) {
-                        log.warn("Rate limit exceeded for system: {}", systemId);
-                        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                                        .body(ApiResponse.error(
-                                                        "Daily request limit exceeded. Remaining: 0",
-                                                        "RATE_LIMIT_EXCEEDED"));
-                }
+                // Daily quota was consumed by AdmissionFilter before the body was read
 
                 try {
                         // Create and publish message (Circuit Breaker protected)
@@ -167,43 +251,122 @@ public class IngestController {
                                         .sourceConfig(objectMapper.writeValueAsString(request))
                                         .build();
 
-                        String jobId = messagePublisherService.publishIngestRequest(message);
-
-                        log.info("Job triggered: jobId={}, requestId={}", jobId, requestId);
-
-                        return ResponseEntity.accepted()
-                                        .body(ApiResponse.success("Job triggered successfully",
-                                                        Map.of(
-                                                                        "jobId", jobId,
-                                                                        "requestId", requestId,
-                                                                        "remaining",
-                                                                        String.valueOf(rateLimitService
-                                                                                        .getRemainingQuota(
-                                                                                                        systemId)))));
+                        return acceptOnConfirm(message, "Job triggered successfully",
+                                        Map.of(
+                                                        "requestId", requestId,
+                                                        "remaining",
+                                                        String.valueOf(rateLimitService
+                                                                        .getRemainingQuota(
+                                                                                        systemId,
+                                                                                        systemInfo.getDailyLimit()))));
 
                 } catch (RuntimeException e) {
                         // Circuit breaker or service error
                         log.error("Service error during trigger: {}", e.getMessage());
-                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                                        .body(ApiResponse.error(e.getMessage(), "SERVICE_UNAVAILABLE"));
+                        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                        .body(ApiResponse.error(e.getMessage(), "SERVICE_UNAVAILABLE")));
                 } catch (Exception e) {
                         log.error("Failed to trigger job: {}", e.getMessage(), e);
-                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                                         .body(ApiResponse.error("Failed to trigger job: " + e.getMessage(),
-                                                        "TRIGGER_ERROR"));
+                                                        "TRIGGER_ERROR")));
                 }
         }
 
         /**
          * Bulkhead fallback when max concurrent triggers reached
          */
-        public ResponseEntity<ApiResponse<Map<String, String>>> triggerBulkheadFallback(
-                        TriggerJobRequest request, Throwable throwable) {
+        public CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> triggerBulkheadFallback(
+                        TriggerJobRequest request, String idempotencyKey, Throwable throwable) {
                 log.warn("Trigger bulkhead full, rejecting request");
-                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                refundQuota(throwable);
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
                                 .body(ApiResponse.error(
                                                 "Server is busy processing other requests. Please retry in a few seconds.",
-                                                "BULKHEAD_FULL"));
+                                                "BULKHEAD_FULL")));
+        }
+
+        /**
+         * Give back the daily-quota token AdmissionFilter took for a request the
+         * bulkhead then turned away
+         */
+        private void refundQuota(Throwable throwable) {
+                if (throwable instanceof BulkheadFullException) {
+                        SystemInfo systemInfo = (SystemInfo) SecurityContextHolder.getContext().getAuthentication()
+                                        .getPrincipal();
+                        rateLimitService.release(systemInfo.getSystemId(), systemInfo.getDailyLimit(), 1);
+                }
+        }
+
+        /**
+         * Queue a stored upload, or answer 200 with the earlier job when the same
+         * system already sent identical content within the dedup retention window
+         */
+        private CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> acceptUpload(
+                        String requestId, String systemId, MinioStorageService.StoredObject stored,
+                        Map<String, String> details) {
+                String jobId = UUID.randomUUID().toString();
+                Map<String, String> body = new HashMap<>(details);
+                body.put("sha256", stored.sha256());
+
+                Optional<ContentIndexService.IndexedContent> earlier = contentIndexService.claim(systemId, stored,
+                                jobId);
+                if (earlier.isPresent()) {
+                        // The earlier copy's job is confirmed queued; this one is not needed
+                        minioStorageService.deleteObject(stored.path());
+                        body.put("jobId", earlier.get().jobId());
+                        body.put("rawPath", earlier.get().rawPath());
+                        body.put("deduplicated", "true");
+                        return CompletableFuture.completedFuture(ResponseEntity.ok(ApiResponse.success(
+                                        "Identical file already accepted; returning its job", body)));
+                }
+
+                IngestRequestMessage message = IngestRequestMessage.builder()
+                                .jobId(jobId)
+                                .requestId(requestId)
+                                .systemId(systemId)
+                                .type(IngestRequestMessage.RequestType.UPLOAD)
+                                .sourcePath(stored.path())
+                                .build();
+                body.put("deduplicated", "false");
+
+                return acceptOnConfirm(message, "File upload accepted for processing", body)
+                                .thenApply(response -> {
+                                        if (response.getStatusCode().is2xxSuccessful()) {
+                                                contentIndexService.confirm(systemId, stored, jobId);
+                                        } else {
+                                                contentIndexService.release(systemId, stored.sha256(), jobId);
+                                        }
+                                        return response;
+                                });
+        }
+
+        /**
+         * Publish the message and answer 202 once the broker confirms it.
+         * The request thread is released while the confirm is outstanding.
+         */
+        private CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> acceptOnConfirm(
+                        IngestRequestMessage message, String acceptedMessage, Map<String, String> details) {
+                return messagePublisherService.publishIngestRequest(message)
+                                .thenApply(jobId -> {
+                                        log.info("Request accepted: jobId={}, requestId={}, type={}",
+                                                        jobId, message.getRequestId(), message.getType());
+                                        Map<String, String> body = new HashMap<>(details);
+                                        body.put("jobId", jobId);
+                                        return ResponseEntity.accepted()
+                                                        .body(ApiResponse.success(acceptedMessage, body));
+                                })
+                                .exceptionally(ex -> {
+                                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null
+                                                        ? ex.getCause()
+                                                        : ex;
+                                        // Circuit breaker or broker error
+                                        log.error("Publish failed: requestId={}, error={}",
+                                                        message.getRequestId(), cause.getMessage());
+                                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                                        .body(ApiResponse.error(cause.getMessage(),
+                                                                        "SERVICE_UNAVAILABLE"));
+                                });
         }
 
         /**
@@ -230,10 +393,11 @@ public class IngestController {
         }
 
         /**
-         * Health check endpoint for circuit breaker status
+         * Health check endpoint for circuit breaker and backpressure status
          */
         @GetMapping("/health/resilience")
-        public ResponseEntity<ApiResponse<String>> getResilienceHealth() {
-                return ResponseEntity.ok(ApiResponse.success("Resilience4j is active"));
+        public ResponseEntity<ApiResponse<Map<String, Object>>> getResilienceHealth() {
+                return ResponseEntity.ok(ApiResponse.success("Resilience4j is active",
+                                Map.of("backpressure", backpressureMonitor.snapshot())));
         }
 }
@@ -0,0 +1,117 @@
+package com.extraction.integration.controller;
+
+import com.extraction.integration.dto.ApiResponse;
+import com.extraction.integration.dto.IngestRequestMessage;
+import com.extraction.integration.dto.InitPresignedUploadRequest;
+import com.extraction.integration.dto.PresignedUploadResponse;
+import com.extraction.integration.dto.SystemInfo;
+import com.extraction.integration.service.MessagePublisherService;
+import com.extraction.integration.service.MinioStorageService;
+import com.extraction.integration.service.PresignedUploadService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Direct-to-MinIO upload API
+ * Flow: init (presigned URLs) -> client PUTs bytes to MinIO -> complete
+ * -> Publish message to RabbitMQ
+ *
+ * The gateway only handles these small control requests; upload bandwidth
+ * scales with MinIO rather than with gateway pods.
+ *
+ * Protected by:
+ * - IAM (JWT Token via Authorization header)
+ * - Rate Limiting (one token per file, consumed on init)
+ */
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/uploads/presigned")
+@RequiredArgsConstructor
+public class PresignedUploadController {
+
+        private final PresignedUploadService presignedUploadService;
+        private final MessagePublisherService messagePublisherService;
+
+        @PostMapping
+        public ResponseEntity<ApiResponse<PresignedUploadResponse>> init(
+                        @Valid @RequestBody InitPresignedUploadRequest request) throws Exception {
+
+                // Daily quota was consumed by AdmissionFilter
+                PresignedUploadResponse response = presignedUploadService.init(currentSystem().getSystemId(),
+                                request);
+                return ResponseEntity.status(HttpStatus.CREATED)
+                                .body(ApiResponse.success("Upload the file to the presigned URL(s), then complete",
+                                                response));
+        }
+
+        @PostMapping("/{uploadId}/complete")
+        public CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> complete(
+                        @PathVariable String uploadId)
+                        throws Exception {
+
+                String systemId = currentSystem().getSystemId();
+
+                PresignedUploadService.Completion completion = presignedUploadService.complete(systemId, uploadId);
+                MinioStorageService.StoredObject stored = completion.stored();
+                String requestId = completion.requestId();
+                if (completion.jobId() != null) {
+                        // Retry after a completion whose response the client never saw
+                        return CompletableFuture.completedFuture(accepted(completion.jobId(), requestId, stored));
+                }
+
+                IngestRequestMessage message = IngestRequestMessage.builder()
+                                .requestId(requestId)
+                                .systemId(systemId)
+                                .type(IngestRequestMessage.RequestType.UPLOAD)
+                                .sourcePath(stored.path())
+                                // The presigned URL still works; only these verified bytes may be processed
+                                .sourceEtag(completion.etag())
+                                .build();
+
+                // Publish failures surface through GlobalExceptionHandler once the future fails;
+                // the verified file stays in the session so complete can be retried
+                return messagePublisherService.publishIngestRequest(message)
+                                .whenComplete((jobId, ex) -> {
+                                        if (ex == null) {
+                                                presignedUploadService.published(uploadId, jobId);
+                                        } else {
+                                                presignedUploadService.publishFailed(uploadId);
+                                        }
+                                })
+                                .thenApply(jobId -> {
+                                        log.info("Presigned upload accepted: jobId={}, requestId={}, uploadId={}, size={}",
+                                                        jobId, requestId, uploadId, stored.size());
+                                        return accepted(jobId, requestId, stored);
+                                });
+        }
+
+        @DeleteMapping("/{uploadId}")
+        public ResponseEntity<Void> abort(@PathVariable String uploadId) {
+                presignedUploadService.abort(currentSystem().getSystemId(), uploadId);
+                return ResponseEntity.noContent().build();
+        }
+
+        private ResponseEntity<ApiResponse<Map<String, String>>> accepted(String jobId, String requestId,
+                        MinioStorageService.StoredObject stored) {
+                return ResponseEntity.accepted()
+                                .body(ApiResponse.success("File upload accepted for processing",
+                                                Map.of(
+                                                                "jobId", jobId,
+                                                                "requestId", requestId,
+                                                                "size", String.valueOf(stored.size()))));
+        }
+
+        private SystemInfo currentSystem() {
+                return (SystemInfo) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        }
+}
@@ -0,0 +1,267 @@
+package com.extraction.integration.controller;
+
+import com.extraction.integration.dto.ApiResponse;
+import com.extraction.integration.dto.IngestRequestMessage;
+import com.extraction.integration.dto.SystemInfo;
+import com.extraction.integration.dto.TriggerJobRequest;
+import com.extraction.integration.service.BackpressureMonitor;
+import com.extraction.integration.service.MessagePublisherService;
+import com.extraction.integration.service.MinioStorageService;
+import com.extraction.integration.service.RateLimitService;
+import com.extraction.integration.service.ReactiveStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePartEvent;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Reactive ingest API (profile {@code reactive}), same contract as
+ * {@link IngestController} for upload and trigger.
+ * Flow: Stream body to MinIO -> Publish message to RabbitMQ
+ *
+ * No thread is held per request: the upload body is consumed as the MinIO
+ * multipart upload accepts it, and the few blocking calls (rate limit, publish)
+ * run on virtual threads.
+ *
+ * Protected by:
+ * - IAM (JWT Token via Authorization header)
+ * - Backpressure (shed or delayed like the servlet AdmissionFilter)
+ * - Rate Limiting (checked before the body is subscribed)
+ * - Bulkhead (sized for held-open connections rather than threads)
+ */
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+public class ReactiveIngestController {
+
+        private static final String FILE_FIELD = "file";
+
+        private final RateLimitService rateLimitService;
+        private final BackpressureMonitor backpressureMonitor;
+        private final ReactiveStorageService reactiveStorageService;
+        private final MessagePublisherService messagePublisherService;
+        private final ObjectMapper objectMapper;
+        private final Scheduler blockingScheduler;
+
+        @Value("${upload.streaming.max-file-size:100MB}")
+        private DataSize maxFileSize;
+
+        @Value("${admission.multipart-overhead:64KB}")
+        private DataSize multipartOverhead;
+
+        /**
+         * Upload file for processing; the {@code file} part is streamed into
+         * MinIO with backpressure. Parts after it are not read.
+         */
+        @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+        @Bulkhead(name = "reactiveUploadBulkhead", fallbackMethod = "uploadBulkheadFallback")
+        public Mono<ResponseEntity<ApiResponse<Map<String, String>>>> uploadFile(
+                        @AuthenticationPrincipal SystemInfo systemInfo,
+                        @RequestHeader HttpHeaders headers,
+                        @RequestBody Flux<PartEvent> parts) {
+
+                String systemId = systemInfo.getSystemId();
+                String requestId = UUID.randomUUID().toString();
+                log.info("Received reactive upload request: requestId={}, systemId={}, contentLength={}",
+                                requestId, systemId, headers.getContentLength());
+
+                // Rejected from headers alone, before the body is subscribed
+                if (headers.getContentLength() > maxFileSize.toBytes() + multipartOverhead.toBytes()) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                                        .body(ApiResponse.error("File size exceeds maximum allowed size",
+                                                        "FILE_TOO_LARGE")));
+                }
+
+                return admit(systemInfo, () -> checkQuota(systemInfo)
+                                .flatMap(allowed -> !allowed
+                                                ? Mono.just(rateLimited(systemId))
+                                                : streamFilePart(parts, systemId)
+                                                                .flatMap(stored -> publish(IngestRequestMessage.builder()
+                                                                                .requestId(requestId)
+                                                                                .systemId(systemId)
+                                                                                .type(IngestRequestMessage.RequestType.UPLOAD)
+                                                                                .sourcePath(stored.path())
+                                                                                .build(),
+                                                                                "File upload accepted for processing",
+                                                                                systemInfo))
+                                                                .onErrorResume(MaxUploadSizeExceededException.class,
+                                                                                e -> Mono.just(ResponseEntity
+                                                                                                .status(HttpStatus.PAYLOAD_TOO_LARGE)
+                                                                                                .body(ApiResponse.error(
+                                                                                                                "File size exceeds maximum allowed size",
+                                                                                                                "FILE_TOO_LARGE"))))
+                                                                .onErrorResume(IllegalArgumentException.class,
+                                                                                e -> Mono.just(ResponseEntity
+                                                                                                .badRequest()
+                                                                                                .body(ApiResponse.error(
+                                                                                                                e.getMessage(),
+                                                                                                                "INVALID_UPLOAD"))))));
+        }
+
+        /**
+         * Bulkhead fallback when max concurrent reactive uploads reached
+         */
+        public Mono<ResponseEntity<ApiResponse<Map<String, String>>>> uploadBulkheadFallback(
+                        SystemInfo systemInfo, HttpHeaders headers, Flux<PartEvent> parts, Throwable throwable) {
+                log.warn("Reactive upload bulkhead full, rejecting upload");
+                return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .body(ApiResponse.error(
+                                                "Server is busy processing other requests. Please retry in a few seconds.",
+                                                "BULKHEAD_FULL")));
+        }
+
+        /**
+         * Trigger a job to pull files from external source (SFTP/S3)
+         */
+        @PostMapping("/job/trigger")
+        @Bulkhead(name = "triggerBulkhead", fallbackMethod = "triggerBulkheadFallback")
+        public Mono<ResponseEntity<ApiResponse<Map<String, String>>>> triggerJob(
+                        @AuthenticationPrincipal SystemInfo systemInfo,
+                        @Valid @RequestBody TriggerJobRequest request) {
+
+                String systemId = systemInfo.getSystemId();
+                String requestId = UUID.randomUUID().toString();
+                log.info("Received reactive trigger request: requestId={}, systemId={}, sourceType={}",
+                                requestId, systemId, request.getSourceType());
+
+                return admit(systemInfo, () -> checkQuota(systemInfo)
+                                .flatMap(allowed -> {
+                                        if (!allowed) {
+                                                return Mono.just(rateLimited(systemId));
+                                        }
+                                        return Mono.fromCallable(() -> IngestRequestMessage.builder()
+                                                        .requestId(requestId)
+                                                        .systemId(systemId)
+                                                        .type(IngestRequestMessage.RequestType.SYNC)
+                                                        .sourcePath(request.getRemotePath())
+                                                        .sourceConfig(objectMapper.writeValueAsString(request))
+                                                        .build())
+                                                        .flatMap(message -> publish(message, "Job triggered successfully",
+                                                                        systemInfo));
+                                }));
+        }
+
+        /**
+         * Bulkhead fallback when max concurrent triggers reached
+         */
+        public Mono<ResponseEntity<ApiResponse<Map<String, String>>>> triggerBulkheadFallback(
+                        SystemInfo systemInfo, TriggerJobRequest request, Throwable throwable) {
+                log.warn("Trigger bulkhead full, rejecting request");
+                return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .body(ApiResponse.error(
+                                                "Server is busy processing other requests. Please retry in a few seconds.",
+                                                "BULKHEAD_FULL")));
+        }
+
+        // ==================== Private Methods ====================
+
+        /**
+         * Stream the first {@code file} part into MinIO; other parts are drained
+         * and released without buffering
+         */
+        private Mono<MinioStorageService.StoredObject> streamFilePart(Flux<PartEvent> parts, String systemId) {
+                return parts.windowUntil(PartEvent::isLast)
+                                .concatMap(part -> part.switchOnFirst((signal, events) -> {
+                                        if (signal.get() instanceof FilePartEvent file && FILE_FIELD.equals(file.name())) {
+                                                String contentType = file.headers().getContentType() != null
+                                                                ? file.headers().getContentType().toString()
+                                                                : null;
+                                                return reactiveStorageService.streamToTemp(
+                                                                events.map(PartEvent::content), file.filename(), systemId,
+                                                                contentType);
+                                        }
+                                        return events.doOnNext(event -> DataBufferUtils.release(event.content()))
+                                                        .then(Mono.empty());
+                                }), 1)
+                                .next()
+                                .switchIfEmpty(Mono.error(new IllegalArgumentException(
+                                                "Missing multipart part '" + FILE_FIELD + "'")));
+        }
+
+        /**
+         * Shed new work under downstream backpressure (429 with Retry-After),
+         * otherwise run it after the monitor's delay without holding a thread
+         */
+        private Mono<ResponseEntity<ApiResponse<Map<String, String>>>> admit(SystemInfo systemInfo,
+                        Supplier<Mono<ResponseEntity<ApiResponse<Map<String, String>>>>> work) {
+                BackpressureMonitor.Decision decision = backpressureMonitor.evaluate(systemInfo);
+                if (decision.shed()) {
+                        log.warn("Reactive request rejected (backpressure): systemId={}, priority={}",
+                                        systemInfo.getSystemId(), systemInfo.getPriority());
+                        return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()))
+                                        .body(ApiResponse.error(
+                                                        "Downstream processing is behind. Please retry after the indicated delay.",
+                                                        "BACKPRESSURE")));
+                }
+                Mono<ResponseEntity<ApiResponse<Map<String, String>>>> admitted = Mono.defer(work);
+                return decision.delay().isZero() ? admitted : Mono.delay(decision.delay()).then(admitted);
+        }
+
+        private Mono<Boolean> checkQuota(SystemInfo systemInfo) {
+                return Mono.fromCallable(() -> rateLimitService.checkAndIncrementRateLimit(
+                                systemInfo.getSystemId(), systemInfo.getDailyLimit()))
+                                .subscribeOn(blockingScheduler);
+        }
+
+        private ResponseEntity<ApiResponse<Map<String, String>>> rateLimited(String systemId) {
+                log.warn("Rate limit exceeded for system: {}", systemId);
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .body(ApiResponse.error("Daily request limit exceeded. Remaining: 0",
+                                                "RATE_LIMIT_EXCEEDED"));
+        }
+
+        /**
+         * Publish and answer 202 on the broker confirm. The publish call itself
+         * may wait briefly for a confirm window slot, so it starts off the event loop.
+         */
+        private Mono<ResponseEntity<ApiResponse<Map<String, String>>>> publish(
+                        IngestRequestMessage message, String acceptedMessage, SystemInfo systemInfo) {
+                return Mono.fromFuture(() -> messagePublisherService.publishIngestRequest(message))
+                                .subscribeOn(blockingScheduler)
+                                .map(jobId -> {
+                                        log.info("Request accepted: jobId={}, requestId={}, type={}",
+                                                        jobId, message.getRequestId(), message.getType());
+                                        return ResponseEntity.accepted()
+                                                        .body(ApiResponse.success(acceptedMessage, Map.of(
+                                                                        "jobId", jobId,
+                                                                        "requestId", message.getRequestId(),
+                                                                        "remaining", String.valueOf(rateLimitService
+                                                                                        .getRemainingQuota(
+                                                                                                        systemInfo.getSystemId(),
+                                                                                                        systemInfo.getDailyLimit())))));
+                                })
+                                .onErrorResume(e -> {
+                                        // Circuit breaker or broker error
+                                        log.error("Publish failed: requestId={}, error={}",
+                                                        message.getRequestId(), e.getMessage());
+                                        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                                        .body(ApiResponse.error(e.getMessage(), "SERVICE_UNAVAILABLE")));
+                                });
+        }
+}
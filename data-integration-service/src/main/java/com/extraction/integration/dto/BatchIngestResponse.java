@@ -0,0 +1,37 @@
+package com.extraction.integration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch trigger or upload: one entry per submitted item, in
+ * submission order, carrying either a jobId or an error code.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIngestResponse {
+
+    private String requestId;
+    private int accepted;
+    private int rejected;
+    private int remaining;
+    private List<Item> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private int index;
+        private String fileName; // Upload batches only
+        private String jobId;
+        private String errorCode;
+        private String message;
+    }
+}
@@ -0,0 +1,14 @@
+package com.extraction.integration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIntrospectRequest {
+    private List<String> tokens;
+}
@@ -0,0 +1,24 @@
+package com.extraction.integration.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTriggerRequest {
+
+    public static final int MAX_ITEMS = 200; // Must fit in messaging.publisher.confirm-window
+
+    @NotEmpty(message = "At least one job is required")
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " jobs per batch")
+    private List<@Valid TriggerJobRequest> jobs;
+}
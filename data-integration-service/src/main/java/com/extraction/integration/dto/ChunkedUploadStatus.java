@@ -0,0 +1,25 @@
+package com.extraction.integration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * State of a resumable chunked upload, returned on init and status calls so a
+ * client can resume by re-sending only the missing parts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkedUploadStatus {
+
+    private String uploadId;
+    private String fileName;
+    private int partSize;
+    private List<Integer> uploadedParts;
+    private long uploadedBytes;
+}
@@ -18,6 +18,7 @@ public class IngestRequestMessage {
     private String systemId;
     private RequestType type;
     private String sourcePath; // For UPLOAD: MinIO temp path; For SYNC: source identifier
+    private String sourceEtag; // For UPLOAD: ETag the gateway verified, when the client could still overwrite the object
     private String sourceConfig; // JSON with SFTP/S3 connection details (for SYNC)
     private Instant createdAt;
 
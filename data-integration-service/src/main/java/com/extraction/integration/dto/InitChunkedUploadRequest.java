@@ -0,0 +1,23 @@
+package com.extraction.integration.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InitChunkedUploadRequest {
+
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    private String contentType;
+
+    @PositiveOrZero(message = "Total size must not be negative")
+    private Long totalSize; // Optional: lets the gateway reject oversized files up front
+}
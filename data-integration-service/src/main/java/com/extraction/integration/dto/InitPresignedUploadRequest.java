@@ -0,0 +1,25 @@
+package com.extraction.integration.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InitPresignedUploadRequest {
+
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    private String contentType;
+
+    @NotNull(message = "Total size is required")
+    @PositiveOrZero(message = "Total size must not be negative")
+    private Long totalSize; // Decides single PUT vs presigned parts, and rejects oversized files up front
+}
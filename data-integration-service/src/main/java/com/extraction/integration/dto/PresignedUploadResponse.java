@@ -0,0 +1,34 @@
+package com.extraction.integration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Where to send the file bytes for a direct-to-MinIO upload. Small files get a
+ * single {@code url}; large files get one URL per part of {@code partSize} bytes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUploadResponse {
+
+    private String uploadId;
+    private String url;
+    private Long partSize;
+    private List<PresignedPart> parts;
+    private Instant expiresAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PresignedPart {
+        private int partNumber;
+        private String url;
+    }
+}
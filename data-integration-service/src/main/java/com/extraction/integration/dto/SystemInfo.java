@@ -21,6 +21,16 @@ public class SystemInfo implements Serializable {
     private String systemName;
     private Integer dailyLimit;
 
+    /**
+     * Relative share of ingest capacity when systems contend for it (default 1)
+     */
+    private Integer admissionWeight;
+
+    /**
+     * Admission priority class: CRITICAL, STANDARD (default) or BULK
+     */
+    private String priority;
+
     /**
      * Whether the API key was found in L1 cache (Caffeine)
      */
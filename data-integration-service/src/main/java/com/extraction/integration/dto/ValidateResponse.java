@@ -16,4 +16,6 @@ public class ValidateResponse {
     private String scopes;
     private String message;
     private Integer dailyLimit; // Custom daily rate limit for this client
+    private Integer admissionWeight; // Relative share of ingest capacity under contention
+    private String priority; // Admission priority class: CRITICAL, STANDARD or BULK
 }
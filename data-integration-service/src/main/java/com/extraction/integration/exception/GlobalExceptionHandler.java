@@ -1,6 +1,7 @@
 package com.extraction.integration.exception;
 
 import com.extraction.integration.dto.ApiResponse;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -34,6 +35,21 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage(), "UNAUTHORIZED"));
     }
 
+    @ExceptionHandler(UploadSessionException.class)
+    public ResponseEntity<ApiResponse<Void>> handleUploadSession(UploadSessionException ex) {
+        log.warn("Upload session rejected: {}", ex.getMessage());
+        return ResponseEntity.status(ex.getStatus())
+                .body(ApiResponse.error(ex.getMessage(), ex.getErrorCode()));
+    }
+
+    @ExceptionHandler(CallNotPermittedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCircuitOpen(CallNotPermittedException ex) {
+        log.warn("Circuit breaker open: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error("Service temporarily unavailable. Please retry later.",
+                        "SERVICE_UNAVAILABLE"));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationErrors(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
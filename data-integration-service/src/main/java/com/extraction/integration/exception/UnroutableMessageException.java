@@ -0,0 +1,13 @@
+package com.extraction.integration.exception;
+
+/**
+ * Exception thrown when the broker confirms a message but returns it because
+ * no queue is bound for its routing key. Retrying will not help, so these are
+ * not diverted to the publish outbox.
+ */
+public class UnroutableMessageException extends RuntimeException {
+
+    public UnroutableMessageException(String message) {
+        super(message);
+    }
+}
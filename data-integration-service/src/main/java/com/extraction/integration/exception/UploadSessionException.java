@@ -0,0 +1,26 @@
+package com.extraction.integration.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when a chunked upload session operation is rejected.
+ * Carries the HTTP status and error code returned to the client.
+ */
+@Getter
+public class UploadSessionException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final String errorCode;
+
+    public UploadSessionException(HttpStatus status, String errorCode, String message) {
+        super(message);
+        this.status = status;
+        this.errorCode = errorCode;
+    }
+
+    public static UploadSessionException notFound(String sessionId) {
+        return new UploadSessionException(HttpStatus.NOT_FOUND, "UPLOAD_NOT_FOUND",
+                "Upload session not found: " + sessionId);
+    }
+}
@@ -0,0 +1,56 @@
+package com.extraction.integration.grpc;
+
+import com.extraction.integration.dto.SystemInfo;
+import com.extraction.integration.service.IamAuthService;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+
+/**
+ * Authenticates a gRPC call once, from its {@code authorization} metadata,
+ * and exposes the caller as {@link #SYSTEM_INFO} for the rest of the call.
+ * For a streaming call that is once per stream, however many messages follow.
+ */
+@Slf4j
+@GrpcGlobalServerInterceptor
+@RequiredArgsConstructor
+public class GrpcAuthInterceptor implements ServerInterceptor {
+
+    public static final Context.Key<SystemInfo> SYSTEM_INFO = Context.key("systemInfo");
+
+    private static final Metadata.Key<String> AUTHORIZATION =
+            Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final IamAuthService iamAuthService;
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+        String bearerToken = headers.get(AUTHORIZATION);
+        if (bearerToken == null || !bearerToken.startsWith("Bearer ")) {
+            call.close(Status.UNAUTHENTICATED.withDescription("Missing bearer token"), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        SystemInfo systemInfo;
+        try {
+            systemInfo = iamAuthService.validate(bearerToken.substring(7));
+        } catch (Exception e) {
+            log.warn("gRPC authentication failed: {}", e.getMessage());
+            call.close(Status.UNAUTHENTICATED.withDescription(e.getMessage()), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        Context context = Context.current().withValue(SYSTEM_INFO, systemInfo);
+        return Contexts.interceptCall(context, call, headers, next);
+    }
+}
@@ -0,0 +1,396 @@
+package com.extraction.integration.grpc;
+
+import com.extraction.integration.dto.IngestRequestMessage;
+import com.extraction.integration.dto.SystemInfo;
+import com.extraction.integration.service.BackpressureMonitor;
+import com.extraction.integration.service.FairShareScheduler;
+import com.extraction.integration.service.MessagePublisherService;
+import com.extraction.integration.service.MinioStorageService;
+import com.extraction.integration.service.RateLimitService;
+import com.google.protobuf.ByteString;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.apache.commons.fileupload2.core.FileUploadException;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC bulk ingest: many small files over one client stream.
+ *
+ * The caller is authenticated once per stream by {@link GrpcAuthInterceptor},
+ * rate-limit tokens are reserved in blocks of {@code token-batch}, and each
+ * file goes through downstream backpressure and takes a fair-share
+ * {@code uploadBulkhead} permit like a REST upload, held until it is
+ * published. File content is piped chunk by chunk into a
+ * MinIO multipart upload through pooled part buffers, never held whole. The
+ * next message is only requested once the current chunk is queued for the
+ * upload, so a client can never get ahead of MinIO by more than a couple of
+ * chunks.
+ */
+@Slf4j
+@GrpcService
+@RequiredArgsConstructor
+public class IngestGrpcService extends IngestServiceGrpc.IngestServiceImplBase {
+
+    // Chunks queued between the gRPC stream and the file's upload
+    private static final int PIPE_DEPTH = 2;
+
+    private final RateLimitService rateLimitService;
+    private final MinioStorageService minioStorageService;
+    private final MessagePublisherService messagePublisherService;
+    private final FairShareScheduler fairShareScheduler;
+    private final BackpressureMonitor backpressureMonitor;
+
+    @Value("${grpc.ingest.max-file-size:16MB}")
+    private DataSize maxFileSize;
+
+    @Value("${grpc.ingest.token-batch:100}")
+    private int tokenBatch;
+
+    private final ExecutorService uploaders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Override
+    public StreamObserver<UploadRequest> upload(StreamObserver<UploadResponse> responseObserver) {
+        ServerCallStreamObserver<UploadResponse> call = (ServerCallStreamObserver<UploadResponse>) responseObserver;
+        call.disableAutoRequest();
+
+        UploadStream stream = new UploadStream(GrpcAuthInterceptor.SYSTEM_INFO.get(), call);
+        call.request(1);
+        return stream;
+    }
+
+    /**
+     * State of one client stream. gRPC delivers its messages one at a time, so
+     * no locking is needed.
+     */
+    private final class UploadStream implements StreamObserver<UploadRequest> {
+
+        private final SystemInfo system;
+        private final ServerCallStreamObserver<UploadResponse> call;
+        private final List<CompletableFuture<FileResult>> results = new ArrayList<>();
+        private FileHeader current;
+        // Pipe into the current file's upload; null while its chunks are being skipped
+        private ChunkPipe pipe;
+        private long received;
+        private int reservedTokens;
+
+        UploadStream(SystemInfo system, ServerCallStreamObserver<UploadResponse> call) {
+            this.system = system;
+            this.call = call;
+        }
+
+        @Override
+        public void onNext(UploadRequest request) {
+            switch (request.getPayloadCase()) {
+                case HEADER -> {
+                    finishFile();
+                    startFile(request.getHeader());
+                }
+                case CHUNK -> {
+                    if (current == null) {
+                        releaseTokens();
+                        call.onError(Status.INVALID_ARGUMENT
+                                .withDescription("Chunk received before a file header").asRuntimeException());
+                        return;
+                    }
+                    append(request.getChunk());
+                }
+                default -> {
+                    // Empty message; nothing to do
+                }
+            }
+            call.request(1);
+        }
+
+        @Override
+        public void onCompleted() {
+            finishFile();
+            releaseTokens();
+
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                    .whenComplete((ignored, ex) -> {
+                        UploadResponse.Builder response = UploadResponse.newBuilder();
+                        results.forEach(result -> response.addResults(result.join()));
+                        log.info("gRPC ingest stream completed: systemId={}, files={}",
+                                system.getSystemId(), results.size());
+                        call.onNext(response.build());
+                        call.onCompleted();
+                    });
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // Files already published stay queued; only the file in progress is dropped
+            if (pipe != null) {
+                pipe.fail(new FileUploadException("Client stream aborted"));
+                pipe = null;
+            }
+            current = null;
+            releaseTokens();
+            log.warn("gRPC ingest stream aborted: systemId={}, files={}, error={}",
+                    system.getSystemId(), results.size(), t.getMessage());
+        }
+
+        private void startFile(FileHeader header) {
+            current = header;
+            received = 0;
+            if (!admit(header)) {
+                return;
+            }
+            if (!takeToken()) {
+                results.add(rejected(header, "RATE_LIMIT_EXCEEDED", "Daily request limit exceeded"));
+                return;
+            }
+
+            FairShareScheduler.Permit permit;
+            try {
+                permit = fairShareScheduler.acquire("uploadBulkhead", system);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                permit = null;
+            }
+            if (permit == null) {
+                refundToken();
+                results.add(rejected(header, "BULKHEAD_FULL",
+                        "Server is busy processing other requests. Please retry in a few seconds."));
+                return;
+            }
+
+            pipe = new ChunkPipe(PIPE_DEPTH);
+            FairShareScheduler.Permit held = permit;
+            results.add(store(header, pipe).whenComplete((result, ex) -> {
+                held.release();
+                if (ex != null || !result.getErrorCode().isEmpty()) {
+                    refundToken();
+                }
+            }));
+        }
+
+        private void append(ByteString chunk) {
+            if (pipe == null) {
+                return;
+            }
+            received += chunk.size();
+            if (received > maxFileSize.toBytes()) {
+                // Keep reading the stream, but abort this file's upload
+                pipe.fail(new FileUploadSizeException("File size exceeds maximum allowed size",
+                        maxFileSize.toBytes(), received));
+                pipe = null;
+                return;
+            }
+            // Blocks while the upload is behind; returns at once if it already gave up
+            pipe.put(chunk);
+        }
+
+        private void finishFile() {
+            if (pipe != null) {
+                pipe.finish();
+                pipe = null;
+            }
+            current = null;
+        }
+
+        private CompletableFuture<FileResult> store(FileHeader header, ChunkPipe content) {
+            String requestId = UUID.randomUUID().toString();
+            String contentType = header.getContentType().isEmpty() ? null : header.getContentType();
+
+            return CompletableFuture.supplyAsync(() -> {
+                        try (content) {
+                            return minioStorageService.streamToTemp(content, header.getFileName(),
+                                    system.getSystemId(), contentType);
+                        } catch (Exception e) {
+                            throw new CompletionException(e);
+                        }
+                    }, uploaders)
+                    .thenCompose(stored -> messagePublisherService.publishIngestRequest(IngestRequestMessage.builder()
+                            .requestId(requestId)
+                            .systemId(system.getSystemId())
+                            .type(IngestRequestMessage.RequestType.UPLOAD)
+                            .sourcePath(stored.path())
+                            .build()))
+                    .thenApply(jobId -> FileResult.newBuilder()
+                            .setFileName(header.getFileName())
+                            .setJobId(jobId)
+                            .build())
+                    .exceptionally(ex -> {
+                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null
+                                ? ex.getCause()
+                                : ex;
+                        if (cause instanceof FileUploadSizeException) {
+                            return failure(header, "FILE_TOO_LARGE", "File size exceeds maximum allowed size");
+                        }
+                        if (cause instanceof FileUploadException) {
+                            return failure(header, "INVALID_UPLOAD", cause.getMessage());
+                        }
+                        // Circuit breaker, storage or broker error; the stream carries on with the next file
+                        log.error("Failed to ingest gRPC upload: requestId={}, file={}, error={}",
+                                requestId, header.getFileName(), cause.getMessage());
+                        return failure(header, "SERVICE_UNAVAILABLE", cause.getMessage());
+                    });
+        }
+
+        /**
+         * Shed the file under downstream backpressure, or delay it like
+         * {@code AdmissionFilter} delays a REST upload
+         */
+        private boolean admit(FileHeader header) {
+            BackpressureMonitor.Decision decision = backpressureMonitor.evaluate(system);
+            if (decision.shed()) {
+                log.warn("gRPC file rejected (backpressure): systemId={}, priority={}, file={}",
+                        system.getSystemId(), system.getPriority(), header.getFileName());
+                results.add(rejected(header, "BACKPRESSURE", "Downstream processing is behind. Please retry after "
+                        + decision.retryAfterSeconds() + "s."));
+                return false;
+            }
+            if (!decision.delay().isZero()) {
+                try {
+                    Thread.sleep(decision.delay());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return true;
+        }
+
+        private boolean takeToken() {
+            if (reservedTokens == 0) {
+                reservedTokens = rateLimitService.reserve(system.getSystemId(), system.getDailyLimit(), tokenBatch);
+            }
+            if (reservedTokens == 0) {
+                return false;
+            }
+            reservedTokens--;
+            return true;
+        }
+
+        /**
+         * Give back the token of a file that was not accepted. Runs on whichever
+         * thread finished the file, so it goes straight to the rate limiter.
+         */
+        private void refundToken() {
+            rateLimitService.release(system.getSystemId(), system.getDailyLimit(), 1);
+        }
+
+        private void releaseTokens() {
+            rateLimitService.release(system.getSystemId(), system.getDailyLimit(), reservedTokens);
+            reservedTokens = 0;
+        }
+
+        private CompletableFuture<FileResult> rejected(FileHeader header, String errorCode, String message) {
+            return CompletableFuture.completedFuture(failure(header, errorCode, message));
+        }
+
+        private FileResult failure(FileHeader header, String errorCode, String message) {
+            return FileResult.newBuilder()
+                    .setFileName(header.getFileName())
+                    .setErrorCode(errorCode)
+                    .setMessage(message != null ? message : errorCode)
+                    .build();
+        }
+    }
+
+    /**
+     * Hands one file's chunks from the gRPC stream to the thread uploading it.
+     * The queue is {@code depth} chunks deep; the uploader closes the pipe when
+     * it stops reading, which releases a stream blocked on a full queue.
+     */
+    private static final class ChunkPipe extends InputStream {
+
+        private static final Object END = new Object();
+
+        private final BlockingQueue<Object> queue;
+        private volatile boolean closed;
+        private ByteString chunk = ByteString.EMPTY;
+        private int position;
+
+        ChunkPipe(int depth) {
+            this.queue = new ArrayBlockingQueue<>(depth);
+        }
+
+        void put(ByteString data) {
+            offer(data);
+        }
+
+        void finish() {
+            offer(END);
+        }
+
+        /**
+         * Make the uploader's next read fail, so the multipart upload is aborted
+         */
+        void fail(IOException cause) {
+            offer(cause);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (position == chunk.size()) {
+                Object next;
+                try {
+                    next = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for gRPC chunks");
+                }
+                if (next == END) {
+                    // Stay at end of stream for any further reads
+                    queue.offer(END);
+                    return -1;
+                }
+                if (next instanceof IOException failure) {
+                    throw failure;
+                }
+                chunk = (ByteString) next;
+                position = 0;
+            }
+            int n = Math.min(length, chunk.size() - position);
+            chunk.copyTo(target, position, offset, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            queue.clear();
+        }
+
+        private void offer(Object item) {
+            try {
+                while (!closed && !queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    // Wait for the uploader to catch up
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
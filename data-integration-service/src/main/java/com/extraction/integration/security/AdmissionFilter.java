@@ -0,0 +1,272 @@
+package com.extraction.integration.security;
+
+import com.extraction.integration.dto.ApiResponse;
+import com.extraction.integration.dto.SystemInfo;
+import com.extraction.integration.service.AdaptiveConcurrencyLimiter;
+import com.extraction.integration.service.BackpressureMonitor;
+import com.extraction.integration.service.FairShareScheduler;
+import com.extraction.integration.service.RateLimitService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admits or rejects ingest requests from headers alone, before any body byte
+ * is read: Content-Length against the route's limit (413), downstream
+ * backpressure on new work (429, see {@link BackpressureMonitor}), a fair
+ * share of bulkhead capacity (429, see {@link FairShareScheduler}) and the
+ * system's daily quota (429, consumed here for the request).
+ *
+ * Runs right after {@link JwtAuthenticationFilter}. Rejections close the
+ * connection so the container does not drain the unread body either. The
+ * bulkhead permit is held until the response completes, including when the
+ * controller answers asynchronously.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private final RateLimitService rateLimitService;
+    private final FairShareScheduler fairShareScheduler;
+    private final BackpressureMonitor backpressureMonitor;
+    private final AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${spring.servlet.multipart.max-request-size:100MB}")
+    private DataSize maxMultipartRequest;
+
+    @Value("${upload.streaming.max-file-size:100MB}")
+    private DataSize maxStreamingFile;
+
+    @Value("${upload.streaming.part-size:5MB}")
+    private DataSize partSize;
+
+    @Value("${admission.max-json-size:64KB}")
+    private DataSize maxJsonSize;
+
+    @Value("${admission.max-batch-json-size:1MB}")
+    private DataSize maxBatchJsonSize;
+
+    // Multipart boundaries and form fields around the file
+    @Value("${admission.multipart-overhead:64KB}")
+    private DataSize multipartOverhead;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private List<Route> routes;
+
+    @PostConstruct
+    void init() {
+        routes = List.of(
+                new Route("POST", "/api/v1/upload", "uploadBulkhead", maxMultipartRequest.toBytes(), true, true),
+                new Route("POST", "/api/v1/upload/stream", "uploadBulkhead",
+                        maxStreamingFile.toBytes() + multipartOverhead.toBytes(), true, true),
+                new Route("POST", "/api/v1/job/trigger", "triggerBulkhead", maxJsonSize.toBytes(), true, true),
+                // Batches reserve one token per item themselves
+                new Route("POST", "/api/v1/upload/batch", "uploadBulkhead", maxMultipartRequest.toBytes(), false, true),
+                new Route("POST", "/api/v1/job/trigger/batch", "triggerBulkhead", maxBatchJsonSize.toBytes(), false,
+                        true),
+                new Route("POST", "/api/v1/uploads", null, maxJsonSize.toBytes(), true, true),
+                new Route("POST", "/api/v1/uploads/presigned", null, maxJsonSize.toBytes(), true, true),
+                // Parts of an upload already admitted are never shed
+                new Route("PUT", "/api/v1/uploads/*/parts/*", "chunkBulkhead", partSize.toBytes(), false, false));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return route(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Route route = route(request);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (route == null || authentication == null || !(authentication.getPrincipal() instanceof SystemInfo system)) {
+            // Unauthenticated requests are rejected by the security chain as before
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long contentLength = request.getContentLengthLong();
+
+        if (contentLength > route.maxBytes()) {
+            log.warn("Admission rejected (too large): systemId={}, path={}, contentLength={}, max={}",
+                    system.getSystemId(), request.getRequestURI(), contentLength, route.maxBytes());
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, null, "too_large", contentLength,
+                    ApiResponse.error("File size exceeds maximum allowed size", "FILE_TOO_LARGE"));
+            return;
+        }
+
+        if (route.newWork()) {
+            BackpressureMonitor.Decision decision = backpressureMonitor.evaluate(system);
+            if (decision.shed()) {
+                log.warn("Admission rejected (backpressure): systemId={}, priority={}, path={}",
+                        system.getSystemId(), system.getPriority(), request.getRequestURI());
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, decision.retryAfterSeconds(), "backpressure",
+                        contentLength, ApiResponse.error(
+                                "Downstream processing is behind. Please retry after the indicated delay.",
+                                "BACKPRESSURE"));
+                return;
+            }
+            if (!decision.delay().isZero()) {
+                try {
+                    Thread.sleep(decision.delay());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ServletException("Interrupted while delaying for backpressure", e);
+                }
+            }
+        }
+
+        FairShareScheduler.Permit permit = null;
+        if (route.bulkhead() != null) {
+            try {
+                permit = fairShareScheduler.acquire(route.bulkhead(), system);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while waiting for admission", e);
+            }
+            if (permit == null) {
+                log.warn("Admission rejected (busy): systemId={}, bulkhead={}", system.getSystemId(),
+                        route.bulkhead());
+                adaptiveConcurrencyLimiter.recordRejection(route.bulkhead());
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, 1L, "bulkhead", contentLength,
+                        ApiResponse.error("Server is busy processing other requests. Please retry in a few seconds.",
+                                "BULKHEAD_FULL"));
+                return;
+            }
+        }
+
+        try {
+            if (route.consumesQuota()
+                    && !rateLimitService.checkAndIncrementRateLimit(system.getSystemId(), system.getDailyLimit())) {
+                log.warn("Rate limit exceeded for system: {}", system.getSystemId());
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, quotaRetryAfter(system), "quota", contentLength,
+                        ApiResponse.error("Daily request limit exceeded. Remaining: 0", "RATE_LIMIT_EXCEEDED"));
+                return;
+            }
+
+            filterChain.doFilter(request, response);
+        } finally {
+            if (permit != null) {
+                if (request.isAsyncStarted()) {
+                    // The controller returned a future; hold the permit until the response is written
+                    request.getAsyncContext().addListener(new PermitReleasingListener(permit));
+                } else {
+                    permit.release();
+                }
+            }
+        }
+    }
+
+    private Route route(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Route route : routes) {
+            if (route.method().equals(request.getMethod()) && pathMatcher.match(route.pattern(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Burst window when daily quota is left, otherwise the daily bucket's rollover
+     */
+    private long quotaRetryAfter(SystemInfo system) {
+        if (rateLimitService.getRemainingQuota(system.getSystemId(), system.getDailyLimit()) > 0) {
+            return 60;
+        }
+        return Math.max(1, Duration.between(LocalDateTime.now(), LocalDate.now().plusDays(1).atStartOfDay())
+                .toSeconds());
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, Long retryAfterSeconds, String reason,
+            long contentLength, ApiResponse<Void> body) throws IOException {
+        counter("admission.rejected", reason).increment();
+        if (contentLength > 0) {
+            counter("admission.rejected.bytes", reason).increment(contentLength);
+        }
+
+        response.setStatus(status.value());
+        if (retryAfterSeconds != null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        // The body was never read; don't let the container drain it to keep the connection
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private Counter counter(String name, String reason) {
+        return counters.computeIfAbsent(name + ":" + reason, key -> Counter.builder(name)
+                .description(name.endsWith("bytes")
+                        ? "Declared request body bytes never read because the request was rejected at admission"
+                        : "Requests rejected at admission")
+                .tag("reason", reason)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Releases the bulkhead permit once an async request ends, however it ends
+     */
+    private record PermitReleasingListener(FairShareScheduler.Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-dispatched async cycles keep the same permit
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private record Route(String method, String pattern, String bulkhead, long maxBytes, boolean consumesQuota,
+            boolean newWork) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.extraction.integration.security;
+
+import com.extraction.integration.service.IamAuthService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Receives SystemClient change notifications published by IAM and evicts
+ * the cached auth of that client on this replica.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthInvalidationListener implements MessageListener {
+
+    private final IamAuthService iamAuthService;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String clientId = new String(message.getBody(), StandardCharsets.UTF_8);
+        log.debug("Client change received: clientId={}", clientId);
+        iamAuthService.invalidateClient(clientId);
+    }
+}
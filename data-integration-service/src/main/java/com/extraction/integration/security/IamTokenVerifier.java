@@ -0,0 +1,182 @@
+package com.extraction.integration.security;
+
+import com.extraction.integration.client.IamClient;
+import com.extraction.integration.dto.SystemInfo;
+import com.extraction.integration.exception.UnauthorizedException;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Verifies IAM-signed access tokens locally against IAM's published keys.
+ *
+ * The key set is fetched in the background; a token signed with a kid we have
+ * not seen triggers at most one extra fetch per {@code jwks-min-refetch}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IamTokenVerifier {
+
+    private static final String CLAIM_CLIENT_NAME = "client_name";
+    private static final String CLAIM_DAILY_LIMIT = "daily_limit";
+    private static final String CLAIM_ADMISSION_WEIGHT = "admission_weight";
+    private static final String CLAIM_PRIORITY = "priority";
+
+    private final IamClient iamClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${iam.jwt.issuer:iam-service}")
+    private String issuer;
+
+    @Value("${iam.jwt.clock-skew:30s}")
+    private Duration clockSkew;
+
+    @Value("${iam.jwt.jwks-min-refetch:30s}")
+    private Duration minRefetch;
+
+    private volatile JWKSet keys = new JWKSet();
+    private volatile long lastFetch;
+    private final ReentrantLock refetchLock = new ReentrantLock();
+
+    private Counter verified;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        verified = verifyCounter("verified");
+        rejected = verifyCounter("rejected");
+    }
+
+    /**
+     * Opaque tokens (anything that is not a compact JWS) still go through introspection
+     */
+    public boolean isSignedToken(String token) {
+        return token.chars().filter(c -> c == '.').count() == 2;
+    }
+
+    /**
+     * Check signature, issuer and expiry without any network call
+     *
+     * @throws UnauthorizedException if the token is not valid
+     */
+    public VerifiedToken verify(String token) {
+        try {
+            SignedJWT jwt = SignedJWT.parse(token);
+            if (!JWSAlgorithm.RS256.equals(jwt.getHeader().getAlgorithm())) {
+                throw reject("Unsupported token algorithm");
+            }
+
+            JWK key = findKey(jwt.getHeader().getKeyID());
+            if (key == null || !jwt.verify(new RSASSAVerifier(key.toRSAKey()))) {
+                throw reject("Invalid token signature");
+            }
+
+            JWTClaimsSet claims = jwt.getJWTClaimsSet();
+            Instant now = Instant.now();
+            if (!issuer.equals(claims.getIssuer())) {
+                throw reject("Unexpected token issuer");
+            }
+            if (claims.getExpirationTime() == null
+                    || claims.getExpirationTime().toInstant().plus(clockSkew).isBefore(now)) {
+                throw reject("Token expired");
+            }
+
+            Long dailyLimit = claims.getLongClaim(CLAIM_DAILY_LIMIT);
+            Long admissionWeight = claims.getLongClaim(CLAIM_ADMISSION_WEIGHT);
+            SystemInfo info = SystemInfo.builder()
+                    .systemId(claims.getSubject())
+                    .systemName(claims.getStringClaim(CLAIM_CLIENT_NAME))
+                    .dailyLimit(dailyLimit != null ? dailyLimit.intValue() : null)
+                    .admissionWeight(admissionWeight != null ? admissionWeight.intValue() : null)
+                    .priority(claims.getStringClaim(CLAIM_PRIORITY))
+                    .build();
+
+            verified.increment();
+            Instant issuedAt = claims.getIssueTime() != null ? claims.getIssueTime().toInstant() : Instant.EPOCH;
+            return new VerifiedToken(info, issuedAt);
+
+        } catch (ParseException e) {
+            throw reject("Malformed token");
+        } catch (JOSEException e) {
+            log.error("Token verification failed", e);
+            throw reject("Token verification failed");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${iam.jwt.jwks-refresh-ms:300000}")
+    public void refreshKeys() {
+        try {
+            Map<String, Object> json = iamClient.jwks();
+            JWKSet fetched = JWKSet.parse(json);
+            lastFetch = System.currentTimeMillis();
+            if (fetched.getKeys().isEmpty()) {
+                log.warn("IAM returned no signing keys, keeping {} known keys", keys.getKeys().size());
+                return;
+            }
+            keys = fetched;
+            log.debug("Signing keys refreshed: count={}", fetched.getKeys().size());
+        } catch (Exception e) {
+            log.warn("Signing key refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private JWK findKey(String kid) {
+        JWK key = keys.getKeyByKeyId(kid);
+        if (key != null) {
+            return key;
+        }
+
+        // Unknown kid: IAM may have rotated since our last fetch. One caller refetches.
+        refetchLock.lock();
+        try {
+            key = keys.getKeyByKeyId(kid);
+            if (key == null && System.currentTimeMillis() - lastFetch > minRefetch.toMillis()) {
+                refreshKeys();
+                key = keys.getKeyByKeyId(kid);
+            }
+            return key;
+        } finally {
+            refetchLock.unlock();
+        }
+    }
+
+    private UnauthorizedException reject(String reason) {
+        rejected.increment();
+        return new UnauthorizedException(reason);
+    }
+
+    private Counter verifyCounter(String outcome) {
+        return Counter.builder("auth.token.local")
+                .description("Locally verified access tokens by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claims of a token whose signature checked out
+     */
+    public record VerifiedToken(SystemInfo systemInfo, Instant issuedAt) {
+    }
+}
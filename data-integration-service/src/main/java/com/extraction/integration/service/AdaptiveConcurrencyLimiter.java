@@ -0,0 +1,248 @@
+package com.extraction.integration.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resizes the upload and trigger bulkheads from observed downstream latency
+ * instead of leaving them at a fixed size (gradient algorithm).
+ *
+ * Every {@code update-interval-ms} each limiter compares the short-term mean
+ * latency of its signals (MinIO puts, publisher confirms) with a slowly
+ * moving long-term baseline. While latency stays within {@code tolerance} of
+ * the baseline the limit grows by about sqrt(limit) per tick; as latency
+ * rises the limit shrinks in proportion. The slowest signal decides.
+ *
+ * The limit is applied to the Resilience4j bulkhead itself, so both the
+ * {@code @Bulkhead} annotations and the admission filter enforce it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdaptiveConcurrencyLimiter {
+
+    private static final String MINIO_PUT = "minio.put.latency";
+    private static final String PUBLISH_CONFIRM = "publisher.confirm.latency";
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${adaptive-limit.enabled:true}")
+    private boolean enabled;
+
+    // Latency may rise this far above the baseline before the limit shrinks
+    @Value("${adaptive-limit.tolerance:1.5}")
+    private double tolerance;
+
+    // Share of each tick's target applied to the limit (damps oscillation)
+    @Value("${adaptive-limit.smoothing:0.2}")
+    private double smoothing;
+
+    // Ticks the long-term baseline averages over
+    @Value("${adaptive-limit.baseline-window:60}")
+    private int baselineWindow;
+
+    // Fewer samples than this in a tick leave the limit unchanged
+    @Value("${adaptive-limit.min-samples:5}")
+    private int minSamples;
+
+    @Value("${adaptive-limit.upload.min:5}")
+    private int uploadMin;
+
+    @Value("${adaptive-limit.upload.max:120}")
+    private int uploadMax;
+
+    @Value("${adaptive-limit.trigger.min:10}")
+    private int triggerMin;
+
+    @Value("${adaptive-limit.trigger.max:200}")
+    private int triggerMax;
+
+    private final Map<String, Limiter> limiters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            log.info("Adaptive concurrency limits disabled; bulkheads keep their configured size");
+            return;
+        }
+        register("uploadBulkhead", uploadMin, uploadMax, List.of(MINIO_PUT, PUBLISH_CONFIRM));
+        register("triggerBulkhead", triggerMin, triggerMax, List.of(PUBLISH_CONFIRM));
+    }
+
+    /**
+     * Count a request turned away because the named bulkhead was full
+     */
+    public void recordRejection(String bulkheadName) {
+        Limiter limiter = limiters.get(bulkheadName);
+        if (limiter != null) {
+            limiter.rejected().increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${adaptive-limit.update-interval-ms:1000}")
+    public void update() {
+        limiters.values().forEach(this::update);
+    }
+
+    // ==================== Private Methods ====================
+
+    private void register(String name, int min, int max, List<String> signalNames) {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(name);
+        int initial = Math.clamp(bulkhead.getBulkheadConfig().getMaxConcurrentCalls(), min, max);
+        Limiter limiter = new Limiter(name, bulkhead, min, max,
+                signalNames.stream().map(Signal::new).toList(),
+                Counter.builder("adaptive.limit.rejected")
+                        .description("Requests rejected because the adaptive limit was reached")
+                        .tag("limiter", name)
+                        .register(meterRegistry),
+                new AtomicBoolean());
+        limiters.put(name, limiter);
+        bulkhead.getEventPublisher().onCallRejected(event -> limiter.rejected().increment());
+
+        Gauge.builder("adaptive.limit", limiter, l -> l.bulkhead.getBulkheadConfig().getMaxConcurrentCalls())
+                .description("Current adaptive concurrency limit")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("adaptive.limit.inflight", limiter, Limiter::inflight)
+                .description("Calls currently holding a permit")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        for (Signal signal : limiter.signals) {
+            Gauge.builder("adaptive.limit.rtt.short", signal, s -> s.shortRtt)
+                    .description("Mean downstream latency over the last update interval")
+                    .tag("limiter", name)
+                    .tag("signal", signal.meterName)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("adaptive.limit.rtt.long", signal, s -> s.longRtt)
+                    .description("Long-term baseline of downstream latency")
+                    .tag("limiter", name)
+                    .tag("signal", signal.meterName)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+
+        apply(limiter, initial);
+        log.info("Adaptive limit for {}: initial={}, min={}, max={}, signals={}",
+                name, initial, min, max, signalNames);
+    }
+
+    private void update(Limiter limiter) {
+        double gradient = Double.NaN;
+        for (Signal signal : limiter.signals) {
+            double sample = signal.sample(minSamples);
+            if (Double.isNaN(sample)) {
+                continue;
+            }
+            if (signal.longRtt == 0) {
+                signal.longRtt = sample;
+            } else {
+                signal.longRtt += (sample - signal.longRtt) / baselineWindow;
+                // Latency well below the baseline: let the baseline catch up quickly
+                if (signal.longRtt > 2 * sample) {
+                    signal.longRtt *= 0.95;
+                }
+            }
+            double g = Math.clamp(tolerance * signal.longRtt / sample, 0.5, 1.0);
+            gradient = Double.isNaN(gradient) ? g : Math.min(gradient, g);
+        }
+        if (Double.isNaN(gradient)) {
+            return;
+        }
+
+        int current = limiter.bulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+        double target = current * gradient + Math.sqrt(current);
+        // Only grow when the current limit is actually being used
+        if (target > current && limiter.inflight() < current / 2) {
+            target = current;
+        }
+        int next = (int) Math.round(Math.clamp(current * (1 - smoothing) + target * smoothing,
+                limiter.min, limiter.max));
+        if (next != current) {
+            log.debug("Adaptive limit {}: {} -> {} (gradient={})", limiter.name, current, next, gradient);
+            apply(limiter, next);
+        }
+    }
+
+    /**
+     * Resize the bulkhead. Shrinking waits for permits to come back, so it
+     * runs off the scheduler thread and at most one resize per limiter is in
+     * flight.
+     */
+    private void apply(Limiter limiter, int limit) {
+        if (!limiter.resizing.compareAndSet(false, true)) {
+            return;
+        }
+        BulkheadConfig config = BulkheadConfig.from(limiter.bulkhead.getBulkheadConfig())
+                .maxConcurrentCalls(limit)
+                .build();
+        Thread.ofVirtual().name("adaptive-limit-" + limiter.name).start(() -> {
+            try {
+                limiter.bulkhead.changeConfig(config);
+            } finally {
+                limiter.resizing.set(false);
+            }
+        });
+    }
+
+    private final class Signal {
+        final String meterName;
+        long lastCount;
+        double lastTotalSeconds;
+        volatile double shortRtt;
+        volatile double longRtt;
+
+        Signal(String meterName) {
+            this.meterName = meterName;
+        }
+
+        /**
+         * Mean latency in seconds since the previous sample, or NaN when too
+         * few calls completed to tell
+         */
+        double sample(int minSamples) {
+            long count = 0;
+            double totalSeconds = 0;
+            for (Timer timer : meterRegistry.find(meterName).timers()) {
+                count += timer.count();
+                totalSeconds += timer.totalTime(TimeUnit.SECONDS);
+            }
+            long deltaCount = count - lastCount;
+            double deltaSeconds = totalSeconds - lastTotalSeconds;
+            if (deltaCount < minSamples) {
+                return Double.NaN;
+            }
+            lastCount = count;
+            lastTotalSeconds = totalSeconds;
+            shortRtt = deltaSeconds / deltaCount;
+            return shortRtt;
+        }
+    }
+
+    private record Limiter(String name, Bulkhead bulkhead, int min, int max, List<Signal> signals,
+            Counter rejected, AtomicBoolean resizing) {
+
+        int inflight() {
+            return bulkhead.getBulkheadConfig().getMaxConcurrentCalls()
+                    - bulkhead.getMetrics().getAvailableConcurrentCalls();
+        }
+    }
+}
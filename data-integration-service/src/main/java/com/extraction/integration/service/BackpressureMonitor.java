@@ -0,0 +1,404 @@
+package com.extraction.integration.service;
+
+import com.extraction.integration.dto.SystemInfo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.rabbitmq.client.AMQP;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Backpressure from the executor and ETL back to the gateway.
+ *
+ * Every {@code sample-interval-ms} samples the depth of {@code q.executor.ingest}
+ * (queue declare, or the management API when configured, which also reports
+ * consumer utilisation) and the ETL consumer group's lag on
+ * {@code etl.file.ready}. Each signal maps to a pressure between 0 (at or
+ * below its low watermark) and 1 (at or above its high watermark); the
+ * highest one is the gateway's pressure level.
+ *
+ * Above zero, new work is delayed by up to {@code max-delay} and shed with a
+ * probability that rises with the level, BULK systems first, STANDARD once
+ * the level passes {@code shed-start.standard}. CRITICAL systems are never
+ * shed or delayed. Signals that could not be sampled recently count as zero,
+ * so a monitoring outage does not turn into an ingest outage.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BackpressureMonitor {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${backpressure.enabled:true}")
+    private boolean enabled;
+
+    // Samples older than this are ignored (fail open)
+    @Value("${backpressure.stale-after:15s}")
+    private Duration staleAfter;
+
+    @Value("${messaging.queue.executor-ingest}")
+    private String queueName;
+
+    @Value("${backpressure.queue.low-watermark:1000}")
+    private long queueLow;
+
+    @Value("${backpressure.queue.high-watermark:10000}")
+    private long queueHigh;
+
+    // Optional; without it depth comes from queue declare and utilisation is not sampled
+    @Value("${backpressure.rabbit.management-url:}")
+    private String managementUrl;
+
+    @Value("${spring.rabbitmq.virtual-host:/}")
+    private String virtualHost;
+
+    @Value("${spring.rabbitmq.username:guest}")
+    private String rabbitUsername;
+
+    @Value("${spring.rabbitmq.password:guest}")
+    private String rabbitPassword;
+
+    // Consumer utilisation at or above this adds no pressure ...
+    @Value("${backpressure.rabbit.utilisation-high:0.9}")
+    private double utilisationHigh;
+
+    // ... and at or below this counts as fully saturated consumers
+    @Value("${backpressure.rabbit.utilisation-low:0.3}")
+    private double utilisationLow;
+
+    // Optional; without it Kafka lag is not sampled
+    @Value("${backpressure.kafka.bootstrap-servers:}")
+    private String kafkaBootstrapServers;
+
+    @Value("${backpressure.kafka.group:etl_processing_group}")
+    private String kafkaGroup;
+
+    @Value("${backpressure.kafka.topic:etl.file.ready}")
+    private String kafkaTopic;
+
+    @Value("${backpressure.kafka.low-watermark:5000}")
+    private long lagLow;
+
+    @Value("${backpressure.kafka.high-watermark:50000}")
+    private long lagHigh;
+
+    @Value("${backpressure.kafka.timeout:3s}")
+    private Duration kafkaTimeout;
+
+    // Pressure level at which each class starts being shed; it reaches 100% at level 1
+    @Value("${backpressure.shed-start.bulk:0.0}")
+    private double bulkShedStart;
+
+    @Value("${backpressure.shed-start.standard:0.5}")
+    private double standardShedStart;
+
+    // Delay applied to admitted non-CRITICAL requests at level 1
+    @Value("${backpressure.max-delay:200ms}")
+    private Duration maxDelay;
+
+    @Value("${backpressure.retry-after.min:1s}")
+    private Duration retryAfterMin;
+
+    @Value("${backpressure.retry-after.max:30s}")
+    private Duration retryAfterMax;
+
+    private RestClient managementClient;
+    private Admin kafkaAdmin;
+    private final Map<FairShareScheduler.Priority, Counter> shedCounters =
+            new EnumMap<>(FairShareScheduler.Priority.class);
+
+    private volatile QueueSample queueSample;
+    private volatile LagSample lagSample;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            log.info("Backpressure disabled; new work is admitted regardless of downstream backlog");
+            return;
+        }
+        if (!managementUrl.isBlank()) {
+            String credentials = Base64.getEncoder().encodeToString(
+                    (rabbitUsername + ":" + rabbitPassword).getBytes(StandardCharsets.UTF_8));
+            managementClient = RestClient.builder()
+                    .baseUrl(managementUrl)
+                    .defaultHeader(HttpHeaders.AUTHORIZATION, "Basic " + credentials)
+                    .build();
+        }
+        if (!kafkaBootstrapServers.isBlank()) {
+            kafkaAdmin = Admin.create(Map.of(
+                    AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaBootstrapServers,
+                    AdminClientConfig.CLIENT_ID_CONFIG, "integration-backpressure",
+                    AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, (int) kafkaTimeout.toMillis(),
+                    AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, (int) kafkaTimeout.toMillis()));
+        }
+
+        Gauge.builder("backpressure.level", this, BackpressureMonitor::level)
+                .description("Downstream pressure level from 0 (normal) to 1 (at high watermark)")
+                .register(meterRegistry);
+        Gauge.builder("backpressure.queue.depth", this, m -> m.queueSample != null ? m.queueSample.depth : Double.NaN)
+                .description("Messages in the executor ingest queue at the last sample")
+                .tag("queue", queueName)
+                .register(meterRegistry);
+        Gauge.builder("backpressure.queue.consumers", this,
+                        m -> m.queueSample != null ? m.queueSample.consumers : Double.NaN)
+                .description("Consumers of the executor ingest queue at the last sample")
+                .tag("queue", queueName)
+                .register(meterRegistry);
+        Gauge.builder("backpressure.kafka.lag", this, m -> m.lagSample != null ? m.lagSample.lag : Double.NaN)
+                .description("ETL consumer group lag at the last sample")
+                .tag("topic", kafkaTopic)
+                .register(meterRegistry);
+        for (FairShareScheduler.Priority priority : FairShareScheduler.Priority.values()) {
+            shedCounters.put(priority, Counter.builder("backpressure.shed")
+                    .description("Requests shed because of downstream backpressure")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (kafkaAdmin != null) {
+            kafkaAdmin.close(Duration.ofSeconds(1));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${backpressure.sample-interval-ms:5000}")
+    public void sample() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            queueSample = sampleQueue();
+        } catch (RuntimeException e) {
+            log.debug("Queue depth sample failed: {}", e.getMessage());
+        }
+        if (kafkaAdmin != null) {
+            try {
+                lagSample = sampleLag();
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                log.debug("Kafka lag sample failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Decide whether to admit new work from {@code system} under the current pressure
+     */
+    public Decision evaluate(SystemInfo system) {
+        double level = level();
+        FairShareScheduler.Priority priority = FairShareScheduler.Priority.of(system.getPriority());
+        if (level <= 0 || priority == FairShareScheduler.Priority.CRITICAL) {
+            return Decision.ADMIT;
+        }
+        if (ThreadLocalRandom.current().nextDouble() < shedProbability(priority, level)) {
+            shedCounters.get(priority).increment();
+            return new Decision(true, retryAfterSeconds(level), Duration.ZERO);
+        }
+        return new Decision(false, 0, Duration.ofNanos((long) (maxDelay.toNanos() * level)));
+    }
+
+    /**
+     * Current pressure, its inputs and what it means for each priority class
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        if (!enabled) {
+            return snapshot;
+        }
+        double level = level();
+        snapshot.put("level", round(level));
+        snapshot.put("state", level <= 0 ? "NORMAL" : level >= 1 ? "SATURATED" : "ELEVATED");
+
+        QueueSample queue = queueSample;
+        Map<String, Object> queueState = new LinkedHashMap<>();
+        queueState.put("name", queueName);
+        if (queue != null) {
+            queueState.put("depth", queue.depth);
+            queueState.put("consumers", queue.consumers);
+            if (queue.utilisation != null) {
+                queueState.put("consumerUtilisation", round(queue.utilisation));
+            }
+            queueState.put("pressure", round(queuePressure(queue)));
+            queueState.put("sampledAt", queue.sampledAt.toString());
+            queueState.put("stale", isStale(queue.sampledAt));
+        }
+        snapshot.put("queue", queueState);
+
+        if (kafkaAdmin != null) {
+            LagSample lag = lagSample;
+            Map<String, Object> kafkaState = new LinkedHashMap<>();
+            kafkaState.put("topic", kafkaTopic);
+            kafkaState.put("group", kafkaGroup);
+            if (lag != null) {
+                kafkaState.put("lag", lag.lag);
+                kafkaState.put("pressure", round(pressure(lag.lag, lagLow, lagHigh)));
+                kafkaState.put("sampledAt", lag.sampledAt.toString());
+                kafkaState.put("stale", isStale(lag.sampledAt));
+            }
+            snapshot.put("kafka", kafkaState);
+        }
+
+        snapshot.put("shedProbability", Arrays.stream(FairShareScheduler.Priority.values())
+                .collect(Collectors.toMap(Enum::name, p -> round(shedProbability(p, level)),
+                        (a, b) -> a, LinkedHashMap::new)));
+        snapshot.put("delayMs", Math.round(maxDelay.toMillis() * level));
+        return snapshot;
+    }
+
+    /**
+     * Shed the request (answer 429 with {@code retryAfterSeconds}), or admit it
+     * after {@code delay}
+     */
+    public record Decision(boolean shed, long retryAfterSeconds, Duration delay) {
+        static final Decision ADMIT = new Decision(false, 0, Duration.ZERO);
+    }
+
+    // ==================== Private Methods ====================
+
+    private QueueSample sampleQueue() {
+        if (managementClient != null) {
+            try {
+                URI uri = URI.create(managementUrl + "/api/queues/"
+                        + URLEncoder.encode(virtualHost, StandardCharsets.UTF_8) + "/"
+                        + URLEncoder.encode(queueName, StandardCharsets.UTF_8));
+                JsonNode queue = managementClient.get().uri(uri).retrieve().body(JsonNode.class);
+                if (queue != null) {
+                    JsonNode utilisation = queue.path("consumer_utilisation");
+                    return new QueueSample(queue.path("messages").asLong(), queue.path("consumers").asInt(),
+                            utilisation.isNumber() ? utilisation.asDouble() : null, Instant.now());
+                }
+            } catch (RuntimeException e) {
+                log.debug("Management API sample failed, falling back to queue declare: {}", e.getMessage());
+            }
+        }
+        AMQP.Queue.DeclareOk declareOk = rabbitTemplate.execute(channel -> channel.queueDeclarePassive(queueName));
+        return new QueueSample(declareOk.getMessageCount(), declareOk.getConsumerCount(), null, Instant.now());
+    }
+
+    /**
+     * Sum of (log end - committed offset) over the partitions the group has committed on
+     */
+    private LagSample sampleLag() throws Exception {
+        long timeoutMs = kafkaTimeout.toMillis();
+        Map<TopicPartition, OffsetAndMetadata> committed = kafkaAdmin.listConsumerGroupOffsets(kafkaGroup)
+                .partitionsToOffsetAndMetadata().get(timeoutMs, TimeUnit.MILLISECONDS)
+                .entrySet().stream()
+                .filter(e -> e.getKey().topic().equals(kafkaTopic) && e.getValue() != null)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        if (committed.isEmpty()) {
+            return new LagSample(0, Instant.now());
+        }
+
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> latest = kafkaAdmin.listOffsets(
+                        committed.keySet().stream().collect(Collectors.toMap(tp -> tp, tp -> OffsetSpec.latest())))
+                .all().get(timeoutMs, TimeUnit.MILLISECONDS);
+        long lag = 0;
+        for (var entry : committed.entrySet()) {
+            ListOffsetsResult.ListOffsetsResultInfo end = latest.get(entry.getKey());
+            if (end != null) {
+                lag += Math.max(0, end.offset() - entry.getValue().offset());
+            }
+        }
+        return new LagSample(lag, Instant.now());
+    }
+
+    private double level() {
+        if (!enabled) {
+            return 0;
+        }
+        double level = 0;
+        QueueSample queue = queueSample;
+        if (queue != null && !isStale(queue.sampledAt)) {
+            level = queuePressure(queue);
+        }
+        LagSample lag = lagSample;
+        if (lag != null && !isStale(lag.sampledAt)) {
+            level = Math.max(level, pressure(lag.lag, lagLow, lagHigh));
+        }
+        return level;
+    }
+
+    /**
+     * Depth pressure, raised by saturated consumers once the queue is past its low watermark
+     */
+    private double queuePressure(QueueSample queue) {
+        double pressure = pressure(queue.depth, queueLow, queueHigh);
+        if (queue.utilisation != null && queue.depth >= queueLow) {
+            pressure = Math.max(pressure, pressure(utilisationHigh - queue.utilisation, 0,
+                    utilisationHigh - utilisationLow));
+        }
+        return pressure;
+    }
+
+    private double shedProbability(FairShareScheduler.Priority priority, double level) {
+        double start = switch (priority) {
+            case CRITICAL -> 1.0;
+            case STANDARD -> standardShedStart;
+            case BULK -> bulkShedStart;
+        };
+        return start >= 1.0 ? 0 : Math.clamp((level - start) / (1.0 - start), 0.0, 1.0);
+    }
+
+    private long retryAfterSeconds(double level) {
+        long min = retryAfterMin.toSeconds();
+        return Math.max(1, min + Math.round((retryAfterMax.toSeconds() - min) * level));
+    }
+
+    private boolean isStale(Instant sampledAt) {
+        return sampledAt.plus(staleAfter).isBefore(Instant.now());
+    }
+
+    private static double pressure(double value, double low, double high) {
+        if (high <= low) {
+            return value > low ? 1.0 : 0.0;
+        }
+        return Math.clamp((value - low) / (high - low), 0.0, 1.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private record QueueSample(long depth, int consumers, Double utilisation, Instant sampledAt) {
+    }
+
+    private record LagSample(long lag, Instant sampledAt) {
+    }
+}
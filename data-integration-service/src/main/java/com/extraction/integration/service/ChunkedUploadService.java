@@ -0,0 +1,390 @@
+package com.extraction.integration.service;
+
+import com.extraction.integration.dto.ChunkedUploadStatus;
+import com.extraction.integration.dto.InitChunkedUploadRequest;
+import com.extraction.integration.exception.UploadSessionException;
+import io.minio.messages.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Resumable chunked uploads mapped onto MinIO multipart uploads.
+ *
+ * Session and part state live in Redis, so any gateway replica can accept any
+ * part of any session and parts can be sent in parallel. Each part request
+ * only holds a pooled buffer for the duration of that part.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadService {
+
+    private static final String KEY_PREFIX = "chunked_upload:";
+    private static final String PARTS_SUFFIX = ":parts";
+    private static final String EXPIRY_INDEX = KEY_PREFIX + "expiry";
+    private static final int MAX_PARTS = 10_000;
+    // S3 rejects smaller parts at assembly unless they are the last one
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MinioStorageService minioStorageService;
+    private final PartBufferPool bufferPool;
+
+    @Value("${upload.chunked.session-ttl:24h}")
+    private Duration sessionTtl;
+
+    @Value("${upload.chunked.max-file-size:5GB}")
+    private DataSize maxFileSize;
+
+    /**
+     * Open a new session backed by a MinIO multipart upload in the temp bucket
+     */
+    public ChunkedUploadStatus init(String systemId, InitChunkedUploadRequest request) throws Exception {
+        if (request.getTotalSize() != null && request.getTotalSize() > maxFileSize.toBytes()) {
+            throw new MaxUploadSizeExceededException(maxFileSize.toBytes());
+        }
+
+        MinioStorageService.TempMultipart target = minioStorageService.createTempMultipart(
+                request.getFileName(), systemId, request.getContentType());
+
+        String sessionId = UUID.randomUUID().toString();
+        Map<String, Object> session = new HashMap<>();
+        session.put("systemId", systemId);
+        session.put("fileName", request.getFileName());
+        session.put("bucket", target.bucket());
+        session.put("objectName", target.objectName());
+        session.put("multipartId", target.uploadId());
+        redisTemplate.opsForHash().putAll(sessionKey(sessionId), session);
+        touch(sessionId);
+
+        log.info("Chunked upload started: uploadId={}, systemId={}, file={}",
+                sessionId, systemId, request.getFileName());
+
+        return ChunkedUploadStatus.builder()
+                .uploadId(sessionId)
+                .fileName(request.getFileName())
+                .partSize(bufferPool.getPartSize())
+                .uploadedParts(List.of())
+                .uploadedBytes(0)
+                .build();
+    }
+
+    /**
+     * Store one part. Re-sending a part number replaces the earlier copy, which
+     * is what makes a dropped connection resumable.
+     */
+    public Map<String, Object> uploadPart(String systemId, String sessionId, int partNumber, InputStream body)
+            throws Exception {
+        if (partNumber < 1 || partNumber > MAX_PARTS) {
+            throw new UploadSessionException(HttpStatus.BAD_REQUEST, "INVALID_PART",
+                    "Part number must be between 1 and " + MAX_PARTS);
+        }
+        Map<Object, Object> session = loadSession(systemId, sessionId);
+        if (session.containsKey("path")) {
+            throw new UploadSessionException(HttpStatus.CONFLICT, "UPLOAD_ASSEMBLED",
+                    "Upload has already been assembled: " + sessionId);
+        }
+
+        byte[] buffer = bufferPool.acquire();
+        try {
+            int length = readPart(body, buffer);
+            checkPartSize(sessionId, partNumber, length);
+            String etag = minioStorageService.uploadPart(target(session), partNumber, buffer, length);
+
+            redisTemplate.opsForHash().put(partsKey(sessionId), String.valueOf(partNumber), length + ":" + etag);
+            if (totalBytes(partsOf(sessionId)) > maxFileSize.toBytes()) {
+                redisTemplate.opsForHash().delete(partsKey(sessionId), String.valueOf(partNumber));
+                throw new MaxUploadSizeExceededException(maxFileSize.toBytes());
+            }
+            touch(sessionId);
+
+            log.debug("Stored part: uploadId={}, part={}, size={}", sessionId, partNumber, length);
+            return Map.of("uploadId", sessionId, "partNumber", partNumber, "size", length);
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    public ChunkedUploadStatus getStatus(String systemId, String sessionId) {
+        Map<Object, Object> session = loadSession(systemId, sessionId);
+        TreeMap<Integer, String> parts = partsOf(sessionId);
+
+        return ChunkedUploadStatus.builder()
+                .uploadId(sessionId)
+                .fileName((String) session.get("fileName"))
+                .partSize(bufferPool.getPartSize())
+                .uploadedParts(new ArrayList<>(parts.keySet()))
+                .uploadedBytes(totalBytes(parts))
+                .build();
+    }
+
+    /**
+     * Assemble the uploaded parts into the final temp object. The session stays
+     * open, holding the claim, until the caller reports the publish outcome
+     * through {@link #published} or {@link #publishFailed}, so a failed publish
+     * can be retried without re-sending the file.
+     *
+     * @return The assembled object and the request id to publish it under, or the
+     * job it was already published as when this is a retry of a completed upload
+     */
+    public Completion complete(String systemId, String sessionId) throws Exception {
+        Map<Object, Object> session = loadSession(systemId, sessionId);
+        if (session.containsKey("jobId")) {
+            return completion(session);
+        }
+
+        Boolean claimed = redisTemplate.opsForHash().putIfAbsent(sessionKey(sessionId), "completing",
+                Instant.now().toString());
+        if (!Boolean.TRUE.equals(claimed)) {
+            throw new UploadSessionException(HttpStatus.CONFLICT, "UPLOAD_COMPLETING",
+                    "Upload is already being completed: " + sessionId);
+        }
+
+        try {
+            if (session.containsKey("path")) {
+                // Assembled by an earlier attempt whose publish failed
+                log.info("Retrying publish of assembled chunked upload: uploadId={}", sessionId);
+                return completion(session);
+            }
+
+            TreeMap<Integer, String> parts = partsOf(sessionId);
+            if (parts.isEmpty() || parts.lastKey() != parts.size()) {
+                throw new UploadSessionException(HttpStatus.BAD_REQUEST, "UPLOAD_INCOMPLETE",
+                        "Parts must be contiguous from 1, received: " + parts.keySet());
+            }
+
+            parts.headMap(parts.lastKey()).forEach((number, value) -> {
+                if (partLength(value) < MIN_PART_SIZE) {
+                    throw partTooSmall(number);
+                }
+            });
+
+            Part[] completed = parts.entrySet().stream()
+                    .map(e -> new Part(e.getKey(), e.getValue().split(":", 2)[1]))
+                    .toArray(Part[]::new);
+            String path = minioStorageService.completeMultipart(target(session), completed);
+            long size = totalBytes(parts);
+
+            Map<String, Object> assembled = Map.of(
+                    "path", path,
+                    "size", String.valueOf(size),
+                    "requestId", UUID.randomUUID().toString());
+            redisTemplate.opsForHash().putAll(sessionKey(sessionId), assembled);
+            log.info("Chunked upload assembled: uploadId={}, path={}, parts={}, size={}",
+                    sessionId, path, completed.length, size);
+
+            session.putAll(assembled);
+            return completion(session);
+
+        } catch (Exception e) {
+            // Release the claim so the client can fix missing parts and retry
+            redisTemplate.opsForHash().delete(sessionKey(sessionId), "completing");
+            throw e;
+        }
+    }
+
+    /**
+     * The assembled file was queued. Remember the job for the rest of the TTL so
+     * a client that lost the response gets the same job back on retry.
+     */
+    public void published(String sessionId, String jobId) {
+        redisTemplate.opsForHash().put(sessionKey(sessionId), "jobId", jobId);
+        redisTemplate.delete(partsKey(sessionId));
+        redisTemplate.opsForZSet().remove(EXPIRY_INDEX, sessionId);
+        redisTemplate.expire(sessionKey(sessionId), sessionTtl);
+        log.info("Chunked upload completed: uploadId={}, jobId={}", sessionId, jobId);
+    }
+
+    /**
+     * Publishing the assembled file failed; keep it and let the client retry complete
+     */
+    public void publishFailed(String sessionId) {
+        redisTemplate.opsForHash().delete(sessionKey(sessionId), "completing");
+        touch(sessionId);
+    }
+
+    /**
+     * Outcome of {@link #complete}: {@code jobId} is set only when the upload was
+     * already published by an earlier call
+     */
+    public record Completion(MinioStorageService.StoredObject stored, String requestId, String jobId) {
+    }
+
+    public void abort(String systemId, String sessionId) {
+        Map<Object, Object> session = loadSession(systemId, sessionId);
+        if (session.containsKey("jobId")) {
+            throw new UploadSessionException(HttpStatus.CONFLICT, "UPLOAD_COMPLETED",
+                    "Upload has already been completed: " + sessionId);
+        }
+        discard(session);
+        deleteSession(sessionId);
+        log.info("Chunked upload aborted: uploadId={}", sessionId);
+    }
+
+    /**
+     * Abort sessions idle past their TTL so MinIO does not keep orphaned parts.
+     * ZREM acts as the claim, so only one replica aborts each session.
+     */
+    @Scheduled(fixedDelayString = "${upload.chunked.sweep-interval-ms:600000}")
+    public void sweepExpired() {
+        try {
+            Set<Object> expired = redisTemplate.opsForZSet()
+                    .rangeByScore(EXPIRY_INDEX, 0, Instant.now().toEpochMilli());
+            if (expired == null) {
+                return;
+            }
+            for (Object member : expired) {
+                String sessionId = (String) member;
+                Long removed = redisTemplate.opsForZSet().remove(EXPIRY_INDEX, sessionId);
+                if (removed == null || removed == 0) {
+                    continue;
+                }
+                Map<Object, Object> session = redisTemplate.opsForHash().entries(sessionKey(sessionId));
+                if (!session.isEmpty()) {
+                    discard(session);
+                }
+                redisTemplate.delete(List.of(sessionKey(sessionId), partsKey(sessionId)));
+                log.info("Expired chunked upload swept: uploadId={}", sessionId);
+            }
+        } catch (Exception e) {
+            log.warn("Chunked upload sweep failed: {}", e.getMessage());
+        }
+    }
+
+    // ==================== Private Methods ====================
+
+    private Map<Object, Object> loadSession(String systemId, String sessionId) {
+        Map<Object, Object> session = redisTemplate.opsForHash().entries(sessionKey(sessionId));
+        // Sessions of other systems are reported as missing rather than forbidden
+        if (session.isEmpty() || !systemId.equals(session.get("systemId"))) {
+            throw UploadSessionException.notFound(sessionId);
+        }
+        return session;
+    }
+
+    private Completion completion(Map<Object, Object> session) {
+        MinioStorageService.StoredObject stored = new MinioStorageService.StoredObject(
+                (String) session.get("path"), Long.parseLong((String) session.get("size")));
+        return new Completion(stored, (String) session.get("requestId"), (String) session.get("jobId"));
+    }
+
+    /**
+     * Drop what a session left in MinIO: the open multipart upload, or the
+     * assembled object if it was never published
+     */
+    private void discard(Map<Object, Object> session) {
+        if (session.containsKey("path")) {
+            minioStorageService.deleteObject((String) session.get("bucket"), (String) session.get("objectName"));
+        } else {
+            minioStorageService.abortMultipart(target(session));
+        }
+    }
+
+    private TreeMap<Integer, String> partsOf(String sessionId) {
+        TreeMap<Integer, String> parts = new TreeMap<>();
+        redisTemplate.opsForHash().entries(partsKey(sessionId))
+                .forEach((number, value) -> parts.put(Integer.parseInt((String) number), (String) value));
+        return parts;
+    }
+
+    private long totalBytes(Map<Integer, String> parts) {
+        return parts.values().stream()
+                .mapToLong(ChunkedUploadService::partLength)
+                .sum();
+    }
+
+    private static long partLength(String value) {
+        return Long.parseLong(value.split(":", 2)[0]);
+    }
+
+    /**
+     * Only the last part may be under the S3 minimum. Checked as parts arrive,
+     * so a client sending small parts learns at the first one that cannot be
+     * last rather than at complete: an undersized part below an already stored
+     * part is rejected, and so is a part above a stored undersized one, which
+     * then has to be re-sent in full.
+     */
+    private void checkPartSize(String sessionId, int partNumber, int length) {
+        TreeMap<Integer, String> parts = partsOf(sessionId);
+        if (length < MIN_PART_SIZE && !parts.tailMap(partNumber, false).isEmpty()) {
+            throw partTooSmall(partNumber);
+        }
+        parts.headMap(partNumber).forEach((number, value) -> {
+            if (partLength(value) < MIN_PART_SIZE) {
+                throw partTooSmall(number);
+            }
+        });
+    }
+
+    private static UploadSessionException partTooSmall(int partNumber) {
+        return new UploadSessionException(HttpStatus.BAD_REQUEST, "PART_TOO_SMALL",
+                "Part " + partNumber + " is smaller than " + MIN_PART_SIZE
+                        + " bytes; only the last part may be smaller");
+    }
+
+    private MinioStorageService.TempMultipart target(Map<Object, Object> session) {
+        return new MinioStorageService.TempMultipart(
+                (String) session.get("bucket"),
+                (String) session.get("objectName"),
+                (String) session.get("multipartId"));
+    }
+
+    /**
+     * Read the request body into the part buffer, rejecting bodies larger than one part
+     */
+    private int readPart(InputStream body, byte[] buffer) throws IOException {
+        int offset = 0;
+        while (offset < buffer.length) {
+            int read = body.read(buffer, offset, buffer.length - offset);
+            if (read < 0) {
+                return offset;
+            }
+            offset += read;
+        }
+        if (body.read() >= 0) {
+            throw new UploadSessionException(HttpStatus.PAYLOAD_TOO_LARGE, "PART_TOO_LARGE",
+                    "Part exceeds the part size of " + buffer.length + " bytes");
+        }
+        return offset;
+    }
+
+    private void touch(String sessionId) {
+        // Keys outlive the sweep deadline so the sweeper can still find the multipart id to abort
+        Duration keyTtl = sessionTtl.multipliedBy(2);
+        redisTemplate.expire(sessionKey(sessionId), keyTtl);
+        redisTemplate.expire(partsKey(sessionId), keyTtl);
+        redisTemplate.opsForZSet().add(EXPIRY_INDEX, sessionId, Instant.now().plus(sessionTtl).toEpochMilli());
+    }
+
+    private void deleteSession(String sessionId) {
+        redisTemplate.delete(List.of(sessionKey(sessionId), partsKey(sessionId)));
+        redisTemplate.opsForZSet().remove(EXPIRY_INDEX, sessionId);
+    }
+
+    private String sessionKey(String sessionId) {
+        return KEY_PREFIX + sessionId;
+    }
+
+    private String partsKey(String sessionId) {
+        return KEY_PREFIX + sessionId + PARTS_SUFFIX;
+    }
+}
@@ -0,0 +1,206 @@
+package com.extraction.integration.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-system index of uploaded content by SHA-256, so a resent file maps back
+ * to the job that is already processing it instead of starting another.
+ *
+ * The first upload of some content claims its hash with SET NX as PENDING
+ * for {@code pending-ttl}; once the broker confirms its job the claim becomes
+ * CONFIRMED for {@code retention}, and only then do later uploads of the same
+ * bytes by the same system get the original job. An upload that meets a
+ * PENDING claim publishes itself rather than answering with a job that may
+ * never be queued. Jobs that dead-letter are evicted so a retry is processed
+ * again. Redis errors disable deduplication for the request rather than
+ * failing it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentIndexService {
+
+    private static final String KEY_PREFIX = "content_index:";
+    private static final String JOB_KEY_PREFIX = "content_index_job:";
+    private static final String PENDING = "PENDING";
+    private static final String CONFIRMED = "CONFIRMED";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MinioStorageService minioStorageService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${upload.dedup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${upload.dedup.retention:7d}")
+    private Duration retention;
+
+    // Outlives the publish confirm timeout; a claim left by a crashed replica expires after it
+    @Value("${upload.dedup.pending-ttl:1m}")
+    private Duration pendingTtl;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter pending;
+    private Counter errors;
+    private Counter bytesSaved;
+
+    @PostConstruct
+    void init() {
+        hits = lookupCounter("hit");
+        misses = lookupCounter("miss");
+        pending = lookupCounter("pending");
+        errors = lookupCounter("error");
+        bytesSaved = Counter.builder("upload.dedup.bytes")
+                .description("Bytes of duplicate uploads not queued for processing again")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claim {@code stored} for {@code jobId} as PENDING, unless the same system
+     * uploaded the same content within the retention window. The caller
+     * publishes the job and then calls {@link #confirm} or {@link #release}.
+     *
+     * @return The earlier, confirmed upload, or empty if this one must be
+     *         published (new content, an earlier upload still pending, or the
+     *         index unavailable)
+     */
+    public Optional<IndexedContent> claim(String systemId, MinioStorageService.StoredObject stored, String jobId) {
+        if (!enabled || stored.sha256() == null) {
+            return Optional.empty();
+        }
+        String key = key(systemId, stored.sha256());
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key,
+                    entry(jobId, stored.path(), PENDING), pendingTtl))) {
+                misses.increment();
+                return Optional.empty();
+            }
+            if (!(redisTemplate.opsForValue().get(key) instanceof Map<?, ?> existing)) {
+                // Expired between the two calls; treat as new rather than retrying
+                misses.increment();
+                return Optional.empty();
+            }
+            if (PENDING.equals(existing.get("state"))) {
+                // The earlier job is not confirmed yet and may never be; queue this copy too
+                pending.increment();
+                log.info("Duplicate of a pending upload, publishing anyway: systemId={}, sha256={}",
+                        systemId, stored.sha256());
+                return Optional.empty();
+            }
+
+            hits.increment();
+            bytesSaved.increment(stored.size());
+            String sourcePath = String.valueOf(existing.get("sourcePath"));
+            IndexedContent earlier = new IndexedContent(String.valueOf(existing.get("jobId")), sourcePath,
+                    minioStorageService.rawPathFor(sourcePath), Instant.parse(String.valueOf(existing.get("indexedAt"))));
+            log.info("Duplicate upload: systemId={}, sha256={}, jobId={}", systemId, stored.sha256(), earlier.jobId());
+            return Optional.of(earlier);
+
+        } catch (RuntimeException e) {
+            errors.increment();
+            log.warn("Content index unavailable, skipping deduplication: systemId={}, error={}",
+                    systemId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Make a PENDING claim visible to later uploads once its job is queued
+     */
+    public void confirm(String systemId, MinioStorageService.StoredObject stored, String jobId) {
+        if (!enabled || stored.sha256() == null) {
+            return;
+        }
+        String key = key(systemId, stored.sha256());
+        try {
+            if (redisTemplate.opsForValue().get(key) instanceof Map<?, ?> existing
+                    && jobId.equals(existing.get("jobId"))) {
+                redisTemplate.opsForValue().set(key, entry(jobId, stored.path(), CONFIRMED), retention);
+                redisTemplate.opsForValue().set(JOB_KEY_PREFIX + jobId, key, retention);
+            }
+        } catch (RuntimeException e) {
+            // The pending claim expires on its own; later uploads are published again meanwhile
+            log.warn("Failed to confirm content index entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop a claim whose job was never queued, so a retry is not answered with it
+     */
+    public void release(String systemId, String sha256, String jobId) {
+        if (!enabled || sha256 == null) {
+            return;
+        }
+        delete(key(systemId, sha256), jobId);
+    }
+
+    /**
+     * Drop the entry of a job that failed downstream, so resending the file
+     * processes it again instead of returning the failed job
+     */
+    public void evict(String jobId) {
+        if (!enabled || jobId == null) {
+            return;
+        }
+        try {
+            if (redisTemplate.opsForValue().get(JOB_KEY_PREFIX + jobId) instanceof String key) {
+                delete(key, jobId);
+                redisTemplate.delete(JOB_KEY_PREFIX + jobId);
+                log.info("Evicted content index entry of failed job: jobId={}", jobId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to evict content index entry of job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * An earlier upload of the same content: its job, where it was stored
+     * and where the executor moves it
+     */
+    public record IndexedContent(String jobId, String sourcePath, String rawPath, Instant indexedAt) {
+    }
+
+    private void delete(String key, String jobId) {
+        try {
+            if (redisTemplate.opsForValue().get(key) instanceof Map<?, ?> existing
+                    && jobId.equals(existing.get("jobId"))) {
+                redisTemplate.delete(key);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to release content index entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static Map<String, Object> entry(String jobId, String sourcePath, String state) {
+        return Map.of(
+                "jobId", jobId,
+                "sourcePath", sourcePath,
+                "state", state,
+                "indexedAt", Instant.now().toString());
+    }
+
+    private static String key(String systemId, String sha256) {
+        return KEY_PREFIX + systemId + ":" + sha256;
+    }
+
+    private Counter lookupCounter(String outcome) {
+        return Counter.builder("upload.dedup.lookups")
+                .description("Content index lookups by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -13,7 +13,7 @@ import java.util.Map;
 
 /**
  * Service to consume messages from Dead Letter Queue.
- * Stateless implementation: Logs failed messages for monitoring.
+ * Logs failed messages for monitoring and evicts their content index entries.
  */
 @Slf4j
 @Service
@@ -21,6 +21,7 @@ import java.util.Map;
 public class DeadLetterQueueService {
 
     private final ObjectMapper objectMapper;
+    private final ContentIndexService contentIndexService;
 
     /**
      * Listen to Dead Letter Queue and log failed messages
@@ -33,6 +34,9 @@ public class DeadLetterQueueService {
         log.warn("Received dead letter message: jobId={}, systemId={}",
                 message.getJobId(), message.getSystemId());
 
+        // A resent copy of the same file must not be answered with this failed job
+        contentIndexService.evict(message.getJobId());
+
         try {
             // Extract failure reason from x-death header
             String reason = extractDeathReason(xDeath);
@@ -0,0 +1,304 @@
+package com.extraction.integration.service;
+
+import com.extraction.integration.dto.SystemInfo;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shares each bulkhead's permits fairly between systems.
+ *
+ * Requests wait in a short per-system queue, at most {@code queue-size} deep
+ * and for at most {@code max-wait}. When a permit frees, it goes to the
+ * waiting system of the highest priority class that holds the fewest permits
+ * relative to its admission weight. Outside CRITICAL, one system may hold at
+ * most {@code max-system-share * weight} of the pool. A burst from one system
+ * therefore queues behind its own earlier requests and does not displace
+ * everyone else.
+ *
+ * Pool capacity follows the bulkhead's current max-concurrent-calls, so it
+ * tracks the adaptive limit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FairShareScheduler {
+
+    public enum Priority {
+        CRITICAL, STANDARD, BULK;
+
+        static Priority of(String value) {
+            if (value != null) {
+                for (Priority priority : values()) {
+                    if (priority.name().equalsIgnoreCase(value)) {
+                        return priority;
+                    }
+                }
+            }
+            return STANDARD;
+        }
+    }
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${fair-admission.enabled:true}")
+    private boolean enabled;
+
+    // Requests one system may have waiting per pool
+    @Value("${fair-admission.queue-size:8}")
+    private int queueSize;
+
+    @Value("${fair-admission.max-wait:500ms}")
+    private Duration maxWait;
+
+    // Largest share of a pool one weight-1 system may hold; CRITICAL is exempt
+    @Value("${fair-admission.max-system-share:0.5}")
+    private double maxSystemShare;
+
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Take a permit from the named bulkhead's pool for {@code system}, waiting
+     * in its queue if needed
+     *
+     * @return The permit to release when the request is done, or null if the
+     *         system's queue is full or the wait timed out
+     */
+    public Permit acquire(String bulkheadName, SystemInfo system) throws InterruptedException {
+        Pool pool = pools.computeIfAbsent(bulkheadName, this::newPool);
+        if (!enabled) {
+            return pool.bulkhead.getMetrics().getAvailableConcurrentCalls() > 0 ? Permit.NONE : null;
+        }
+
+        Priority priority = Priority.of(system.getPriority());
+        int weight = system.getAdmissionWeight() != null ? Math.max(1, system.getAdmissionWeight()) : 1;
+        long start = System.nanoTime();
+
+        Waiter waiter;
+        pool.lock.lock();
+        try {
+            Tenant tenant = pool.tenants.computeIfAbsent(system.getSystemId(), Tenant::new);
+            tenant.weight = weight;
+            tenant.priority = priority;
+            if (tenant.waiting.size() >= queueSize) {
+                pool.rejected("queue_full").increment();
+                return null;
+            }
+            waiter = new Waiter(tenant);
+            tenant.waiting.add(waiter);
+            pool.waitingTenants.add(tenant);
+            pool.waiting++;
+            pool.dispatch();
+        } finally {
+            pool.lock.unlock();
+        }
+
+        try {
+            waiter.granted.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            pool.lock.lock();
+            try {
+                if (!waiter.granted.isDone()) {
+                    pool.withdraw(waiter);
+                    if (e instanceof InterruptedException interrupted) {
+                        throw interrupted;
+                    }
+                    pool.rejected("timeout").increment();
+                    return null;
+                }
+            } finally {
+                pool.lock.unlock();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+
+        pool.waitTimer(priority).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new Permit(pool, waiter.tenant);
+    }
+
+    /**
+     * A held pool permit; release exactly once when the request completes
+     */
+    public static final class Permit {
+
+        static final Permit NONE = new Permit(null, null);
+
+        private final Pool pool;
+        private final Tenant tenant;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Pool pool, Tenant tenant) {
+            this.pool = pool;
+            this.tenant = tenant;
+        }
+
+        public void release() {
+            if (pool != null && released.compareAndSet(false, true)) {
+                pool.release(tenant);
+            }
+        }
+    }
+
+    // ==================== Private Methods ====================
+
+    private Pool newPool(String bulkheadName) {
+        Pool pool = new Pool(bulkheadName, bulkheadRegistry.bulkhead(bulkheadName));
+        Gauge.builder("admission.fair.inflight", pool, p -> p.inflight)
+                .description("Permits held through fair-share admission")
+                .tag("pool", bulkheadName)
+                .register(meterRegistry);
+        Gauge.builder("admission.fair.waiting", pool, p -> p.waiting)
+                .description("Requests waiting for a fair-share permit")
+                .tag("pool", bulkheadName)
+                .register(meterRegistry);
+        Gauge.builder("admission.fair.systems", pool, p -> p.tenants.size())
+                .description("Systems holding or waiting for permits")
+                .tag("pool", bulkheadName)
+                .register(meterRegistry);
+        return pool;
+    }
+
+    private final class Pool {
+        final String name;
+        final Bulkhead bulkhead;
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, Tenant> tenants = new HashMap<>();
+        final Set<Tenant> waitingTenants = new LinkedHashSet<>();
+        final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+        final Map<Priority, Timer> waitTimers = new ConcurrentHashMap<>();
+        volatile int inflight;
+        volatile int waiting;
+
+        Pool(String name, Bulkhead bulkhead) {
+            this.name = name;
+            this.bulkhead = bulkhead;
+        }
+
+        /**
+         * Hand free permits to waiters: highest priority class first, then the
+         * system holding the fewest permits per unit of weight. Caller holds the lock.
+         */
+        void dispatch() {
+            int capacity = bulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+            while (inflight < capacity && !waitingTenants.isEmpty()) {
+                Tenant next = null;
+                for (Tenant tenant : waitingTenants) {
+                    if (tenant.inflight >= cap(tenant, capacity)) {
+                        continue;
+                    }
+                    if (next == null
+                            || tenant.priority.ordinal() < next.priority.ordinal()
+                            || (tenant.priority == next.priority
+                                    && (double) tenant.inflight / tenant.weight
+                                            < (double) next.inflight / next.weight)) {
+                        next = tenant;
+                    }
+                }
+                if (next == null) {
+                    return;
+                }
+
+                Waiter waiter = next.waiting.poll();
+                if (next.waiting.isEmpty()) {
+                    waitingTenants.remove(next);
+                }
+                waiting--;
+                next.inflight++;
+                inflight++;
+                waiter.granted.complete(null);
+            }
+        }
+
+        void release(Tenant tenant) {
+            lock.lock();
+            try {
+                tenant.inflight--;
+                inflight--;
+                if (tenant.inflight == 0 && tenant.waiting.isEmpty()) {
+                    tenants.remove(tenant.systemId);
+                }
+                dispatch();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void withdraw(Waiter waiter) {
+            Tenant tenant = waiter.tenant;
+            tenant.waiting.remove(waiter);
+            waiting--;
+            if (tenant.waiting.isEmpty()) {
+                waitingTenants.remove(tenant);
+                if (tenant.inflight == 0) {
+                    tenants.remove(tenant.systemId);
+                }
+            }
+        }
+
+        int cap(Tenant tenant, int capacity) {
+            if (tenant.priority == Priority.CRITICAL) {
+                return capacity;
+            }
+            return Math.max(1, (int) Math.ceil(capacity * Math.min(1.0, maxSystemShare * tenant.weight)));
+        }
+
+        Counter rejected(String reason) {
+            return rejections.computeIfAbsent(reason, r -> Counter.builder("admission.fair.rejected")
+                    .description("Requests refused by fair-share admission")
+                    .tag("pool", name)
+                    .tag("reason", r)
+                    .register(meterRegistry));
+        }
+
+        Timer waitTimer(Priority priority) {
+            return waitTimers.computeIfAbsent(priority, p -> Timer.builder("admission.fair.wait")
+                    .description("Time spent waiting for a fair-share permit")
+                    .tag("pool", name)
+                    .tag("priority", p.name())
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static final class Tenant {
+        final String systemId;
+        final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+        int weight = 1;
+        Priority priority = Priority.STANDARD;
+        int inflight;
+
+        Tenant(String systemId) {
+            this.systemId = systemId;
+        }
+    }
+
+    private record Waiter(Tenant tenant, CompletableFuture<Void> granted) {
+
+        Waiter(Tenant tenant) {
+            this(tenant, new CompletableFuture<>());
+        }
+    }
+}
@@ -1,49 +1,116 @@
 package com.extraction.integration.service;
 
-import com.extraction.integration.client.IamClient;
+import com.extraction.integration.client.IamClientFallback;
 import com.extraction.integration.dto.SystemInfo;
-import com.extraction.integration.dto.ValidateRequest;
 import com.extraction.integration.dto.ValidateResponse;
 import com.extraction.integration.exception.UnauthorizedException;
-import com.github.benmanes.caffeine.cache.Cache;
+import com.extraction.integration.security.IamTokenVerifier;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineStatsCounter;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * Service for IAM validation with multi-level caching.
+ *
+ * L1 is an async loading cache: concurrent misses for the same token share
+ * one load, and entries are refreshed in the background before they expire,
+ * so a popular token never has every request miss at once.
+ *
+ * IAM-signed tokens skip the cache entirely and are verified locally; they
+ * only fall back to introspection after IAM announced a change for the client.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class IamAuthService {
 
-    private final IamClient iamClient;
+    private final IntrospectionBatcher introspectionBatcher;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final IamTokenVerifier tokenVerifier;
 
     private static final String REDIS_KEY_PREFIX = "iam_auth:";
-    private static final Duration REDIS_TTL = Duration.ofHours(1);
-    private static final Duration CAFFEINE_TTL = Duration.ofMinutes(10);
+    // clientId -> token hashes cached in L2, so a client change can find its keys
+    private static final String REDIS_INDEX_PREFIX = "iam_auth_index:";
+    private static final int CAFFEINE_MAX_SIZE = 1000;
+
+    // TTLs can be long because client changes are pushed by IAM (see invalidateClient)
+    // Signed tokens live at most this long, so older change records can be dropped
+    @Value("${iam.jwt.max-token-ttl:1h}")
+    private Duration maxTokenTtl;
+
+    @Value("${iam.jwt.clock-skew:30s}")
+    private Duration clockSkew;
+
+    // clientId -> when IAM last announced a change for it
+    private final Map<String, Instant> clientChanges = new ConcurrentHashMap<>();
+
+    @Value("${iam.auth-cache.l2-ttl:6h}")
+    private Duration redisTtl;
+
+    @Value("${iam.auth-cache.l1-ttl:2h}")
+    private Duration caffeineTtl;
+
+    // Refresh well ahead of expiry; also bounds staleness if an invalidation message is lost
+    @Value("${iam.auth-cache.refresh-after:30m}")
+    private Duration caffeineRefresh;
+
+    // Blocking Redis/Feign loads run off the request thread
+    private final ExecutorService loadExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     // L1 Cache - Caffeine
-    private Cache<String, SystemInfo> l1Cache;
+    private AsyncLoadingCache<TokenKey, SystemInfo> l1Cache;
 
     @PostConstruct
     void init() {
         l1Cache = Caffeine.newBuilder()
-                .maximumSize(1000)
-                .expireAfterWrite(CAFFEINE_TTL)
-                .recordStats()
-                .build();
+                .maximumSize(CAFFEINE_MAX_SIZE)
+                .expireAfterWrite(caffeineTtl)
+                .refreshAfterWrite(caffeineRefresh)
+                .executor(loadExecutor)
+                .recordStats(() -> new CaffeineStatsCounter(meterRegistry, "iamAuthL1"))
+                .buildAsync(new AuthLoader());
+
+        Gauge.builder("cache.size", l1Cache, cache -> cache.synchronous().estimatedSize())
+                .tag("cache", "iamAuthL1")
+                .description("Entries in the IAM auth L1 cache")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loadExecutor.shutdownNow();
     }
 
     public SystemInfo validate(String token) {
@@ -51,60 +118,124 @@ public class IamAuthService {
             throw new UnauthorizedException("Token is required");
         }
 
-        // Hash token to use as cache key (shorter than full token)
-        String cacheKey = hashToken(token);
-
-        // L1 Cache
-        SystemInfo cached = l1Cache.getIfPresent(cacheKey);
-        if (cached != null) {
-            log.debug("Auth found in L1 cache for system: {}", cached.getSystemId());
-            cached.setCachedL1(true);
-            return cached;
+        // Signed tokens are verified locally; introspection only when the client changed since issue
+        if (tokenVerifier.isSignedToken(token)) {
+            IamTokenVerifier.VerifiedToken verified = tokenVerifier.verify(token);
+            if (!changedSince(verified)) {
+                return verified.systemInfo();
+            }
+            log.debug("Client changed after token was issued, introspecting: system={}",
+                    verified.systemInfo().getSystemId());
         }
 
-        // L2 Cache (Redis)
-        SystemInfo fromRedis = getFromRedis(cacheKey);
-        if (fromRedis != null) {
-            log.debug("Auth found in L2 cache for system: {}", fromRedis.getSystemId());
-            l1Cache.put(cacheKey, fromRedis);
-            fromRedis.setCachedL2(true);
-            return fromRedis;
-        }
+        // Hash token to use as cache key (shorter than full token)
+        TokenKey cacheKey = new TokenKey(hashToken(token), token);
+        boolean inL1 = l1Cache.asMap().containsKey(cacheKey);
 
-        // Call IAM Service
         try {
-            ValidateResponse response = iamClient.validate(ValidateRequest.builder()
-                    .token(token)
-                    .build());
-
-            if (!response.isValid()) {
-                throw new UnauthorizedException("Invalid token: " + response.getMessage());
+            SystemInfo info = l1Cache.get(cacheKey).join();
+            if (inL1) {
+                log.debug("Auth found in L1 cache for system: {}", info.getSystemId());
+                info.setCachedL1(true);
             }
-
-            SystemInfo info = SystemInfo.builder()
-                    .systemId(response.getClientId())
-                    .systemName(response.getClientName())
-                    .dailyLimit(response.getDailyLimit())
-                    .build();
-
-            // Populate caches
-            l1Cache.put(cacheKey, info);
-            saveToRedis(cacheKey, info);
-
             return info;
 
-        } catch (Exception e) {
-            log.error("IAM validation failed: {}", e.getMessage());
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("IAM validation failed: {}", cause.getMessage());
             throw new UnauthorizedException("Authentication failed");
         }
     }
 
     public String getCacheStats() {
-        var stats = l1Cache.stats();
+        var stats = l1Cache.synchronous().stats();
         return String.format("L1 Cache - Hits: %d, Misses: %d, HitRate: %.2f%%",
                 stats.hitCount(), stats.missCount(), stats.hitRate() * 100);
     }
 
+    /**
+     * Drop every cached auth entry of a client, in L1 and in L2.
+     * Called on each replica when IAM announces a SystemClient change.
+     */
+    public void invalidateClient(String clientId) {
+        // Signed tokens issued before now carry stale claims; send them to introspection
+        Instant now = Instant.now();
+        clientChanges.put(clientId, now);
+        clientChanges.values().removeIf(changedAt -> changedAt.isBefore(now.minus(maxTokenTtl)));
+
+        int evicted = 0;
+        for (var entry : l1Cache.asMap().entrySet()) {
+            CompletableFuture<SystemInfo> value = entry.getValue();
+            // In-flight loads are dropped too: they may have read the pre-change row
+            SystemInfo info = value.isDone() && !value.isCompletedExceptionally() ? value.getNow(null) : null;
+            if (info == null || clientId.equals(info.getSystemId())) {
+                if (l1Cache.asMap().remove(entry.getKey(), value)) {
+                    evicted++;
+                }
+            }
+        }
+
+        try {
+            String indexKey = REDIS_INDEX_PREFIX + clientId;
+            Set<Object> hashes = redisTemplate.opsForSet().members(indexKey);
+            List<String> keys = new ArrayList<>();
+            keys.add(indexKey);
+            if (hashes != null) {
+                hashes.forEach(hash -> keys.add(REDIS_KEY_PREFIX + hash));
+            }
+            redisTemplate.delete(keys);
+        } catch (Exception e) {
+            log.warn("Redis invalidation failed for client {}: {}", clientId, e.getMessage());
+        }
+
+        log.info("Auth cache invalidated: clientId={}, l1Evicted={}", clientId, evicted);
+    }
+
+    /**
+     * Fill L1 from Redis L2 once the application is up, so a restarted replica
+     * does not send its first wave of requests to Redis and IAM.
+     * Warmed entries carry no token; when they come up for refresh they are
+     * reloaded from L2 only and dropped once L2 no longer has them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpFromRedis() {
+        CompletableFuture.runAsync(() -> {
+            List<String> keys = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(REDIS_KEY_PREFIX + "*").count(500).build();
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                while (cursor.hasNext() && keys.size() < CAFFEINE_MAX_SIZE) {
+                    keys.add(cursor.next());
+                }
+            } catch (Exception e) {
+                log.warn("L1 warm-up skipped, Redis scan failed: {}", e.getMessage());
+                return;
+            }
+            if (keys.isEmpty()) {
+                return;
+            }
+
+            List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+            int warmed = 0;
+            for (int i = 0; values != null && i < keys.size(); i++) {
+                if (values.get(i) instanceof SystemInfo info) {
+                    TokenKey key = new TokenKey(keys.get(i).substring(REDIS_KEY_PREFIX.length()), null);
+                    l1Cache.asMap().putIfAbsent(key, CompletableFuture.completedFuture(info));
+                    warmed++;
+                }
+            }
+            log.info("L1 auth cache warmed from Redis: entries={}", warmed);
+        }, loadExecutor).exceptionally(e -> {
+            log.warn("L1 warm-up failed: {}", e.getMessage());
+            return null;
+        });
+    }
+
+    private boolean changedSince(IamTokenVerifier.VerifiedToken token) {
+        Instant changedAt = clientChanges.get(token.systemInfo().getSystemId());
+        // Skew margin: IAM stamps iat with its clock, changedAt uses ours
+        return changedAt != null && token.issuedAt().isBefore(changedAt.plus(clockSkew));
+    }
+
     private SystemInfo getFromRedis(String key) {
         try {
             Object val = redisTemplate.opsForValue().get(REDIS_KEY_PREFIX + key);
@@ -119,12 +250,48 @@ public class IamAuthService {
 
     private void saveToRedis(String key, SystemInfo info) {
         try {
-            redisTemplate.opsForValue().set(REDIS_KEY_PREFIX + key, info, REDIS_TTL);
+            redisTemplate.opsForValue().set(REDIS_KEY_PREFIX + key, info, redisTtl);
+            String indexKey = REDIS_INDEX_PREFIX + info.getSystemId();
+            redisTemplate.opsForSet().add(indexKey, key);
+            redisTemplate.expire(indexKey, redisTtl);
         } catch (Exception e) {
             log.warn("Redis write failed: {}", e.getMessage());
         }
     }
 
+    /**
+     * Call IAM Service (batched with concurrent misses) and populate L2
+     */
+    private SystemInfo loadFromIam(TokenKey key) {
+        ValidateResponse response = introspectionBatcher.introspect(key.token()).join();
+
+        if (!response.isValid()) {
+            throw new UnauthorizedException("Invalid token: " + response.getMessage());
+        }
+
+        SystemInfo info = toSystemInfo(response);
+        saveToRedis(key.hash(), info);
+        return info;
+    }
+
+    private SystemInfo toSystemInfo(ValidateResponse response) {
+        return SystemInfo.builder()
+                .systemId(response.getClientId())
+                .systemName(response.getClientName())
+                .dailyLimit(response.getDailyLimit())
+                .admissionWeight(response.getAdmissionWeight())
+                .priority(response.getPriority())
+                .build();
+    }
+
+    private void deleteFromRedis(String key) {
+        try {
+            redisTemplate.delete(REDIS_KEY_PREFIX + key);
+        } catch (Exception e) {
+            log.warn("Redis delete failed: {}", e.getMessage());
+        }
+    }
+
     private String hashToken(String token) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
@@ -134,4 +301,75 @@ public class IamAuthService {
             throw new RuntimeException("SHA-256 not available", e);
         }
     }
+
+    /**
+     * L1 key. Identity is the token hash; the raw token rides along so a
+     * background refresh can call IAM without the original request.
+     */
+    private record TokenKey(String hash, String token) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TokenKey other && hash.equals(other.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return hash;
+        }
+    }
+
+    private class AuthLoader implements AsyncCacheLoader<TokenKey, SystemInfo> {
+
+        /**
+         * Miss: L2 first, then IAM. Runs once per key however many requests wait on it.
+         */
+        @Override
+        public CompletableFuture<SystemInfo> asyncLoad(TokenKey key, Executor executor) {
+            return CompletableFuture.supplyAsync(() -> {
+                // L2 Cache (Redis)
+                SystemInfo fromRedis = getFromRedis(key.hash());
+                if (fromRedis != null) {
+                    log.debug("Auth found in L2 cache for system: {}", fromRedis.getSystemId());
+                    fromRedis.setCachedL2(true);
+                    return fromRedis;
+                }
+                return loadFromIam(key);
+            }, executor);
+        }
+
+        /**
+         * Refresh ahead of expiry. The current value keeps being served until
+         * this completes; a null result evicts the entry, an exception keeps it.
+         */
+        @Override
+        public CompletableFuture<SystemInfo> asyncReload(TokenKey key, SystemInfo oldValue, Executor executor) {
+            return CompletableFuture.supplyAsync(() -> {
+                if (key.token() == null) {
+                    // Warmed from L2 without a token: follow L2 until it expires
+                    return getFromRedis(key.hash());
+                }
+
+                ValidateResponse response = introspectionBatcher.introspect(key.token()).join();
+                if (IamClientFallback.UNAVAILABLE_MESSAGE.equals(response.getMessage())) {
+                    // IAM down: keep serving the cached value until it expires
+                    throw new IllegalStateException(response.getMessage());
+                }
+                if (!response.isValid()) {
+                    log.info("Cached token no longer valid, evicting: system={}", oldValue.getSystemId());
+                    deleteFromRedis(key.hash());
+                    return null;
+                }
+
+                SystemInfo info = toSystemInfo(response);
+                saveToRedis(key.hash(), info);
+                return info;
+            }, executor);
+        }
+    }
 }
@@ -0,0 +1,251 @@
+package com.extraction.integration.service;
+
+import com.extraction.integration.dto.ApiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for ingest endpoints.
+ *
+ * The first request with a key claims it in Redis and runs; its response is
+ * stored for {@code ttl} and replayed to later requests with the same key.
+ * A duplicate that arrives while the first is still running waits for its
+ * result instead of uploading and publishing again: on the same replica by
+ * joining the in-flight future, on another by polling Redis.
+ *
+ * Keys are scoped per system. 5xx and 429 responses are not stored, so a
+ * retry after a transient failure runs again. Redis errors disable the check
+ * for the request rather than failing it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String IN_FLIGHT = "IN_FLIGHT";
+    private static final String DONE = "DONE";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // How long a stored response is replayed
+    @Value("${idempotency.ttl:24h}")
+    private Duration ttl;
+
+    // Claim lifetime while the first request runs; must outlast the slowest upload
+    @Value("${idempotency.in-flight-ttl:5m}")
+    private Duration inFlightTtl;
+
+    // How long a duplicate waits for the first request before answering 409
+    @Value("${idempotency.wait-timeout:30s}")
+    private Duration waitTimeout;
+
+    @Value("${idempotency.poll-interval:250ms}")
+    private Duration pollInterval;
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Executor pollExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Run {@code action} once per (system, key, operation); without a key it just runs
+     */
+    public <T> CompletableFuture<ResponseEntity<ApiResponse<T>>> execute(String systemId, String key,
+            String operation, Supplier<CompletableFuture<ResponseEntity<ApiResponse<T>>>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(ApiResponse.error(
+                    HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters", "INVALID_IDEMPOTENCY_KEY")));
+        }
+
+        String redisKey = KEY_PREFIX + systemId + ":" + key;
+
+        InFlight local = inFlight.get(redisKey);
+        if (local != null) {
+            if (!operation.equals(local.operation())) {
+                return reused();
+            }
+            counter("joined").increment();
+            return local.result().thenApply(IdempotencyService::replayed);
+        }
+
+        Map<String, Object> existing;
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(redisKey,
+                    Map.of("state", IN_FLIGHT, "operation", operation), inFlightTtl))) {
+                return run(redisKey, operation, action);
+            }
+            existing = read(redisKey);
+        } catch (RuntimeException e) {
+            counter("error").increment();
+            log.warn("Idempotency store unavailable, running without it: key={}, error={}", key, e.getMessage());
+            return action.get();
+        }
+
+        if (existing == null) {
+            // Released between the two calls: the first attempt failed and may be retried
+            return retryLater("The previous request with this " + HEADER + " failed; retry it");
+        }
+        if (!operation.equals(existing.get("operation"))) {
+            return reused();
+        }
+        return DONE.equals(existing.get("state"))
+                ? CompletableFuture.completedFuture(stored(existing))
+                : await(redisKey, System.nanoTime() + waitTimeout.toNanos());
+    }
+
+    // ==================== Private Methods ====================
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> CompletableFuture<ResponseEntity<ApiResponse<T>>> run(String redisKey, String operation,
+            Supplier<CompletableFuture<ResponseEntity<ApiResponse<T>>>> action) {
+        CompletableFuture<ResponseEntity<ApiResponse<T>>> result = new CompletableFuture<>();
+        inFlight.put(redisKey, new InFlight(operation, (CompletableFuture) result));
+        counter("executed").increment();
+
+        CompletableFuture<ResponseEntity<ApiResponse<T>>> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            finish(redisKey, operation, null);
+            result.completeExceptionally(e);
+            throw e;
+        }
+        response.whenComplete((entity, ex) -> {
+            finish(redisKey, operation, ex == null ? entity : null);
+            if (ex != null) {
+                result.completeExceptionally(ex);
+            } else {
+                result.complete(entity);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Store a final response for replay, or drop the claim so the key can be retried
+     */
+    private void finish(String redisKey, String operation, ResponseEntity<?> entity) {
+        try {
+            int status = entity != null ? entity.getStatusCode().value() : 500;
+            if (status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                redisTemplate.delete(redisKey);
+            } else {
+                redisTemplate.opsForValue().set(redisKey, Map.of(
+                        "state", DONE,
+                        "operation", operation,
+                        "status", status,
+                        "body", objectMapper.writeValueAsString(entity.getBody())), ttl);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to record idempotent response for {}: {}", redisKey, e.getMessage());
+        } finally {
+            inFlight.remove(redisKey);
+        }
+    }
+
+    /**
+     * Poll until the first request's response is stored, it gives up the key,
+     * or the wait times out
+     */
+    private <T> CompletableFuture<ResponseEntity<ApiResponse<T>>> await(String redisKey, long deadline) {
+        return CompletableFuture.supplyAsync(() -> read(redisKey),
+                        CompletableFuture.delayedExecutor(pollInterval.toMillis(), TimeUnit.MILLISECONDS, pollExecutor))
+                .thenCompose(entry -> {
+                    if (entry == null) {
+                        return retryLater("The previous request with this " + HEADER + " failed; retry it");
+                    }
+                    if (DONE.equals(entry.get("state"))) {
+                        return CompletableFuture.completedFuture(this.<T>stored(entry));
+                    }
+                    if (System.nanoTime() > deadline) {
+                        counter("timeout").increment();
+                        return retryLater("A request with this " + HEADER + " is still in progress");
+                    }
+                    return await(redisKey, deadline);
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> read(String redisKey) {
+        return redisTemplate.opsForValue().get(redisKey) instanceof Map<?, ?> entry
+                ? (Map<String, Object>) entry
+                : null;
+    }
+
+    /**
+     * A stored response, replayed as it was first sent
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<ApiResponse<T>> stored(Map<String, Object> entry) {
+        try {
+            ApiResponse<T> body = objectMapper.readValue(String.valueOf(entry.get("body")), ApiResponse.class);
+            counter("replayed").increment();
+            return ResponseEntity.status(((Number) entry.get("status")).intValue())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored response", e);
+        }
+    }
+
+    private static <T> ResponseEntity<T> replayed(ResponseEntity<? extends ApiResponse<?>> original) {
+        @SuppressWarnings("unchecked")
+        T body = (T) original.getBody();
+        return ResponseEntity.status(original.getStatusCode())
+                .header(REPLAYED_HEADER, "true")
+                .body(body);
+    }
+
+    private <T> CompletableFuture<ResponseEntity<ApiResponse<T>>> reused() {
+        counter("mismatch").increment();
+        return CompletableFuture.completedFuture(ResponseEntity.unprocessableEntity().body(ApiResponse.error(
+                HEADER + " was already used for a different operation", "IDEMPOTENCY_KEY_REUSED")));
+    }
+
+    private static <T> CompletableFuture<ResponseEntity<ApiResponse<T>>> retryLater(String message) {
+        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error(message, "IDEMPOTENCY_CONFLICT")));
+    }
+
+    private Counter counter(String outcome) {
+        return counters.computeIfAbsent(outcome, o -> Counter.builder("idempotency.requests")
+                .description("Requests carrying an Idempotency-Key by outcome")
+                .tag("outcome", o)
+                .register(meterRegistry));
+    }
+
+    /**
+     * The request running on this replica for a key, and the operation it claimed the key for
+     */
+    private record InFlight(String operation, CompletableFuture<ResponseEntity<? extends ApiResponse<?>>> result) {
+    }
+}
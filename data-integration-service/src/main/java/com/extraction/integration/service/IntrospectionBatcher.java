@@ -0,0 +1,130 @@
+package com.extraction.integration.service;
+
+import com.extraction.integration.client.IamClient;
+import com.extraction.integration.dto.BatchIntrospectRequest;
+import com.extraction.integration.dto.ValidateResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces concurrent introspection calls into batch requests to IAM.
+ *
+ * The first token to arrive opens a window of {@code window-ms}; everything
+ * queued by then (or {@code max-batch} tokens, whichever comes first) goes out
+ * as one call, which IAM answers with a single database query.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IntrospectionBatcher {
+
+    private final IamClient iamClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${iam.batch.window-ms:5}")
+    private long windowMs;
+
+    @Value("${iam.batch.max-batch:100}")
+    private int maxBatch;
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("iam-batch-timer").daemon().factory());
+    // Batch calls block on Feign
+    private final ExecutorService callExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private DistributionSummary batchSize;
+
+    @PostConstruct
+    void init() {
+        batchSize = DistributionSummary.builder("iam.introspect.batch.size")
+                .description("Tokens per batch introspection call")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        callExecutor.shutdownNow();
+    }
+
+    /**
+     * @return Future completed with IAM's answer for this token
+     */
+    public CompletableFuture<ValidateResponse> introspect(String token) {
+        Pending pending = new Pending(token, new CompletableFuture<>());
+        queue.add(pending);
+
+        if (queued.incrementAndGet() >= maxBatch) {
+            callExecutor.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            timer.schedule(() -> {
+                flushScheduled.set(false);
+                callExecutor.execute(this::flush);
+            }, windowMs, TimeUnit.MILLISECONDS);
+        }
+        return pending.result();
+    }
+
+    /**
+     * Drain the queue. Tokens that arrived while a timer was already pending
+     * have no timer of their own, so stop only once the queue is empty.
+     */
+    private void flush() {
+        while (true) {
+            List<Pending> batch = new ArrayList<>(maxBatch);
+            Pending next;
+            while (batch.size() < maxBatch && (next = queue.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            queued.addAndGet(-batch.size());
+            send(batch);
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        batchSize.record(batch.size());
+        try {
+            List<ValidateResponse> responses = iamClient.introspectBatch(
+                    new BatchIntrospectRequest(batch.stream().map(Pending::token).toList()));
+            if (responses == null || responses.size() != batch.size()) {
+                throw new IllegalStateException("IAM returned " + (responses == null ? 0 : responses.size())
+                        + " results for " + batch.size() + " tokens");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(responses.get(i));
+            }
+            log.debug("Batch introspection: size={}", batch.size());
+        } catch (Exception e) {
+            log.error("Batch introspection failed: size={}, error={}", batch.size(), e.getMessage());
+            batch.forEach(p -> p.result().completeExceptionally(e));
+        }
+    }
+
+    private record Pending(String token, CompletableFuture<ValidateResponse> result) {
+    }
+}
@@ -1,25 +1,53 @@
 package com.extraction.integration.service;
 
 import com.extraction.integration.dto.IngestRequestMessage;
+import com.extraction.integration.exception.UnroutableMessageException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Publishes ingest requests with pipelined publisher confirms.
+ *
+ * Instead of blocking on each confirm, up to {@code confirm-window} messages
+ * may be awaiting a broker confirm at once; each publish returns a future that
+ * resolves with the jobId when its confirm arrives. A full window pushes back
+ * on callers for at most {@code window-wait-ms} before rejecting.
+ *
+ * When a publish fails or the breaker is open, the message (or each message
+ * of a batch) is written to the {@link PublishOutbox} and accepted;
+ * {@link OutboxReplayService} publishes it once the broker is back. While the
+ * outbox holds messages, new ones, batches included, are appended behind them
+ * so replay keeps publish order.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MessagePublisherService {
 
     private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+    private final PublishOutbox outbox;
 
     @Value("${messaging.exchange.integration}")
     private String exchangeName;
@@ -27,57 +55,272 @@ public class MessagePublisherService {
     @Value("${messaging.routing-key.ingest-request}")
     private String routingKey;
 
+    @Value("${messaging.publisher.confirm-window:256}")
+    private int confirmWindow;
+
+    @Value("${messaging.publisher.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Value("${messaging.publisher.window-wait-ms:500}")
+    private long windowWaitMs;
+
+    private Semaphore window;
+    private Timer confirmLatency;
+    private Counter acked;
+    private Counter nacked;
+    private Counter returned;
+    private Counter timedOut;
+    private Counter failed;
+
+    @PostConstruct
+    void init() {
+        window = new Semaphore(confirmWindow);
+
+        Gauge.builder("publisher.confirm.window.size", () -> confirmWindow)
+                .description("Maximum outstanding publisher confirms")
+                .register(meterRegistry);
+        Gauge.builder("publisher.confirm.outstanding", window, w -> confirmWindow - w.availablePermits())
+                .description("Messages published and awaiting a broker confirm")
+                .register(meterRegistry);
+        confirmLatency = Timer.builder("publisher.confirm.latency")
+                .description("Time from publish to broker confirm")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        acked = confirmCounter("ack");
+        nacked = confirmCounter("nack");
+        returned = confirmCounter("returned");
+        timedOut = confirmCounter("timeout");
+        failed = confirmCounter("error");
+    }
+
     /**
      * Publish an ingest request message to RabbitMQ with Circuit Breaker protection
      * Stateless: Only publishes message, does not persist job state locally.
+     *
+     * @return Future completed with the jobId once the broker confirms the message
      */
     @CircuitBreaker(name = "rabbitService", fallbackMethod = "publishFallback")
-    public String publishIngestRequest(IngestRequestMessage message) {
-        // Generate job ID if not set
-        if (message.getJobId() == null) {
-            message.setJobId(UUID.randomUUID().toString());
-        }
-        if (message.getCreatedAt() == null) {
-            message.setCreatedAt(Instant.now());
+    public CompletableFuture<String> publishIngestRequest(IngestRequestMessage message) {
+        prepare(message);
+        String jobId = message.getJobId();
+
+        if (outbox.hasPending()) {
+            outbox.append(message);
+            return CompletableFuture.completedFuture(jobId);
         }
 
         log.info("Publishing ingest request: jobId={}, type={}, systemId={}",
-                message.getJobId(), message.getType(), message.getSystemId());
+                jobId, message.getType(), message.getSystemId());
 
         try {
-            // Create correlation data for publisher confirms
-            CorrelationData correlationData = new CorrelationData(message.getJobId());
+            if (!window.tryAcquire(windowWaitMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Publisher confirm window full: outstanding={}", confirmWindow);
+                return CompletableFuture.failedFuture(
+                        new RuntimeException("Too many messages awaiting broker confirm"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new RuntimeException("Interrupted while publishing", e));
+        }
 
-            // Publish with correlation data
+        long start = System.nanoTime();
+        CorrelationData correlationData = new CorrelationData(jobId);
+        try {
             rabbitTemplate.convertAndSend(exchangeName, routingKey, message, correlationData);
+        } catch (AmqpException e) {
+            window.release();
+            log.error("Failed to publish message: {}", e.getMessage(), e);
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to publish message to queue", e));
+        }
 
-            // Wait for confirm with timeout (optional - for strict backpressure)
-            CompletableFuture<CorrelationData.Confirm> future = correlationData.getFuture();
-            CorrelationData.Confirm confirm = future.get(5, TimeUnit.SECONDS);
-
-            if (confirm != null && confirm.isAck()) {
-                log.debug("Message published and confirmed: jobId={}", message.getJobId());
-                return message.getJobId();
-            } else {
-                String reason = confirm != null ? confirm.getReason() : "Unknown";
-                log.error("Message not acknowledged: jobId={}, reason={}", message.getJobId(), reason);
-                throw new RuntimeException("Message not acknowledged by broker: " + reason);
+        return awaitConfirm(correlationData, start);
+    }
+
+    /**
+     * Publish many ingest requests on one channel in a single operation. Window
+     * slots for the whole batch are taken up front, and the broker may confirm
+     * the batch with a single multiple-ack.
+     *
+     * @return One future per message, in order, each completed with its jobId
+     *         once the broker confirms that message
+     */
+    @CircuitBreaker(name = "rabbitService", fallbackMethod = "publishBatchFallback")
+    public List<CompletableFuture<String>> publishIngestRequests(List<IngestRequestMessage> messages) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        if (messages.size() > confirmWindow) {
+            throw new IllegalArgumentException(
+                    "Batch of " + messages.size() + " exceeds the confirm window of " + confirmWindow);
+        }
+        messages.forEach(MessagePublisherService::prepare);
+
+        if (outbox.hasPending()) {
+            // Behind the spooled messages, like single publishes
+            return divertAll(messages);
+        }
+
+        log.info("Publishing ingest batch: size={}, systemId={}", messages.size(), messages.get(0).getSystemId());
+
+        try {
+            if (!window.tryAcquire(messages.size(), windowWaitMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Publisher confirm window full: outstanding={}, batch={}", confirmWindow, messages.size());
+                return failedAll(messages.size(), new RuntimeException("Too many messages awaiting broker confirm"));
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failedAll(messages.size(), new RuntimeException("Interrupted while publishing", e));
+        }
 
-        } catch (Exception e) {
-            log.error("Failed to publish message: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to publish message to queue", e);
+        long start = System.nanoTime();
+        List<CorrelationData> correlations = new ArrayList<>(messages.size());
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (IngestRequestMessage message : messages) {
+                    CorrelationData correlationData = new CorrelationData(message.getJobId());
+                    operations.convertAndSend(exchangeName, routingKey, message, correlationData);
+                    correlations.add(correlationData);
+                }
+                return null;
+            });
+        } catch (AmqpException e) {
+            // Messages sent before the failure still get confirms; release only the unsent slots
+            window.release(messages.size() - correlations.size());
+            log.error("Failed to publish batch after {} of {} messages: {}",
+                    correlations.size(), messages.size(), e.getMessage(), e);
         }
+
+        List<CompletableFuture<String>> results = new ArrayList<>(messages.size());
+        correlations.forEach(correlationData -> results.add(awaitConfirm(correlationData, start)));
+        // Messages the channel failure kept from being sent go to the outbox like a failed single publish
+        results.addAll(divertAll(messages.subList(results.size(), messages.size())));
+        return results;
+    }
+
+    /**
+     * Track the broker confirm for one sent message; releases its window slot
+     */
+    private CompletableFuture<String> awaitConfirm(CorrelationData correlationData, long start) {
+        String jobId = correlationData.getId();
+        CompletableFuture<String> result = new CompletableFuture<>();
+        correlationData.getFuture()
+                .orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((confirm, ex) -> {
+                    window.release();
+                    confirmLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+                    if (ex != null) {
+                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null
+                                ? ex.getCause()
+                                : ex;
+                        // Anything but the confirm timeout is a closed channel or a shutdown
+                        (cause instanceof TimeoutException ? timedOut : failed).increment();
+                        log.error("Publisher confirm not received: jobId={}, error={}", jobId, ex.toString());
+                        result.completeExceptionally(new RuntimeException("Publisher confirm not received", ex));
+                    } else if (!confirm.isAck()) {
+                        nacked.increment();
+                        log.error("Message not acknowledged: jobId={}, reason={}", jobId, confirm.getReason());
+                        result.completeExceptionally(
+                                new RuntimeException("Message not acknowledged by broker: " + confirm.getReason()));
+                    } else if (correlationData.getReturned() != null) {
+                        returned.increment();
+                        result.completeExceptionally(new UnroutableMessageException(
+                                "Message returned by broker: " + correlationData.getReturned().getReplyText()));
+                    } else {
+                        acked.increment();
+                        log.debug("Message published and confirmed: jobId={}", jobId);
+                        result.complete(jobId);
+                    }
+                });
+        return result;
     }
 
     /**
-     * Fallback method when Circuit Breaker is open
+     * Fallback when the publish fails or the Circuit Breaker is open: park the
+     * message in the outbox for replay, rejecting only if the outbox is full
      */
-    public String publishFallback(IngestRequestMessage message, Throwable throwable) {
+    public CompletableFuture<String> publishFallback(IngestRequestMessage message, Throwable throwable) {
         log.error("Circuit breaker open for RabbitMQ, fallback triggered: jobId={}, error={}",
                 message.getJobId(), throwable.getMessage());
+        return divert(message);
+    }
+
+    /**
+     * Unroutable messages would be returned again on replay; reject them
+     */
+    public CompletableFuture<String> publishFallback(IngestRequestMessage message,
+            UnroutableMessageException exception) {
+        return CompletableFuture.failedFuture(exception);
+    }
+
+    /**
+     * Fallback when the breaker is open: park every message of the batch in
+     * the outbox, rejecting only those the outbox cannot take
+     */
+    public List<CompletableFuture<String>> publishBatchFallback(List<IngestRequestMessage> messages,
+            Throwable throwable) {
+        log.error("Circuit breaker open for RabbitMQ, batch fallback triggered: size={}, error={}",
+                messages.size(), throwable.getMessage());
+        return divertAll(messages);
+    }
+
+    /**
+     * Invalid batches are caller errors, not broker failures
+     */
+    public List<CompletableFuture<String>> publishBatchFallback(List<IngestRequestMessage> messages,
+            IllegalArgumentException exception) {
+        throw exception;
+    }
+
+    /**
+     * Fallbacks run without the publish method when the breaker is open, so
+     * both paths assign ids here
+     */
+    private static void prepare(IngestRequestMessage message) {
+        if (message.getJobId() == null) {
+            message.setJobId(UUID.randomUUID().toString());
+        }
+        if (message.getCreatedAt() == null) {
+            message.setCreatedAt(Instant.now());
+        }
+    }
+
+    /**
+     * Accept a message by writing it to the outbox, or fail it if the outbox is
+     * disabled or full
+     */
+    private CompletableFuture<String> divert(IngestRequestMessage message) {
+        prepare(message);
+        if (outbox.isEnabled()) {
+            try {
+                outbox.append(message);
+                return CompletableFuture.completedFuture(message.getJobId());
+            } catch (RuntimeException e) {
+                log.error("Outbox append failed: jobId={}, error={}", message.getJobId(), e.getMessage());
+            }
+        }
+        return CompletableFuture.failedFuture(
+                new RuntimeException("Service temporarily unavailable. Please retry later."));
+    }
+
+    private List<CompletableFuture<String>> divertAll(List<IngestRequestMessage> messages) {
+        List<CompletableFuture<String>> results = new ArrayList<>(messages.size());
+        messages.forEach(message -> results.add(divert(message)));
+        return results;
+    }
+
+    private List<CompletableFuture<String>> failedAll(int size, RuntimeException error) {
+        List<CompletableFuture<String>> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(CompletableFuture.failedFuture(error));
+        }
+        return results;
+    }
 
-        // Option 1: Throw exception to reject the request
-        throw new RuntimeException("Service temporarily unavailable. Please retry later.");
+    private Counter confirmCounter(String outcome) {
+        return Counter.builder("publisher.confirms")
+                .description("Publisher confirms by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 }
@@ -1,8 +1,16 @@
 package com.extraction.integration.service;
 
+import com.extraction.integration.client.MultipartMinioClient;
+import com.extraction.integration.client.PresignedUrlSigner;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ListPartsResult;
+import io.minio.messages.Part;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.fileupload2.core.FileUploadException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -10,7 +18,17 @@ import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.annotation.PostConstruct;
 import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -18,6 +36,10 @@ import java.util.UUID;
 public class MinioStorageService {
 
     private final MinioClient minioClient;
+    private final MultipartStreamUploader multipartStreamUploader;
+    private final MultipartMinioClient multipartMinioClient;
+    private final PresignedUrlSigner presignedUrlSigner;
+    private final MeterRegistry meterRegistry;
 
     @Value("${minio.bucket.temp}")
     private String tempBucket;
@@ -25,8 +47,13 @@ public class MinioStorageService {
     @Value("${minio.bucket.raw}")
     private String rawBucket;
 
+    private Timer objectPutLatency;
+    private Timer partPutLatency;
+
     @PostConstruct
     public void init() {
+        objectPutLatency = putLatencyTimer(meterRegistry, "object");
+        partPutLatency = putLatencyTimer(meterRegistry, "part");
         createBucketIfNotExists(tempBucket);
         createBucketIfNotExists(rawBucket);
     }
@@ -48,15 +75,18 @@ public class MinioStorageService {
     }
 
     /**
-     * Upload a file to the temp bucket with Circuit Breaker protection
+     * Upload a file to the temp bucket with Circuit Breaker protection,
+     * hashing it on the way through
      * 
-     * @return The object path in MinIO
+     * @return The object path in MinIO, its size and SHA-256
      */
     @CircuitBreaker(name = "minioService", fallbackMethod = "uploadFallback")
-    public String uploadToTemp(MultipartFile file, String systemId) throws Exception {
+    public StoredObject uploadToTemp(MultipartFile file, String systemId) throws Exception {
         String objectName = buildObjectPath(systemId, file.getOriginalFilename());
 
-        try (InputStream inputStream = file.getInputStream()) {
+        MessageDigest digest = sha256();
+        long start = System.nanoTime();
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
             minioClient.putObject(PutObjectArgs.builder()
                     .bucket(tempBucket)
                     .object(objectName)
@@ -64,10 +94,12 @@ public class MinioStorageService {
                     .contentType(file.getContentType())
                     .build());
         }
+        objectPutLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
         log.info("Uploaded file to MinIO: bucket={}, path={}, size={}",
                 tempBucket, objectName, file.getSize());
-        return tempBucket + "/" + objectName;
+        return new StoredObject(tempBucket + "/" + objectName, file.getSize(),
+                HexFormat.of().formatHex(digest.digest()));
     }
 
     /**
@@ -78,21 +110,167 @@ public class MinioStorageService {
             throws Exception {
         String objectName = buildObjectPath(systemId, fileName);
 
+        long start = System.nanoTime();
         minioClient.putObject(PutObjectArgs.builder()
                 .bucket(tempBucket)
                 .object(objectName)
                 .stream(inputStream, size, -1)
                 .contentType(contentType)
                 .build());
+        objectPutLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
         log.info("Uploaded file to MinIO: bucket={}, path={}", tempBucket, objectName);
         return tempBucket + "/" + objectName;
     }
 
+    /**
+     * Stream an upload of unknown length into the temp bucket as a multipart
+     * upload, without spooling it to local disk first, hashing it on the way
+     *
+     * @return The object path in MinIO, the number of bytes written and their SHA-256
+     */
+    @CircuitBreaker(name = "minioService", fallbackMethod = "streamFallback")
+    public StoredObject streamToTemp(InputStream inputStream, String fileName, String systemId, String contentType)
+            throws Exception {
+        String objectName = buildObjectPath(systemId, fileName);
+
+        MessageDigest digest = sha256();
+        long size = multipartStreamUploader.upload(tempBucket, objectName, contentType,
+                new DigestInputStream(inputStream, digest));
+
+        log.info("Streamed file to MinIO: bucket={}, path={}, size={}", tempBucket, objectName, size);
+        return new StoredObject(tempBucket + "/" + objectName, size, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Start a multipart upload in the temp bucket for a chunked upload session
+     */
+    @CircuitBreaker(name = "minioService")
+    public TempMultipart createTempMultipart(String fileName, String systemId, String contentType)
+            throws Exception {
+        String objectName = buildObjectPath(systemId, fileName);
+        String uploadId = multipartMinioClient.createMultipartUpload(tempBucket, objectName, contentType)
+                .get().result().uploadId();
+
+        log.info("Created multipart upload: bucket={}, path={}", tempBucket, objectName);
+        return new TempMultipart(tempBucket, objectName, uploadId);
+    }
+
+    /**
+     * Upload one part of a multipart upload
+     *
+     * @return ETag of the stored part
+     */
+    @CircuitBreaker(name = "minioService")
+    public String uploadPart(TempMultipart target, int partNumber, byte[] data, int length) throws Exception {
+        long start = System.nanoTime();
+        String etag = multipartMinioClient.uploadPart(target.bucket(), target.objectName(), target.uploadId(),
+                partNumber, data, length).get().etag();
+        partPutLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return etag;
+    }
+
+    @CircuitBreaker(name = "minioService")
+    public String completeMultipart(TempMultipart target, Part[] parts) throws Exception {
+        multipartMinioClient.completeMultipartUpload(target.bucket(), target.objectName(), target.uploadId(),
+                parts).get();
+
+        log.info("Completed multipart upload: bucket={}, path={}, parts={}",
+                target.bucket(), target.objectName(), parts.length);
+        return target.bucket() + "/" + target.objectName();
+    }
+
+    public void abortMultipart(TempMultipart target) {
+        try {
+            multipartMinioClient.abortMultipartUpload(target.bucket(), target.objectName(), target.uploadId()).get();
+            log.info("Aborted multipart upload: bucket={}, path={}", target.bucket(), target.objectName());
+        } catch (Exception e) {
+            log.warn("Failed to abort multipart upload {}: {}", target.uploadId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Reserve a temp object name and presign a single PUT for it; the client
+     * uploads the bytes to MinIO directly
+     */
+    public PresignedPut presignTempUpload(String fileName, String systemId, Duration expiry) throws Exception {
+        String objectName = buildObjectPath(systemId, fileName);
+        String url = presignedUrlSigner.presignPut(tempBucket, objectName, expiry);
+        return new PresignedPut(tempBucket, objectName, url);
+    }
+
+    /**
+     * Presign the PUT for one part of a multipart upload
+     */
+    public String presignPart(TempMultipart target, int partNumber, Duration expiry) throws Exception {
+        return presignedUrlSigner.presignPut(target.bucket(), target.objectName(), expiry, Map.of(
+                "uploadId", target.uploadId(),
+                "partNumber", String.valueOf(partNumber)));
+    }
+
+    /**
+     * Parts MinIO has received for a multipart upload, in part number order
+     */
+    @CircuitBreaker(name = "minioService")
+    public List<Part> listUploadedParts(TempMultipart target) throws Exception {
+        List<Part> parts = new ArrayList<>();
+        int marker = 0;
+        while (true) {
+            ListPartsResult page = multipartMinioClient.listParts(target.bucket(), target.objectName(),
+                    target.uploadId(), 1000, marker).get().result();
+            parts.addAll(page.partList());
+            if (!page.isTruncated()) {
+                return parts;
+            }
+            marker = page.nextPartNumberMarker();
+        }
+    }
+
+    /**
+     * Size and ETag of an object, or empty if it does not exist (yet). A missing
+     * object is an answer, not a storage failure, so it does not count against the breaker.
+     */
+    @CircuitBreaker(name = "minioService")
+    public Optional<ObjectStat> statObject(String bucket, String objectName) throws Exception {
+        try {
+            StatObjectResponse stat = minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(objectName)
+                    .build());
+            return Optional.of(new ObjectStat(bucket + "/" + objectName, stat.size(), stat.etag()));
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Where the executor puts a temp object once it moves it to the raw bucket
+     */
+    public String rawPathFor(String tempPath) {
+        return rawBucket + "/raw/" + tempPath.substring(tempPath.indexOf('/') + 1);
+    }
+
+    public void deleteObject(String path) {
+        int slash = path.indexOf('/');
+        deleteObject(path.substring(0, slash), path.substring(slash + 1));
+    }
+
+    public void deleteObject(String bucket, String objectName) {
+        try {
+            minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucket).object(objectName).build());
+            log.info("Deleted object: bucket={}, path={}", bucket, objectName);
+        } catch (Exception e) {
+            log.warn("Failed to delete object {}/{}: {}", bucket, objectName, e.getMessage());
+        }
+    }
+
     /**
      * Fallback when MinIO circuit is open
      */
-    public String uploadFallback(MultipartFile file, String systemId, Throwable throwable) {
+    public StoredObject uploadFallback(MultipartFile file, String systemId, Throwable throwable) {
         log.error("MinIO circuit breaker open, upload failed: file={}, error={}",
                 file.getOriginalFilename(), throwable.getMessage());
         throw new RuntimeException("Storage service temporarily unavailable. Please retry later.");
@@ -105,6 +283,71 @@ public class MinioStorageService {
         throw new RuntimeException("Storage service temporarily unavailable. Please retry later.");
     }
 
+    public StoredObject streamFallback(InputStream inputStream, String fileName, String systemId,
+            String contentType, Throwable throwable) {
+        log.error("MinIO circuit breaker open, streaming upload failed: file={}, error={}",
+                fileName, throwable.getMessage());
+        throw new RuntimeException("Storage service temporarily unavailable. Please retry later.");
+    }
+
+    /**
+     * Client-side multipart errors (size limit, malformed body) are not storage
+     * failures; surface them unchanged so the controller can answer 4xx
+     */
+    public StoredObject streamFallback(InputStream inputStream, String fileName, String systemId,
+            String contentType, FileUploadException exception) throws FileUploadException {
+        throw exception;
+    }
+
+    /**
+     * Location and size of an object written to MinIO, and its SHA-256 (hex)
+     * when the bytes passed through the gateway
+     */
+    public record StoredObject(String path, long size, String sha256) {
+
+        public StoredObject(String path, long size) {
+            this(path, size, null);
+        }
+    }
+
+    /**
+     * An object as MinIO reports it; the ETag pins the exact bytes that were checked
+     */
+    public record ObjectStat(String path, long size, String etag) {
+    }
+
+    /**
+     * An open multipart upload in MinIO
+     */
+    public record TempMultipart(String bucket, String objectName, String uploadId) {
+    }
+
+    /**
+     * A temp object name reserved for a direct upload and its presigned PUT URL
+     */
+    public record PresignedPut(String bucket, String objectName, String url) {
+    }
+
+    /**
+     * Latency of single PUT requests to MinIO (whole objects or multipart
+     * parts); one of the signals the adaptive upload limit follows
+     */
+    static Timer putLatencyTimer(MeterRegistry meterRegistry, String op) {
+        return Timer.builder("minio.put.latency")
+                .description("Time for one PUT request to MinIO")
+                .tag("op", op)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private String buildObjectPath(String systemId, String fileName) {
         String uuid = UUID.randomUUID().toString().substring(0, 8);
         return String.format("%s/%s/%s_%s",
@@ -0,0 +1,152 @@
+package com.extraction.integration.service;
+
+import com.extraction.integration.client.MultipartMinioClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.minio.messages.Part;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pipes an InputStream of unknown length into a MinIO multipart upload.
+ *
+ * A pooled buffer is filled from the stream while previously filled buffers
+ * are being uploaded. The window covers the buffer being filled as well as
+ * the ones uploading, so peak memory per upload is max-inflight-parts *
+ * part-size and every byte is read exactly once.
+ */
+@Slf4j
+@Service
+public class MultipartStreamUploader {
+
+    private final MultipartMinioClient multipartMinioClient;
+    private final PartBufferPool bufferPool;
+    private final int maxInflightParts;
+    private final Timer partPutLatency;
+
+    public MultipartStreamUploader(
+            MultipartMinioClient multipartMinioClient,
+            PartBufferPool bufferPool,
+            MeterRegistry meterRegistry,
+            @Value("${upload.streaming.max-inflight-parts:2}") int maxInflightParts) {
+        this.multipartMinioClient = multipartMinioClient;
+        this.bufferPool = bufferPool;
+        this.maxInflightParts = maxInflightParts;
+        this.partPutLatency = MinioStorageService.putLatencyTimer(meterRegistry, "part");
+    }
+
+    /**
+     * Stream the whole input into {@code bucket/objectName}.
+     *
+     * @return Number of bytes written
+     */
+    public long upload(String bucket, String objectName, String contentType, InputStream inputStream)
+            throws Exception {
+        String uploadId = multipartMinioClient.createMultipartUpload(bucket, objectName, contentType)
+                .get().result().uploadId();
+
+        Semaphore window = new Semaphore(maxInflightParts);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<Part>> parts = new ArrayList<>();
+        long total = 0;
+
+        try {
+            int partNumber = 0;
+            boolean eof = false;
+            while (!eof && failure.get() == null) {
+                window.acquire();
+                byte[] buffer;
+                try {
+                    buffer = bufferPool.acquire();
+                } catch (RuntimeException e) {
+                    window.release();
+                    throw e;
+                }
+
+                int length;
+                try {
+                    length = readFully(inputStream, buffer);
+                } catch (IOException e) {
+                    bufferPool.release(buffer);
+                    window.release();
+                    throw e;
+                }
+                eof = length < buffer.length;
+
+                // An empty trailing read only carries data when it is the first part
+                if (length == 0 && partNumber > 0) {
+                    bufferPool.release(buffer);
+                    window.release();
+                    break;
+                }
+
+                int number = ++partNumber;
+                total += length;
+                long start = System.nanoTime();
+                parts.add(multipartMinioClient.uploadPart(bucket, objectName, uploadId, number, buffer, length)
+                        .handle((response, ex) -> {
+                            partPutLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                            bufferPool.release(buffer);
+                            window.release();
+                            if (ex != null) {
+                                failure.compareAndSet(null, ex);
+                                throw new CompletionException(ex);
+                            }
+                            return new Part(number, response.etag());
+                        }));
+            }
+
+            CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).join();
+            Part[] completed = parts.stream().map(CompletableFuture::join).toArray(Part[]::new);
+            multipartMinioClient.completeMultipartUpload(bucket, objectName, uploadId, completed).get();
+
+            log.debug("Completed multipart upload: bucket={}, object={}, parts={}, size={}",
+                    bucket, objectName, completed.length, total);
+            return total;
+
+        } catch (Exception e) {
+            abortQuietly(bucket, objectName, uploadId, parts);
+            Throwable cause = failure.get();
+            if (cause != null && !(e instanceof IOException)) {
+                throw new IOException("Multipart part upload failed: " + cause.getMessage(), cause);
+            }
+            throw e;
+        }
+    }
+
+    private void abortQuietly(String bucket, String objectName, String uploadId,
+            List<CompletableFuture<Part>> parts) {
+        try {
+            // Let in-flight parts settle so their buffers go back to the pool first
+            CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+                    .exceptionally(ex -> null).join();
+            multipartMinioClient.abortMultipartUpload(bucket, objectName, uploadId).get();
+            log.info("Aborted multipart upload: bucket={}, object={}", bucket, objectName);
+        } catch (Exception e) {
+            log.warn("Failed to abort multipart upload {}: {}", uploadId, e.getMessage());
+        }
+    }
+
+    private int readFully(InputStream inputStream, byte[] buffer) throws IOException {
+        int offset = 0;
+        while (offset < buffer.length) {
+            int read = inputStream.read(buffer, offset, buffer.length - offset);
+            if (read < 0) {
+                break;
+            }
+            offset += read;
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,94 @@
+package com.extraction.integration.service;
+
+import com.extraction.integration.dto.IngestRequestMessage;
+import com.extraction.integration.exception.UnroutableMessageException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Drains the {@link PublishOutbox} into RabbitMQ in append order.
+ *
+ * Each tick publishes up to {@code replay-batch} messages and advances the
+ * outbox cursor past the longest prefix the broker confirmed; the first
+ * failure ends the tick and replay resumes from there on the next one.
+ * Nothing is attempted while the rabbitService breaker is open.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxReplayService {
+
+    private final PublishOutbox outbox;
+    private final MessagePublisherService messagePublisherService;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Value("${messaging.outbox.replay-batch:100}")
+    private int replayBatch;
+
+    @Scheduled(fixedDelayString = "${messaging.outbox.replay-interval-ms:1000}")
+    public void replay() {
+        if (!outbox.hasPending()) {
+            return;
+        }
+        CircuitBreaker.State state = circuitBreakerRegistry.circuitBreaker("rabbitService").getState();
+        if (state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN) {
+            return;
+        }
+
+        while (outbox.hasPending()) {
+            List<PublishOutbox.Entry> entries = outbox.peek(replayBatch);
+            if (entries.isEmpty()) {
+                return;
+            }
+            List<IngestRequestMessage> messages = entries.stream()
+                    .map(PublishOutbox.Entry::message)
+                    .filter(Objects::nonNull)
+                    .toList();
+            List<CompletableFuture<String>> results = messagePublisherService.publishIngestRequests(messages);
+
+            int confirmed = 0;
+            int published = 0;
+            for (PublishOutbox.Entry entry : entries) {
+                if (entry.message() != null) {
+                    Throwable error = outcome(results.get(published++));
+                    if (error instanceof UnroutableMessageException) {
+                        // Replaying it again would only be returned again; drop it rather than block the outbox
+                        log.error("Dropping unroutable outbox message: jobId={}", entry.message().getJobId());
+                    } else if (error != null) {
+                        log.warn("Outbox replay stopped at jobId={}: {}", entry.message().getJobId(),
+                                error.getMessage());
+                        break;
+                    }
+                }
+                confirmed++;
+            }
+
+            outbox.acknowledge(entries.subList(0, confirmed));
+            if (confirmed < entries.size()) {
+                return;
+            }
+            log.info("Replayed {} outbox messages", confirmed);
+        }
+    }
+
+    private static Throwable outcome(CompletableFuture<String> result) {
+        try {
+            result.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.extraction.integration.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of fixed-size part buffers shared by all streaming uploads.
+ *
+ * Buffers are allocated lazily up to {@code maxBuffers} and recycled, so the
+ * total heap used for in-flight multipart parts never exceeds
+ * {@code maxBuffers * partSize} regardless of how many uploads are running.
+ */
+@Slf4j
+@Component
+public class PartBufferPool {
+
+    private final int partSize;
+    private final int maxBuffers;
+    private final long acquireTimeoutMs;
+
+    private final BlockingQueue<byte[]> free;
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    public PartBufferPool(
+            @Value("${upload.streaming.part-size:5MB}") DataSize partSize,
+            @Value("${upload.streaming.pool-buffers:90}") int maxBuffers,
+            @Value("${upload.streaming.buffer-wait-ms:2000}") long acquireTimeoutMs) {
+        this.partSize = (int) partSize.toBytes();
+        this.maxBuffers = maxBuffers;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.free = new ArrayBlockingQueue<>(maxBuffers);
+    }
+
+    /**
+     * Borrow a buffer, allocating a new one while under the cap.
+     *
+     * @throws IllegalStateException if no buffer frees up within the wait timeout
+     */
+    public byte[] acquire() throws InterruptedException {
+        byte[] buffer = free.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        if (allocated.incrementAndGet() <= maxBuffers) {
+            return new byte[partSize];
+        }
+        allocated.decrementAndGet();
+
+        buffer = free.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        if (buffer == null) {
+            log.warn("Part buffer pool exhausted: allocated={}, partSize={}", allocated.get(), partSize);
+            throw new IllegalStateException("Upload buffer pool exhausted");
+        }
+        return buffer;
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer != null && buffer.length == partSize && !free.offer(buffer)) {
+            allocated.decrementAndGet();
+        }
+    }
+
+    public int getPartSize() {
+        return partSize;
+    }
+
+    public int getAvailable() {
+        return free.size() + Math.max(0, maxBuffers - allocated.get());
+    }
+}
@@ -0,0 +1,316 @@
+package com.extraction.integration.service;
+
+import com.extraction.integration.dto.InitPresignedUploadRequest;
+import com.extraction.integration.dto.PresignedUploadResponse;
+import com.extraction.integration.exception.UploadSessionException;
+import io.minio.messages.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Direct-to-MinIO uploads: the gateway only authenticates, rate-limits and
+ * hands out presigned PUT URLs for the temp bucket, so file bytes never pass
+ * through it. Completion checks what actually landed in MinIO before the file
+ * is queued, and pins it by ETag: the PUT URL stays valid after completion, so
+ * the executor only moves the object if it is still the one that was checked.
+ *
+ * Session state lives in Redis like chunked uploads, so init and complete may
+ * hit different replicas.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PresignedUploadService {
+
+    private static final String KEY_PREFIX = "presigned_upload:";
+    private static final String EXPIRY_INDEX = KEY_PREFIX + "expiry";
+    private static final int MAX_PARTS = 10_000;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MinioStorageService minioStorageService;
+
+    @Value("${upload.presigned.url-expiry:15m}")
+    private Duration urlExpiry;
+
+    @Value("${upload.presigned.session-ttl:1h}")
+    private Duration sessionTtl;
+
+    @Value("${upload.presigned.max-file-size:5GB}")
+    private DataSize maxFileSize;
+
+    // Files up to this size get one PUT URL; larger ones are split into presigned parts
+    @Value("${upload.presigned.single-put-max-size:256MB}")
+    private DataSize singlePutMaxSize;
+
+    @Value("${upload.presigned.part-size:64MB}")
+    private DataSize partSize;
+
+    public PresignedUploadResponse init(String systemId, InitPresignedUploadRequest request) throws Exception {
+        long totalSize = request.getTotalSize();
+        if (totalSize > maxFileSize.toBytes()) {
+            throw new MaxUploadSizeExceededException(maxFileSize.toBytes());
+        }
+
+        String sessionId = UUID.randomUUID().toString();
+        Instant expiresAt = Instant.now().plus(urlExpiry);
+        Map<String, Object> session = new HashMap<>();
+        session.put("systemId", systemId);
+        session.put("fileName", request.getFileName());
+
+        PresignedUploadResponse.PresignedUploadResponseBuilder response = PresignedUploadResponse.builder()
+                .uploadId(sessionId)
+                .expiresAt(expiresAt);
+
+        if (totalSize <= singlePutMaxSize.toBytes()) {
+            MinioStorageService.PresignedPut put = minioStorageService.presignTempUpload(
+                    request.getFileName(), systemId, urlExpiry);
+            session.put("bucket", put.bucket());
+            session.put("objectName", put.objectName());
+            response.url(put.url());
+        } else {
+            int partCount = (int) ((totalSize + partSize.toBytes() - 1) / partSize.toBytes());
+            if (partCount > MAX_PARTS) {
+                throw new UploadSessionException(HttpStatus.BAD_REQUEST, "TOO_MANY_PARTS",
+                        "File needs " + partCount + " parts; at most " + MAX_PARTS + " are allowed");
+            }
+            MinioStorageService.TempMultipart target = minioStorageService.createTempMultipart(
+                    request.getFileName(), systemId, request.getContentType());
+            session.put("bucket", target.bucket());
+            session.put("objectName", target.objectName());
+            session.put("multipartId", target.uploadId());
+            session.put("partCount", String.valueOf(partCount));
+
+            List<PresignedUploadResponse.PresignedPart> parts = new ArrayList<>(partCount);
+            for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+                parts.add(new PresignedUploadResponse.PresignedPart(partNumber,
+                        minioStorageService.presignPart(target, partNumber, urlExpiry)));
+            }
+            response.partSize(partSize.toBytes()).parts(parts);
+        }
+
+        redisTemplate.opsForHash().putAll(sessionKey(sessionId), session);
+        // Keys outlive the sweep deadline so the sweeper can still find what to clean up
+        redisTemplate.expire(sessionKey(sessionId), sessionTtl.multipliedBy(2));
+        redisTemplate.opsForZSet().add(EXPIRY_INDEX, sessionId, Instant.now().plus(sessionTtl).toEpochMilli());
+
+        log.info("Presigned upload started: uploadId={}, systemId={}, file={}, size={}, parts={}",
+                sessionId, systemId, request.getFileName(), totalSize, session.getOrDefault("partCount", "1"));
+        return response.build();
+    }
+
+    /**
+     * Verify the object in MinIO. Multipart uploads are assembled from the parts
+     * MinIO reports, so clients need not send ETags. The session stays open,
+     * holding the claim, until the caller reports the publish outcome through
+     * {@link #published} or {@link #publishFailed}, so a failed publish can be
+     * retried without uploading the file again.
+     *
+     * @return The verified object and the request id to publish it under, or the
+     * job it was already published as when this is a retry of a completed upload
+     */
+    public Completion complete(String systemId, String sessionId) throws Exception {
+        Map<Object, Object> session = loadSession(systemId, sessionId);
+        if (session.containsKey("jobId")) {
+            return completion(session);
+        }
+
+        Boolean claimed = redisTemplate.opsForHash().putIfAbsent(sessionKey(sessionId), "completing",
+                Instant.now().toString());
+        if (!Boolean.TRUE.equals(claimed)) {
+            throw new UploadSessionException(HttpStatus.CONFLICT, "UPLOAD_COMPLETING",
+                    "Upload is already being completed: " + sessionId);
+        }
+
+        String bucket = (String) session.get("bucket");
+        String objectName = (String) session.get("objectName");
+        try {
+            if (session.containsKey("path")) {
+                // Verified by an earlier attempt whose publish failed
+                log.info("Retrying publish of presigned upload: uploadId={}", sessionId);
+                return completion(session);
+            }
+
+            if (session.containsKey("multipartId")) {
+                completeParts(session);
+                // Assembled; a retried completion only needs to stat the object
+                redisTemplate.opsForHash().delete(sessionKey(sessionId), "multipartId");
+            }
+
+            MinioStorageService.ObjectStat stored = minioStorageService.statObject(bucket, objectName)
+                    .orElseThrow(() -> new UploadSessionException(HttpStatus.BAD_REQUEST, "UPLOAD_INCOMPLETE",
+                            "File has not been uploaded yet: " + sessionId));
+
+            // A presigned PUT cannot cap the body size, so enforce the limit on what arrived
+            if (stored.size() > maxFileSize.toBytes()) {
+                minioStorageService.deleteObject(bucket, objectName);
+                deleteSession(sessionId);
+                throw new MaxUploadSizeExceededException(maxFileSize.toBytes());
+            }
+
+            Map<String, Object> verified = Map.of(
+                    "path", stored.path(),
+                    "size", String.valueOf(stored.size()),
+                    "etag", stored.etag(),
+                    "requestId", UUID.randomUUID().toString());
+            redisTemplate.opsForHash().putAll(sessionKey(sessionId), verified);
+            log.info("Presigned upload verified: uploadId={}, path={}, size={}",
+                    sessionId, stored.path(), stored.size());
+
+            session.putAll(verified);
+            return completion(session);
+
+        } catch (MaxUploadSizeExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            // Release the claim so the client can finish uploading and retry
+            redisTemplate.opsForHash().delete(sessionKey(sessionId), "completing");
+            throw e;
+        }
+    }
+
+    /**
+     * The verified file was queued. Remember the job for the session TTL so a
+     * client that lost the response gets the same job back on retry; the
+     * object now belongs to the executor, so the sweeper must not touch it.
+     */
+    public void published(String sessionId, String jobId) {
+        redisTemplate.opsForHash().put(sessionKey(sessionId), "jobId", jobId);
+        redisTemplate.opsForZSet().remove(EXPIRY_INDEX, sessionId);
+        redisTemplate.expire(sessionKey(sessionId), sessionTtl);
+        log.info("Presigned upload completed: uploadId={}, jobId={}", sessionId, jobId);
+    }
+
+    /**
+     * Publishing the verified file failed; keep it and give the client a full
+     * session TTL to retry complete before the sweeper removes it
+     */
+    public void publishFailed(String sessionId) {
+        redisTemplate.opsForHash().delete(sessionKey(sessionId), "completing");
+        redisTemplate.expire(sessionKey(sessionId), sessionTtl.multipliedBy(2));
+        redisTemplate.opsForZSet().add(EXPIRY_INDEX, sessionId, Instant.now().plus(sessionTtl).toEpochMilli());
+    }
+
+    /**
+     * Outcome of {@link #complete}: {@code etag} is that of the verified object,
+     * and {@code jobId} is set only when the upload was already published by an
+     * earlier call
+     */
+    public record Completion(MinioStorageService.StoredObject stored, String etag, String requestId, String jobId) {
+    }
+
+    public void abort(String systemId, String sessionId) {
+        Map<Object, Object> session = loadSession(systemId, sessionId);
+        if (session.containsKey("jobId")) {
+            throw new UploadSessionException(HttpStatus.CONFLICT, "UPLOAD_COMPLETED",
+                    "Upload has already been completed: " + sessionId);
+        }
+        discard(session);
+        deleteSession(sessionId);
+        log.info("Presigned upload aborted: uploadId={}", sessionId);
+    }
+
+    /**
+     * Remove whatever expired sessions left in the temp bucket. ZREM acts as the
+     * claim, so only one replica cleans up each session.
+     */
+    @Scheduled(fixedDelayString = "${upload.presigned.sweep-interval-ms:600000}")
+    public void sweepExpired() {
+        try {
+            Set<Object> expired = redisTemplate.opsForZSet()
+                    .rangeByScore(EXPIRY_INDEX, 0, Instant.now().toEpochMilli());
+            if (expired == null) {
+                return;
+            }
+            for (Object member : expired) {
+                String sessionId = (String) member;
+                Long removed = redisTemplate.opsForZSet().remove(EXPIRY_INDEX, sessionId);
+                if (removed == null || removed == 0) {
+                    continue;
+                }
+                Map<Object, Object> session = redisTemplate.opsForHash().entries(sessionKey(sessionId));
+                if (!session.isEmpty()) {
+                    discard(session);
+                }
+                redisTemplate.delete(sessionKey(sessionId));
+                log.info("Expired presigned upload swept: uploadId={}", sessionId);
+            }
+        } catch (Exception e) {
+            log.warn("Presigned upload sweep failed: {}", e.getMessage());
+        }
+    }
+
+    // ==================== Private Methods ====================
+
+    private void completeParts(Map<Object, Object> session) throws Exception {
+        MinioStorageService.TempMultipart target = target(session);
+        int expected = Integer.parseInt((String) session.get("partCount"));
+
+        List<Part> uploaded = minioStorageService.listUploadedParts(target);
+        if (uploaded.size() != expected) {
+            List<Integer> received = uploaded.stream().map(Part::partNumber).toList();
+            throw new UploadSessionException(HttpStatus.BAD_REQUEST, "UPLOAD_INCOMPLETE",
+                    "Expected " + expected + " parts, received: " + received);
+        }
+
+        Part[] parts = uploaded.stream()
+                .map(part -> new Part(part.partNumber(), part.etag()))
+                .toArray(Part[]::new);
+        minioStorageService.completeMultipart(target, parts);
+    }
+
+    private Completion completion(Map<Object, Object> session) {
+        MinioStorageService.StoredObject stored = new MinioStorageService.StoredObject(
+                (String) session.get("path"), Long.parseLong((String) session.get("size")));
+        return new Completion(stored, (String) session.get("etag"), (String) session.get("requestId"),
+                (String) session.get("jobId"));
+    }
+
+    private void discard(Map<Object, Object> session) {
+        if (session.containsKey("multipartId")) {
+            minioStorageService.abortMultipart(target(session));
+        } else {
+            minioStorageService.deleteObject((String) session.get("bucket"), (String) session.get("objectName"));
+        }
+    }
+
+    private Map<Object, Object> loadSession(String systemId, String sessionId) {
+        Map<Object, Object> session = redisTemplate.opsForHash().entries(sessionKey(sessionId));
+        // Sessions of other systems are reported as missing rather than forbidden
+        if (session.isEmpty() || !systemId.equals(session.get("systemId"))) {
+            throw UploadSessionException.notFound(sessionId);
+        }
+        return session;
+    }
+
+    private MinioStorageService.TempMultipart target(Map<Object, Object> session) {
+        return new MinioStorageService.TempMultipart(
+                (String) session.get("bucket"),
+                (String) session.get("objectName"),
+                (String) session.get("multipartId"));
+    }
+
+    private void deleteSession(String sessionId) {
+        redisTemplate.delete(sessionKey(sessionId));
+        redisTemplate.opsForZSet().remove(EXPIRY_INDEX, sessionId);
+    }
+
+    private String sessionKey(String sessionId) {
+        return KEY_PREFIX + sessionId;
+    }
+}
@@ -0,0 +1,461 @@
+package com.extraction.integration.service;
+
+import com.extraction.integration.dto.IngestRequestMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local append-only outbox for ingest messages the broker could not take.
+ *
+ * Records are appended to memory-mapped segment files of {@code segment-size}
+ * and read back in order by the publisher's replay once RabbitMQ recovers. A
+ * separate cursor file records how far replay has been confirmed, so pending
+ * messages survive a restart. Delivery is at-least-once: a crash between a
+ * confirm and the cursor update replays that message again.
+ *
+ * Record layout: [int length][int crc32][long enqueuedAt][payload]. The length
+ * is written last, so a torn append reads as the end of the segment.
+ */
+@Slf4j
+@Service
+public class PublishOutbox {
+
+    private static final int HEADER = 16;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    public enum FsyncPolicy {
+        /** Force every append to disk before it is acknowledged */
+        ALWAYS,
+        /** Force on a timer; a crash may lose up to fsync-interval-ms of appends */
+        INTERVAL,
+        /** Leave write-back to the OS */
+        NONE
+    }
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${messaging.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${messaging.outbox.dir:${java.io.tmpdir}/integration-outbox}")
+    private Path dir;
+
+    @Value("${messaging.outbox.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    // Size cap: max-segments * segment-size on disk
+    @Value("${messaging.outbox.max-segments:16}")
+    private int maxSegments;
+
+    @Value("${messaging.outbox.fsync:INTERVAL}")
+    private FsyncPolicy fsync;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong pendingBytes = new AtomicLong();
+
+    private Segment writeSegment;
+    private MappedByteBuffer cursor;
+    private long readSegmentId;
+    private int readOffset;
+    private volatile long oldestEnqueuedAt;
+
+    private Counter appended;
+    private Counter replayed;
+    private Counter rejected;
+    private Counter corrupt;
+
+    public PublishOutbox(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!enabled) {
+            log.info("Publish outbox disabled");
+            return;
+        }
+        Files.createDirectories(dir);
+        recover();
+
+        Gauge.builder("publisher.outbox.pending", pending, AtomicLong::get)
+                .description("Messages in the outbox awaiting replay")
+                .register(meterRegistry);
+        Gauge.builder("publisher.outbox.pending.bytes", pendingBytes, AtomicLong::get)
+                .description("Bytes in the outbox awaiting replay")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("publisher.outbox.replay.lag", this, PublishOutbox::replayLagSeconds)
+                .description("Age of the oldest message awaiting replay")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        appended = Counter.builder("publisher.outbox.appended")
+                .description("Messages diverted to the outbox")
+                .register(meterRegistry);
+        replayed = Counter.builder("publisher.outbox.replayed")
+                .description("Outbox messages confirmed by the broker on replay")
+                .register(meterRegistry);
+        rejected = Counter.builder("publisher.outbox.rejected")
+                .description("Messages refused because the outbox was full")
+                .register(meterRegistry);
+        corrupt = Counter.builder("publisher.outbox.corrupt")
+                .description("Outbox records skipped because they could not be decoded")
+                .register(meterRegistry);
+
+        log.info("Publish outbox ready: dir={}, segments={}, pending={}, fsync={}",
+                dir, segments.size(), pending.get(), fsync);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean hasPending() {
+        return enabled && pending.get() > 0;
+    }
+
+    /**
+     * Append a message for later replay
+     *
+     * @throws IllegalStateException when the outbox is disabled or full
+     */
+    public void append(IngestRequestMessage message) {
+        if (!enabled) {
+            throw new IllegalStateException("Publish outbox is disabled");
+        }
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int recordSize = HEADER + payload.length;
+        if (recordSize > segmentSize.toBytes()) {
+            throw new IllegalArgumentException("Message larger than an outbox segment: " + recordSize);
+        }
+
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            if (writeSegment.writePos + recordSize > writeSegment.buffer.capacity()) {
+                if (segments.size() >= maxSegments) {
+                    rejected.increment();
+                    throw new IllegalStateException("Publish outbox is full (" + maxSegments + " segments)");
+                }
+                writeSegment = openSegment(writeSegment.id + 1);
+            }
+
+            MappedByteBuffer buffer = writeSegment.buffer;
+            int pos = writeSegment.writePos;
+            buffer.putInt(pos + 4, crc(payload));
+            buffer.putLong(pos + 8, now);
+            buffer.put(pos + HEADER, payload);
+            buffer.putInt(pos, payload.length);
+            writeSegment.writePos += recordSize;
+            if (fsync == FsyncPolicy.ALWAYS) {
+                buffer.force(pos, recordSize);
+            }
+
+            if (pending.getAndIncrement() == 0) {
+                oldestEnqueuedAt = now;
+            }
+            pendingBytes.addAndGet(recordSize);
+        } finally {
+            lock.unlock();
+        }
+        appended.increment();
+        log.info("Message diverted to outbox: jobId={}, pending={}", message.getJobId(), pending.get());
+    }
+
+    /**
+     * Up to {@code max} pending records from the replay cursor, in append order.
+     * Nothing is consumed until {@link #acknowledge} is called.
+     */
+    public List<Entry> peek(int max) {
+        List<Entry> entries = new ArrayList<>();
+        lock.lock();
+        try {
+            long segmentId = readSegmentId;
+            int offset = readOffset;
+            while (entries.size() < max) {
+                Segment segment = segments.get(segmentId);
+                int length = segment != null ? lengthAt(segment, offset) : 0;
+                if (length == 0) {
+                    Map.Entry<Long, Segment> next = segments.higherEntry(segmentId);
+                    if (next == null || segment == writeSegment) {
+                        break;
+                    }
+                    segmentId = next.getKey();
+                    offset = 0;
+                    continue;
+                }
+
+                byte[] payload = new byte[length];
+                segment.buffer.get(offset + HEADER, payload);
+                int nextOffset = offset + HEADER + length;
+                IngestRequestMessage message = null;
+                if (segment.buffer.getInt(offset + 4) == crc(payload)) {
+                    try {
+                        message = objectMapper.readValue(payload, IngestRequestMessage.class);
+                    } catch (IOException e) {
+                        log.error("Undecodable outbox record at {}:{}: {}", segmentId, offset, e.getMessage());
+                    }
+                } else {
+                    log.error("Outbox record checksum mismatch at {}:{}", segmentId, offset);
+                }
+                entries.add(new Entry(message, segmentId, nextOffset, HEADER + length));
+                offset = nextOffset;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return entries;
+    }
+
+    /**
+     * Move the replay cursor past {@code entries}, which must be a prefix of
+     * the last {@link #peek}, and drop segments that are fully replayed
+     */
+    public void acknowledge(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Entry last = entries.get(entries.size() - 1);
+        lock.lock();
+        try {
+            readSegmentId = last.segmentId();
+            readOffset = last.nextOffset();
+            writeCursor();
+
+            for (Entry entry : entries) {
+                if (entry.message() == null) {
+                    corrupt.increment();
+                } else {
+                    replayed.increment();
+                }
+                pendingBytes.addAndGet(-entry.size());
+            }
+            pending.addAndGet(-entries.size());
+            oldestEnqueuedAt = headEnqueuedAt();
+
+            // Everything before the cursor segment has been replayed
+            while (segments.firstKey() < readSegmentId) {
+                deleteSegment(segments.pollFirstEntry().getValue());
+            }
+            // Fully replayed write segment: start over in a fresh one to bound file growth
+            if (pending.get() == 0 && writeSegment.writePos > 0) {
+                Segment drained = writeSegment;
+                writeSegment = openSegment(drained.id + 1);
+                segments.remove(drained.id);
+                deleteSegment(drained);
+                readSegmentId = writeSegment.id;
+                readOffset = 0;
+                writeCursor();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${messaging.outbox.fsync-interval-ms:1000}")
+    public void flush() {
+        if (!enabled || fsync != FsyncPolicy.INTERVAL) {
+            return;
+        }
+        lock.lock();
+        try {
+            writeSegment.buffer.force();
+            cursor.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (fsync != FsyncPolicy.NONE) {
+                segments.values().forEach(segment -> segment.buffer.force());
+                cursor.force();
+            }
+            for (Segment segment : segments.values()) {
+                closeQuietly(segment.channel);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * One outbox record; {@code message} is null when the record is corrupt
+     */
+    public record Entry(IngestRequestMessage message, long segmentId, int nextOffset, int size) {
+    }
+
+    // ==================== Private Methods ====================
+
+    /**
+     * Map existing segments, find each one's end by scanning its records, and
+     * restore the replay cursor
+     */
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                String name = file.getFileName().toString();
+                long id = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                Segment segment = openSegment(id);
+                int pos = 0;
+                while (lengthAt(segment, pos) > 0) {
+                    pos += HEADER + lengthAt(segment, pos);
+                }
+                segment.writePos = pos;
+            }
+        }
+        if (segments.isEmpty()) {
+            openSegment(0);
+        }
+        writeSegment = segments.lastEntry().getValue();
+
+        try (FileChannel channel = FileChannel.open(dir.resolve("cursor"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            cursor = channel.map(FileChannel.MapMode.READ_WRITE, 0, 16);
+        }
+        readSegmentId = cursor.getLong(0);
+        readOffset = cursor.getInt(8);
+        if (!segments.containsKey(readSegmentId)) {
+            readSegmentId = segments.firstKey();
+            readOffset = 0;
+        }
+
+        // Count what is left to replay
+        for (Segment segment : segments.tailMap(readSegmentId, true).values()) {
+            int pos = segment.id == readSegmentId ? readOffset : 0;
+            while (lengthAt(segment, pos) > 0) {
+                if (pending.getAndIncrement() == 0) {
+                    oldestEnqueuedAt = segment.buffer.getLong(pos + 8);
+                }
+                pendingBytes.addAndGet(HEADER + lengthAt(segment, pos));
+                pos += HEADER + lengthAt(segment, pos);
+            }
+        }
+    }
+
+    private Segment openSegment(long id) {
+        Path file = dir.resolve(String.format("%020d%s", id, SEGMENT_SUFFIX));
+        try {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize.toBytes());
+            Segment segment = new Segment(id, channel, buffer);
+            segments.put(id, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open outbox segment " + file, e);
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        closeQuietly(segment.channel);
+        try {
+            Files.deleteIfExists(dir.resolve(String.format("%020d%s", segment.id, SEGMENT_SUFFIX)));
+        } catch (IOException e) {
+            log.warn("Failed to delete outbox segment {}: {}", segment.id, e.getMessage());
+        }
+    }
+
+    /**
+     * Payload length of the record at {@code pos}, or 0 at the end of the segment
+     */
+    private int lengthAt(Segment segment, int pos) {
+        if (segment == null || pos + HEADER > segment.buffer.capacity()) {
+            return 0;
+        }
+        int length = segment.buffer.getInt(pos);
+        return length > 0 && pos + HEADER + length <= segment.buffer.capacity() ? length : 0;
+    }
+
+    /**
+     * Append time of the record at the replay cursor, or now if there is none
+     */
+    private long headEnqueuedAt() {
+        Segment segment = segments.get(readSegmentId);
+        int offset = readOffset;
+        if (lengthAt(segment, offset) == 0 && segment != writeSegment) {
+            Map.Entry<Long, Segment> next = segments.higherEntry(readSegmentId);
+            segment = next != null ? next.getValue() : null;
+            offset = 0;
+        }
+        return lengthAt(segment, offset) > 0 ? segment.buffer.getLong(offset + 8) : System.currentTimeMillis();
+    }
+
+    private void writeCursor() {
+        cursor.putLong(0, readSegmentId);
+        cursor.putInt(8, readOffset);
+        if (fsync == FsyncPolicy.ALWAYS) {
+            cursor.force();
+        }
+    }
+
+    private double replayLagSeconds() {
+        return pending.get() > 0 ? (System.currentTimeMillis() - oldestEnqueuedAt) / 1000.0 : 0;
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Nothing left to flush through the channel; the mapping is forced separately
+        }
+    }
+
+    private static final class Segment {
+        final long id;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int writePos;
+
+        Segment(long id, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -6,23 +6,35 @@ import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.ConsumptionProbe;
 import io.github.bucket4j.distributed.proxy.ProxyManager;
 import com.extraction.integration.dto.RateLimitStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Enhanced Rate Limiting Service using Bucket4j + Redisson
- * 
+ *
  * Features:
  * - Custom limits per client
  * - Burst protection (1000 req/min)
  * - Distributed rate limiting via Redis
  * - Real-time statistics
+ * - Quota leasing: tokens are taken from the distributed bucket in blocks and
+ *   handed out from a local counter, so most requests never touch Redis
+ * - Bounded local limiter while Redis is unreachable (no fail-open)
  */
 @Slf4j
 @Service
@@ -30,6 +42,7 @@ import java.time.format.DateTimeFormatter;
 public class RateLimitService {
 
     private final ProxyManager<String> rateLimitProxyManager;
+    private final MeterRegistry meterRegistry;
 
     @Value("${rate-limit.daily-limit:100000}")
     private int defaultDailyLimit;
@@ -37,43 +50,159 @@ public class RateLimitService {
     @Value("${rate-limit.burst-limit:1000}")
     private int burstLimit;
 
+    @Value("${rate-limit.lease.size:50}")
+    private int leaseSize;
+
+    @Value("${rate-limit.lease.ttl:30s}")
+    private Duration leaseTtl;
+
+    @Value("${rate-limit.fallback.fraction:0.1}")
+    private double fallbackFraction;
+
+    @Value("${rate-limit.fallback.redis-retry:5s}")
+    private Duration redisRetry;
+
+    private final Map<String, QuotaLease> leases = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> fallbackBuckets = new ConcurrentHashMap<>();
+    private final Map<Integer, BucketConfiguration> configs = new ConcurrentHashMap<>();
+
+    /** Until this instant Redis is treated as down and the local limiter decides */
+    private volatile long redisRetryAt;
+
+    private Counter localDecisions;
+    private Counter redisDecisions;
+    private Counter fallbackDecisions;
+    private Counter returnedTokens;
+
+    @PostConstruct
+    void init() {
+        localDecisions = decisionCounter("lease");
+        redisDecisions = decisionCounter("redis");
+        fallbackDecisions = decisionCounter("fallback");
+        returnedTokens = Counter.builder("ratelimit.lease.returned")
+                .description("Leased tokens handed back to the distributed bucket unused")
+                .register(meterRegistry);
+    }
+
     /**
      * Check and increment rate limit for a system
-     * 
+     *
      * @param systemId    The system identifier
      * @param customLimit Custom daily limit (null = use default)
      * @return true if allowed, false if rate limited
      */
     public boolean checkAndIncrementRateLimit(String systemId, Integer customLimit) {
         int limit = customLimit != null ? customLimit : defaultDailyLimit;
-        String bucketKey = buildBucketKey(systemId);
-
-        try {
-            BucketConfiguration config = buildBucketConfig(limit);
-            Bucket bucket = rateLimitProxyManager.builder()
-                    .build(bucketKey, () -> config);
+        while (true) {
+            QuotaLease lease = leaseFor(systemId, limit);
 
-            ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+            // Fast path: decided in-process from the current lease
+            if (lease.tryTake()) {
+                localDecisions.increment();
+                return true;
+            }
 
-            if (!probe.isConsumed()) {
-                log.warn("Rate limit exceeded: systemId={}, remaining={}",
-                        systemId, probe.getRemainingTokens());
-                return false;
+            if (System.currentTimeMillis() < redisRetryAt) {
+                return fallbackConsume(systemId, limit);
             }
 
-            // Log when usage is high (>80%)
-            if (probe.getRemainingTokens() < limit * 0.2) {
-                log.info("High usage: systemId={}, remaining={}/{}",
-                        systemId, probe.getRemainingTokens(), limit);
+            // One thread per system refills; the rest wait and re-check the lease
+            lease.lock.lock();
+            try {
+                if (lease.tryTake()) {
+                    localDecisions.increment();
+                    return true;
+                }
+                if (lease.isClosed()) {
+                    // Returned by the sweeper since we looked it up; start over on a fresh lease
+                    continue;
+                }
+
+                long granted = refill(lease);
+                redisDecisions.increment();
+                if (granted == 0) {
+                    log.warn("Rate limit exceeded: systemId={}, remaining={}", systemId, lease.remoteRemaining);
+                    return false;
+                }
+
+                // Keep one token for this request, the rest serve the following ones
+                deposit(lease, granted - 1);
+
+                // Log when usage is high (>80%)
+                if (lease.remoteRemaining < limit * 0.2) {
+                    log.info("High usage: systemId={}, remaining={}/{}",
+                            systemId, lease.remoteRemaining, limit);
+                }
+
+                return true;
+
+            } catch (Exception e) {
+                log.error("Error checking rate limit for {}: {}", systemId, e.getMessage());
+                redisRetryAt = System.currentTimeMillis() + redisRetry.toMillis();
+                return fallbackConsume(systemId, limit);
+            } finally {
+                lease.lock.unlock();
             }
+        }
+    }
 
-            return true;
+    /**
+     * Reserve up to {@code count} tokens in one step, for callers admitting
+     * many items at once. Tokens already leased locally are used first; the
+     * rest are taken from the distributed bucket in a single call.
+     *
+     * @return Number of tokens granted, from 0 to {@code count}
+     */
+    public int reserve(String systemId, Integer customLimit, int count) {
+        int limit = customLimit != null ? customLimit : defaultDailyLimit;
+        QuotaLease lease = leaseFor(systemId, limit);
+
+        int granted = (int) lease.takeUpTo(count);
+        localDecisions.increment(granted);
+        if (granted == count) {
+            return granted;
+        }
+
+        if (System.currentTimeMillis() < redisRetryAt) {
+            return granted + fallbackReserve(systemId, limit, count - granted);
+        }
+
+        lease.lock.lock();
+        try {
+            long remote = lease.bucket.tryConsumeAsMuchAsPossible(count - granted);
+            redisDecisions.increment();
+            if (lease.remoteRemaining >= 0) {
+                lease.remoteRemaining = Math.max(0, lease.remoteRemaining - remote);
+            }
+            granted += (int) remote;
+            if (granted < count) {
+                log.warn("Rate limit reached during bulk reserve: systemId={}, requested={}, granted={}",
+                        systemId, count, granted);
+            }
+            return granted;
 
         } catch (Exception e) {
-            log.error("Error checking rate limit for {}: {}", systemId, e.getMessage());
-            // Fail-open: allow if Redis error
-            return true;
+            log.error("Error reserving rate limit tokens for {}: {}", systemId, e.getMessage());
+            redisRetryAt = System.currentTimeMillis() + redisRetry.toMillis();
+            return granted + fallbackReserve(systemId, limit, count - granted);
+        } finally {
+            lease.lock.unlock();
+        }
+    }
+
+    /**
+     * Give back reserved tokens that were not used. They join the local lease
+     * and reach the distributed bucket with it when the lease expires.
+     */
+    public void release(String systemId, Integer customLimit, int count) {
+        if (count <= 0) {
+            return;
         }
+        int limit = customLimit != null ? customLimit : defaultDailyLimit;
+        QuotaLease lease;
+        do {
+            lease = leaseFor(systemId, limit);
+        } while (!lease.deposit(count));
     }
 
     /**
@@ -91,18 +220,14 @@ public class RateLimitService {
     }
 
     /**
-     * Get current usage with custom limit
+     * Get current usage with custom limit.
+     * Tokens leased to a replica but not yet used count as used.
      */
     public int getCurrentUsage(String systemId, Integer customLimit) {
         int limit = customLimit != null ? customLimit : defaultDailyLimit;
-        String bucketKey = buildBucketKey(systemId);
 
         try {
-            BucketConfiguration config = buildBucketConfig(limit);
-            Bucket bucket = rateLimitProxyManager.builder()
-                    .build(bucketKey, () -> config);
-
-            long available = bucket.getAvailableTokens();
+            long available = remoteBucket(buildBucketKey(systemId), limit).getAvailableTokens();
             return (int) (limit - available);
 
         } catch (Exception e) {
@@ -119,18 +244,21 @@ public class RateLimitService {
     }
 
     /**
-     * Get remaining quota with custom limit
+     * Get remaining quota with custom limit.
+     * While this replica holds a lease the answer is a local estimate: the
+     * bucket level seen at the last refill plus the tokens still held here.
      */
     public int getRemainingQuota(String systemId, Integer customLimit) {
         int limit = customLimit != null ? customLimit : defaultDailyLimit;
         String bucketKey = buildBucketKey(systemId);
 
-        try {
-            BucketConfiguration config = buildBucketConfig(limit);
-            Bucket bucket = rateLimitProxyManager.builder()
-                    .build(bucketKey, () -> config);
+        QuotaLease lease = leases.get(systemId);
+        if (lease != null && lease.matches(bucketKey, limit) && lease.remoteRemaining >= 0) {
+            return (int) Math.min(limit, lease.remoteRemaining + Math.max(0, lease.tokens.get()));
+        }
 
-            return (int) bucket.getAvailableTokens();
+        try {
+            return (int) remoteBucket(bucketKey, limit).getAvailableTokens();
 
         } catch (Exception e) {
             log.error("Error getting remaining quota for {}: {}", systemId, e.getMessage());
@@ -143,14 +271,9 @@ public class RateLimitService {
      */
     public RateLimitStats getStats(String systemId, Integer customLimit) {
         int limit = customLimit != null ? customLimit : defaultDailyLimit;
-        String bucketKey = buildBucketKey(systemId);
 
         try {
-            BucketConfiguration config = buildBucketConfig(limit);
-            Bucket bucket = rateLimitProxyManager.builder()
-                    .build(bucketKey, () -> config);
-
-            long available = bucket.getAvailableTokens();
+            long available = remoteBucket(buildBucketKey(systemId), limit).getAvailableTokens();
             long used = limit - available;
 
             return RateLimitStats.builder()
@@ -171,12 +294,175 @@ public class RateLimitService {
         }
     }
 
+    /**
+     * Hand back leases that have not been refilled within the lease TTL, so
+     * tokens parked on an idle replica become available to the others again.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.lease.sweep-interval-ms:10000}")
+    public void returnExpiredLeases() {
+        long now = System.currentTimeMillis();
+        leases.forEach((systemId, lease) -> {
+            if (now - lease.leasedAt < leaseTtl.toMillis()) {
+                return;
+            }
+            // Skip leases being refilled right now; the next sweep picks them up
+            if (!lease.lock.tryLock()) {
+                return;
+            }
+            try {
+                if (leases.remove(systemId, lease)) {
+                    returnUnused(lease);
+                }
+            } finally {
+                lease.lock.unlock();
+            }
+        });
+        fallbackBuckets.keySet().removeIf(key -> !key.endsWith(today()));
+    }
+
+    @PreDestroy
+    void returnAllLeases() {
+        leases.values().forEach(this::returnUnused);
+        leases.clear();
+    }
+
+    // ==================== Private Methods ====================
+
+    private QuotaLease leaseFor(String systemId, int limit) {
+        String bucketKey = buildBucketKey(systemId);
+        QuotaLease current = leases.get(systemId);
+        if (current != null && current.matches(bucketKey, limit) && !current.isClosed()) {
+            return current;
+        }
+
+        QuotaLease fresh = new QuotaLease(bucketKey, limit, remoteBucket(bucketKey, limit), blockSize(limit));
+        boolean installed = current == null
+                ? leases.putIfAbsent(systemId, fresh) == null
+                : leases.replace(systemId, current, fresh);
+        if (!installed) {
+            return leaseFor(systemId, limit);
+        }
+        // Limit changed within the day: tokens leased under the old limit go back to the same bucket
+        if (current != null && current.bucketKey.equals(bucketKey)) {
+            returnUnused(current);
+        }
+        return fresh;
+    }
+
+    /**
+     * Take one block from the distributed bucket. When less than a block is
+     * left, the remainder is taken so the tail of the quota stays usable.
+     *
+     * @return Number of tokens granted, 0 when the quota is exhausted
+     */
+    private long refill(QuotaLease lease) {
+        ConsumptionProbe probe = lease.bucket.tryConsumeAndReturnRemaining(lease.blockSize);
+        long granted = lease.blockSize;
+        if (!probe.isConsumed()) {
+            granted = probe.getRemainingTokens() > 0
+                    ? lease.bucket.tryConsumeAsMuchAsPossible(lease.blockSize)
+                    : 0;
+        }
+        lease.remoteRemaining = probe.isConsumed() ? probe.getRemainingTokens() : 0;
+        lease.leasedAt = System.currentTimeMillis();
+        return granted;
+    }
+
+    /**
+     * Add refilled tokens to a lease; if it was closed meanwhile, give them
+     * straight back to the distributed bucket instead of stranding them
+     */
+    private void deposit(QuotaLease lease, long count) {
+        if (count > 0 && !lease.deposit(count)) {
+            lease.bucket.addTokens(count);
+            returnedTokens.increment(count);
+        }
+    }
+
+    /**
+     * Close the lease and hand its tokens back. Anything added later fails to
+     * deposit and goes to a fresh lease instead.
+     */
+    private void returnUnused(QuotaLease lease) {
+        long unused = lease.close();
+        if (unused <= 0) {
+            return;
+        }
+        try {
+            lease.bucket.addTokens(unused);
+            returnedTokens.increment(unused);
+            log.debug("Returned unused lease: bucket={}, tokens={}", lease.bucketKey, unused);
+        } catch (Exception e) {
+            // The tokens are lost for the day; they were never admitted, so the limit still holds
+            log.warn("Failed to return {} leased tokens to {}: {}", unused, lease.bucketKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Local limiter used while Redis is down. Each replica may admit
+     * {@code fallback.fraction} of the daily and burst limits on its own.
+     */
+    private boolean fallbackConsume(String systemId, int limit) {
+        fallbackDecisions.increment();
+        boolean allowed = fallbackBucket(systemId, limit).tryConsume(1);
+        if (!allowed) {
+            log.warn("Rate limit exceeded (local fallback): systemId={}", systemId);
+        }
+        return allowed;
+    }
+
+    private int fallbackReserve(String systemId, int limit, int count) {
+        fallbackDecisions.increment();
+        return (int) fallbackBucket(systemId, limit).tryConsumeAsMuchAsPossible(count);
+    }
+
+    private Bucket fallbackBucket(String systemId, int limit) {
+        return fallbackBuckets.computeIfAbsent(systemId + ":" + limit + ":" + today(), key -> {
+            long daily = Math.max(1, (long) (limit * fallbackFraction));
+            long burst = Math.max(1, (long) (burstLimit * fallbackFraction));
+            return Bucket.builder()
+                    .addLimit(Bandwidth.builder()
+                            .capacity(daily)
+                            .refillGreedy(daily, Duration.ofDays(1))
+                            .build())
+                    .addLimit(Bandwidth.builder()
+                            .capacity(burst)
+                            .refillGreedy(burst, Duration.ofMinutes(1))
+                            .build())
+                    .build();
+        });
+    }
+
+    /**
+     * Lease at most 0.1% of the daily limit per block, so small quotas are
+     * not parked on a single replica.
+     */
+    private int blockSize(int limit) {
+        return Math.max(1, Math.min(leaseSize, limit / 1000));
+    }
+
+    private Bucket remoteBucket(String bucketKey, int limit) {
+        BucketConfiguration config = configs.computeIfAbsent(limit, this::buildBucketConfig);
+        return rateLimitProxyManager.builder()
+                .build(bucketKey, () -> config);
+    }
+
+    private Counter decisionCounter(String source) {
+        return Counter.builder("ratelimit.decisions")
+                .description("Rate limit decisions by where they were made")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private String today() {
+        return LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
     /**
      * Build bucket key with date for daily reset
      */
     private String buildBucketKey(String systemId) {
-        String date = LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        return "ratelimit:" + systemId + ":" + date;
+        return "ratelimit:" + systemId + ":" + today();
     }
 
     /**
@@ -196,4 +482,83 @@ public class RateLimitService {
                         .build())
                 .build();
     }
+
+    /**
+     * Tokens taken from one system's distributed bucket and held by this replica
+     */
+    private static final class QuotaLease {
+        /** Token count of a lease that was returned; nothing may be added to it */
+        private static final long CLOSED = Long.MIN_VALUE;
+
+        final String bucketKey;
+        final int limit;
+        final Bucket bucket;
+        final int blockSize;
+        final AtomicLong tokens = new AtomicLong();
+        final ReentrantLock lock = new ReentrantLock();
+        /** Bucket level seen at the last refill, -1 before the first one */
+        volatile long remoteRemaining = -1;
+        volatile long leasedAt = System.currentTimeMillis();
+
+        QuotaLease(String bucketKey, int limit, Bucket bucket, int blockSize) {
+            this.bucketKey = bucketKey;
+            this.limit = limit;
+            this.bucket = bucket;
+            this.blockSize = blockSize;
+        }
+
+        boolean matches(String bucketKey, int limit) {
+            return this.limit == limit && this.bucketKey.equals(bucketKey);
+        }
+
+        boolean tryTake() {
+            long available;
+            do {
+                available = tokens.get();
+                if (available <= 0) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(available, available - 1));
+            return true;
+        }
+
+        boolean isClosed() {
+            return tokens.get() == CLOSED;
+        }
+
+        /**
+         * @return false if the lease was closed and the tokens were not added
+         */
+        boolean deposit(long count) {
+            long available;
+            do {
+                available = tokens.get();
+                if (available == CLOSED) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(available, available + count));
+            return true;
+        }
+
+        /**
+         * @return Tokens held at the time of closing
+         */
+        long close() {
+            long unused = tokens.getAndSet(CLOSED);
+            return unused == CLOSED ? 0 : unused;
+        }
+
+        long takeUpTo(long count) {
+            long available;
+            long taken;
+            do {
+                available = tokens.get();
+                taken = Math.min(count, available);
+                if (taken <= 0) {
+                    return 0;
+                }
+            } while (!tokens.compareAndSet(available, available - taken));
+            return taken;
+        }
+    }
 }
@@ -0,0 +1,192 @@
+package com.extraction.integration.service;
+
+import com.extraction.integration.client.MultipartMinioClient;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.minio.messages.Part;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link MultipartStreamUploader} for the reactive
+ * ingest mode: pipes a {@code Flux<DataBuffer>} request body into a MinIO
+ * multipart upload through {@link MultipartMinioClient}.
+ *
+ * Backpressure runs end to end: the body is only requested from the socket
+ * while fewer than {@code max-inflight-parts} parts are uploading, so a slow
+ * MinIO slows the client down instead of filling the heap, and a slow client
+ * holds no thread at all. The part being filled grows with the bytes received,
+ * so a mostly idle connection holds kilobytes rather than a full part.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveStorageService {
+
+    private final MultipartMinioClient multipartMinioClient;
+    private final int partSize;
+    private final int maxInflightParts;
+    private final long maxFileSize;
+
+    @Value("${minio.bucket.temp}")
+    private String tempBucket;
+
+    public ReactiveStorageService(
+            MultipartMinioClient multipartMinioClient,
+            @Value("${upload.streaming.part-size:5MB}") DataSize partSize,
+            @Value("${upload.streaming.max-inflight-parts:2}") int maxInflightParts,
+            @Value("${upload.streaming.max-file-size:100MB}") DataSize maxFileSize) {
+        this.multipartMinioClient = multipartMinioClient;
+        this.partSize = Math.toIntExact(partSize.toBytes());
+        this.maxInflightParts = maxInflightParts;
+        this.maxFileSize = maxFileSize.toBytes();
+    }
+
+    /**
+     * Stream {@code content} into the temp bucket. Buffers are released as they
+     * are copied into the current part.
+     */
+    @CircuitBreaker(name = "minioService")
+    public Mono<MinioStorageService.StoredObject> streamToTemp(Flux<DataBuffer> content, String fileName,
+            String systemId, String contentType) {
+        String objectName = buildObjectPath(systemId, fileName);
+
+        return Mono.defer(() -> fromFuture(() -> multipartMinioClient
+                        .createMultipartUpload(tempBucket, objectName, contentType)))
+                .map(response -> response.result().uploadId())
+                .flatMap(uploadId -> {
+                    PartAssembler assembler = new PartAssembler(partSize, maxFileSize);
+                    return content
+                            .concatMapIterable(assembler::append, 1)
+                            .concatWith(Flux.defer(() -> Flux.fromIterable(assembler.finish())))
+                            .flatMapSequential(chunk -> fromFuture(() -> multipartMinioClient.uploadPart(
+                                            tempBucket, objectName, uploadId, chunk.number(), chunk.data(),
+                                            chunk.length()))
+                                    .map(response -> new Part(chunk.number(), response.etag())),
+                                    maxInflightParts, 1)
+                            .collectList()
+                            .flatMap(parts -> fromFuture(() -> multipartMinioClient.completeMultipartUpload(
+                                    tempBucket, objectName, uploadId, parts.toArray(new Part[0]))))
+                            .map(done -> {
+                                log.info("Streamed file to MinIO: bucket={}, path={}, size={}",
+                                        tempBucket, objectName, assembler.total);
+                                return new MinioStorageService.StoredObject(tempBucket + "/" + objectName,
+                                        assembler.total);
+                            })
+                            .onErrorResume(e -> abort(objectName, uploadId).then(Mono.error(e)))
+                            .doOnCancel(() -> abort(objectName, uploadId).subscribe());
+                });
+    }
+
+    private Mono<Void> abort(String objectName, String uploadId) {
+        return fromFuture(() -> multipartMinioClient.abortMultipartUpload(tempBucket, objectName, uploadId))
+                .doOnNext(done -> log.info("Aborted multipart upload: bucket={}, object={}", tempBucket, objectName))
+                .onErrorResume(e -> {
+                    log.warn("Failed to abort multipart upload {}: {}", uploadId, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static <T> Mono<T> fromFuture(FutureCall<T> call) {
+        return Mono.defer(() -> {
+            try {
+                return Mono.fromFuture(call.start());
+            } catch (Exception e) {
+                return Mono.error(e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface FutureCall<T> {
+        CompletableFuture<T> start() throws Exception;
+    }
+
+    private String buildObjectPath(String systemId, String fileName) {
+        String uuid = UUID.randomUUID().toString().substring(0, 8);
+        return String.format("%s/%s/%s_%s",
+                systemId,
+                java.time.LocalDate.now().toString(),
+                uuid,
+                fileName);
+    }
+
+    /**
+     * Re-chunks network-sized buffers into part-sized chunks. Only touched from
+     * the serialized concatMap signals, so it needs no locking.
+     */
+    private static final class PartAssembler {
+
+        private static final int INITIAL_CAPACITY = 64 * 1024;
+
+        private final int partSize;
+        private final long maxFileSize;
+        private byte[] current;
+        private int length;
+        private int partNumber;
+        private long total;
+
+        PartAssembler(int partSize, long maxFileSize) {
+            this.partSize = partSize;
+            this.maxFileSize = maxFileSize;
+        }
+
+        List<Chunk> append(DataBuffer buffer) {
+            try {
+                total += buffer.readableByteCount();
+                if (total > maxFileSize) {
+                    throw new MaxUploadSizeExceededException(maxFileSize);
+                }
+                List<Chunk> full = new ArrayList<>(1);
+                while (buffer.readableByteCount() > 0) {
+                    if (current == null) {
+                        current = new byte[Math.min(INITIAL_CAPACITY, partSize)];
+                        length = 0;
+                    }
+                    int n = Math.min(buffer.readableByteCount(), partSize - length);
+                    if (length + n > current.length) {
+                        // Grow with what the client actually sent, so idle connections stay cheap
+                        current = Arrays.copyOf(current, Math.min(partSize, Math.max(length + n, current.length * 2)));
+                    }
+                    buffer.read(current, length, n);
+                    length += n;
+                    if (length == partSize) {
+                        full.add(new Chunk(++partNumber, current, length));
+                        current = null;
+                    }
+                }
+                return full;
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        /**
+         * The trailing partial part; an empty body still produces one empty part
+         */
+        List<Chunk> finish() {
+            if (current != null || partNumber == 0) {
+                byte[] data = current != null ? current : new byte[0];
+                return List.of(new Chunk(++partNumber, data, length));
+            }
+            return List.of();
+        }
+    }
+
+    private record Chunk(int number, byte[] data, int length) {
+    }
+}
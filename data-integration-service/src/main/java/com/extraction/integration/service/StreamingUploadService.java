@@ -0,0 +1,66 @@
+package com.extraction.integration.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+
+/**
+ * Parses a multipart request body incrementally and pipes the file part
+ * straight into MinIO, bypassing the servlet container's temp-file spooling.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class StreamingUploadService {
+
+    private static final String FILE_FIELD = "file";
+
+    private final MinioStorageService minioStorageService;
+
+    @Value("${upload.streaming.max-file-size:100MB}")
+    private DataSize maxFileSize;
+
+    /**
+     * Stream the {@code file} part of the request into the temp bucket.
+     * Parts before it are skipped without buffering; parts after it are not read.
+     */
+    public MinioStorageService.StoredObject streamToTemp(HttpServletRequest request, String systemId)
+            throws Exception {
+        if (!JakartaServletFileUpload.isMultipartContent(request)) {
+            throw new FileUploadException("Request is not multipart/form-data");
+        }
+
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>();
+        upload.setFileSizeMax(maxFileSize.toBytes());
+
+        FileItemInputIterator items = upload.getItemIterator(request);
+        while (items.hasNext()) {
+            FileItemInput item = items.next();
+            if (item.isFormField() || !FILE_FIELD.equals(item.getFieldName())) {
+                continue;
+            }
+
+            log.debug("Streaming multipart file part: systemId={}, file={}, contentType={}",
+                    systemId, item.getName(), item.getContentType());
+            try (InputStream inputStream = item.getInputStream()) {
+                return minioStorageService.streamToTemp(inputStream, item.getName(), systemId,
+                        item.getContentType());
+            }
+        }
+
+        throw new FileUploadException("Missing multipart part '" + FILE_FIELD + "'");
+    }
+}
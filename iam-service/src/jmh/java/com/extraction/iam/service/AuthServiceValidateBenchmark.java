@@ -0,0 +1,153 @@
+package com.extraction.iam.service;
+
+import com.extraction.iam.IamServiceApplication;
+import com.extraction.iam.dto.ValidateRequest;
+import com.extraction.iam.dto.ValidateResponse;
+import com.extraction.iam.entity.SystemClient;
+import com.extraction.iam.repository.SystemClientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * {@link AuthService#validate} served from the {@link ClientRegistry} versus
+ * the database path it replaced ({@code findByClientId} per call).
+ *
+ * {@code source=registry} needs nothing running: the registry is loaded from
+ * an in-memory repository holding {@code clients} active clients.
+ * {@code source=database} boots the application without its web server
+ * against the local infrastructure ({@code make infra}) and leaves the
+ * registry unloaded, so every call goes through JPA; it expects the
+ * {@code bench-1..bench-N} clients seeded as in docs/BENCHMARKS.md section 3.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}; pass JMH options
+ * through {@code -Djmh.args}, e.g. {@code -Djmh.args="-p source=registry"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class AuthServiceValidateBenchmark {
+
+    private static final String SECRET = "bench-secret";
+
+    @Param({"registry", "database"})
+    private String source;
+
+    @Param("1000")
+    private int clients;
+
+    private ConfigurableApplicationContext context;
+    private AuthService authService;
+    private ValidateRequest[] requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        if ("registry".equals(source)) {
+            ClientRegistry registry = new ClientRegistry(inMemoryRepository(seed()), meterRegistry);
+            registry.init();
+            authService = new AuthService(null, registry);
+        } else {
+            context = new SpringApplicationBuilder(IamServiceApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run();
+            SystemClientRepository repository = context.getBean(SystemClientRepository.class);
+            // Never loaded, so AuthService takes the per-call database path
+            authService = new AuthService(repository, new ClientRegistry(repository, meterRegistry));
+        }
+
+        requests = IntStream.rangeClosed(1, clients)
+                .mapToObj(i -> new ValidateRequest("bench-" + i, SECRET))
+                .toArray(ValidateRequest[]::new);
+        if (!authService.validate(requests[0]).isValid()) {
+            throw new IllegalStateException("bench-1 does not validate; seed the benchmark clients first");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    /**
+     * Per-thread cursor so each thread walks the clients in turn without contention
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public ValidateResponse validate(Cursor cursor) {
+        ValidateRequest request = requests[cursor.next];
+        cursor.next = cursor.next + 1 == requests.length ? 0 : cursor.next + 1;
+        return authService.validate(request);
+    }
+
+    // ==================== Private Methods ====================
+
+    private List<SystemClient> seed() {
+        String hash;
+        try {
+            hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(SECRET.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        Instant now = Instant.now();
+        return IntStream.rangeClosed(1, clients)
+                .mapToObj(i -> SystemClient.builder()
+                        .clientId("bench-" + i)
+                        .clientSecretHash(hash)
+                        .clientName("Bench " + i)
+                        .scopes("read,write")
+                        .updatedAt(now)
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Just the queries a registry load makes
+     */
+    private static SystemClientRepository inMemoryRepository(List<SystemClient> rows) {
+        return (SystemClientRepository) Proxy.newProxyInstance(SystemClientRepository.class.getClassLoader(),
+                new Class<?>[]{SystemClientRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByStatus" -> rows.stream().filter(row -> row.getStatus() == args[0]).toList();
+                    case "findMaxUpdatedAt" -> rows.stream().map(SystemClient::getUpdatedAt).max(Instant::compareTo);
+                    case "findByUpdatedAtAfter" -> List.of();
+                    case "findByClientId" -> rows.stream().filter(row -> row.getClientId().equals(args[0])).findFirst();
+                    case "toString" -> "InMemorySystemClientRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
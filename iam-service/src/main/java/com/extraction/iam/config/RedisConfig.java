@@ -0,0 +1,27 @@
+package com.extraction.iam.config;
+
+import com.extraction.iam.event.ClientChangeListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Subscribes to client change announcements from all IAM instances
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            ClientChangeListener clientChangeListener,
+            @Value("${iam.invalidation.channel:iam:system-client:changed}") String invalidationChannel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(clientChangeListener, new ChannelTopic(invalidationChannel));
+        return container;
+    }
+}
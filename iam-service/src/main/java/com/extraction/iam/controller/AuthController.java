@@ -1,22 +1,34 @@
 package com.extraction.iam.controller;
 
+import com.extraction.iam.dto.BatchIntrospectRequest;
+import com.extraction.iam.dto.BatchValidateRequest;
+import com.extraction.iam.dto.IntrospectRequest;
+import com.extraction.iam.dto.TokenResponse;
 import com.extraction.iam.dto.ValidateRequest;
 import com.extraction.iam.dto.ValidateResponse;
 import com.extraction.iam.service.AuthService;
+import com.extraction.iam.service.SigningKeyService;
+import com.extraction.iam.service.TokenService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/internal/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
     private final AuthService authService;
+    private final TokenService tokenService;
+    private final SigningKeyService signingKeyService;
 
     @PostMapping("/validate")
     public ResponseEntity<ValidateResponse> validate(@RequestBody @Valid ValidateRequest request) {
@@ -27,4 +39,56 @@ public class AuthController {
             return ResponseEntity.status(401).body(response);
         }
     }
+
+    /**
+     * Validate many credentials with one database query; always 200, validity is per item
+     */
+    @PostMapping("/validate/batch")
+    public ResponseEntity<List<ValidateResponse>> validateBatch(@RequestBody @Valid BatchValidateRequest request) {
+        return ResponseEntity.ok(authService.validateBatch(request.getRequests()));
+    }
+
+    /**
+     * Client credentials -> signed access token
+     */
+    @PostMapping("/token")
+    public ResponseEntity<TokenResponse> token(@RequestBody @Valid ValidateRequest request) {
+        ValidateResponse response = authService.validate(request);
+        if (response.isValid()) {
+            return ResponseEntity.ok(tokenService.issue(response));
+        } else {
+            return ResponseEntity.status(401).body(TokenResponse.builder()
+                    .message(response.getMessage())
+                    .build());
+        }
+    }
+
+    /**
+     * Token -> current client state (revocation check for gateways)
+     */
+    @PostMapping("/introspect")
+    public ResponseEntity<ValidateResponse> introspect(@RequestBody @Valid IntrospectRequest request) {
+        ValidateResponse response = tokenService.introspect(request.getToken());
+        if (response.isValid()) {
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.status(401).body(response);
+        }
+    }
+
+    /**
+     * Introspect many tokens with one database query; always 200, validity is per item
+     */
+    @PostMapping("/introspect/batch")
+    public ResponseEntity<List<ValidateResponse>> introspectBatch(@RequestBody @Valid BatchIntrospectRequest request) {
+        return ResponseEntity.ok(tokenService.introspectBatch(request.getTokens()));
+    }
+
+    /**
+     * Public signing keys, including the next key ahead of its activation
+     */
+    @GetMapping("/jwks")
+    public Map<String, Object> jwks() {
+        return signingKeyService.getPublishedKeys().toJSONObject(true);
+    }
 }
@@ -0,0 +1,14 @@
+package com.extraction.iam.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntrospectRequest {
+    @NotBlank
+    private String token;
+}
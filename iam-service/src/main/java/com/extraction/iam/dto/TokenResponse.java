@@ -0,0 +1,15 @@
+package com.extraction.iam.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenResponse {
+    private String accessToken;
+    private String tokenType;
+    private Long expiresIn; // Seconds
+    private String message;
+}
@@ -11,5 +11,7 @@ public class ValidateResponse {
     private String clientName;
     private String scopes;
     private Integer dailyLimit;
+    private Integer admissionWeight;
+    private String priority;
     private String message;
 }
@@ -0,0 +1,34 @@
+package com.extraction.iam.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "signing_keys", schema = "iam_schema")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SigningKey {
+
+    @Id
+    @Column(name = "kid", length = 64)
+    private String kid;
+
+    @Column(name = "private_key", nullable = false, columnDefinition = "TEXT")
+    private String privateKey; // Base64 PKCS#8
+
+    @Column(name = "public_key", nullable = false, columnDefinition = "TEXT")
+    private String publicKey; // Base64 X.509
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "retired_at")
+    private Instant retiredAt; // No longer used for signing, still published until purged
+}
@@ -1,5 +1,6 @@
 package com.extraction.iam.entity;
 
+import com.extraction.iam.event.SystemClientChangePublisher;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,6 +13,7 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(SystemClientChangePublisher.class)
 @Table(name = "system_clients", schema = "iam_schema")
 @Data
 @Builder
@@ -51,4 +53,13 @@ public class SystemClient {
     @Column(name = "daily_limit")
     @Builder.Default
     private Integer dailyLimit = 100000; // Default: 100K requests/day
+
+    @Column(name = "admission_weight", nullable = false)
+    @Builder.Default
+    private Integer admissionWeight = 1; // Relative share of gateway ingest capacity
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", nullable = false, length = 20)
+    @Builder.Default
+    private SystemClientPriority priority = SystemClientPriority.STANDARD;
 }
@@ -0,0 +1,11 @@
+package com.extraction.iam.entity;
+
+/**
+ * Admission priority class at the gateway; waiting requests of a higher
+ * class are admitted before any of a lower class
+ */
+public enum SystemClientPriority {
+    CRITICAL,
+    STANDARD,
+    BULK
+}
@@ -0,0 +1,29 @@
+package com.extraction.iam.event;
+
+import com.extraction.iam.service.ClientRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Applies client changes announced by any IAM instance to this instance's
+ * registry right away, ahead of the delta poll.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClientChangeListener implements MessageListener {
+
+    private final ClientRegistry clientRegistry;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String clientId = new String(message.getBody(), StandardCharsets.UTF_8);
+        log.debug("Client change received: clientId={}", clientId);
+        clientRegistry.reload(clientId);
+    }
+}
@@ -0,0 +1,63 @@
+package com.extraction.iam.event;
+
+import com.extraction.iam.entity.SystemClient;
+import com.extraction.iam.service.ClientRegistry;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Announces SystemClient changes on Redis pub/sub so gateways can evict their
+ * cached auth for that client instead of waiting for TTLs.
+ *
+ * Any update is announced, not only status/secret/limit changes: a spurious
+ * eviction costs one IAM call, a missed one leaves a revoked client valid.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SystemClientChangePublisher {
+
+    private final StringRedisTemplate redisTemplate;
+    // Resolved lazily: this listener is created while the EntityManagerFactory the registry needs is being built
+    private final ObjectProvider<ClientRegistry> clientRegistry;
+
+    @Value("${iam.invalidation.channel:iam:system-client:changed}")
+    private String channel;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(SystemClient client) {
+        String clientId = client.getClientId();
+        // Publish after commit so gateways never reload the pre-change row
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(clientId);
+                }
+            });
+        } else {
+            publish(clientId);
+        }
+    }
+
+    private void publish(String clientId) {
+        // Our own registry first, so introspection here is current before anyone reloads
+        clientRegistry.getObject().reload(clientId);
+        try {
+            redisTemplate.convertAndSend(channel, clientId);
+            log.info("Published client change: clientId={}", clientId);
+        } catch (Exception e) {
+            // Gateways still pick the change up on their next cache refresh
+            log.error("Failed to publish client change: clientId={}, error={}", clientId, e.getMessage());
+        }
+    }
+}
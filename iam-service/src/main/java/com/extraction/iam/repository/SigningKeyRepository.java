@@ -0,0 +1,27 @@
+package com.extraction.iam.repository;
+
+import com.extraction.iam.entity.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+
+    List<SigningKey> findAllByOrderByCreatedAtDesc();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SigningKey k SET k.retiredAt = :now WHERE k.retiredAt IS NULL AND k.createdAt < :createdBefore")
+    int retireCreatedBefore(Instant createdBefore, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SigningKey k WHERE k.retiredAt < :cutoff")
+    int deleteRetiredBefore(Instant cutoff);
+}
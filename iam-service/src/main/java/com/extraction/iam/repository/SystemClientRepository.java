@@ -1,13 +1,27 @@
 package com.extraction.iam.repository;
 
 import com.extraction.iam.entity.SystemClient;
+import com.extraction.iam.entity.SystemClientStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface SystemClientRepository extends JpaRepository<SystemClient, UUID> {
     Optional<SystemClient> findByClientId(String clientId);
+
+    List<SystemClient> findByClientIdIn(Collection<String> clientIds);
+
+    List<SystemClient> findByStatus(SystemClientStatus status);
+
+    List<SystemClient> findByUpdatedAtAfter(Instant since);
+
+    @Query("SELECT MAX(c.updatedAt) FROM SystemClient c")
+    Optional<Instant> findMaxUpdatedAt();
 }
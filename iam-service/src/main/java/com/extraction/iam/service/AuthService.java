@@ -2,9 +2,9 @@ package com.extraction.iam.service;
 
 import com.extraction.iam.dto.ValidateRequest;
 import com.extraction.iam.dto.ValidateResponse;
-import com.extraction.iam.entity.SystemClient;
 import com.extraction.iam.entity.SystemClientStatus;
 import com.extraction.iam.repository.SystemClientRepository;
+import com.extraction.iam.service.ClientRegistry.RegisteredClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,7 +12,12 @@ import org.springframework.stereotype.Service;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,24 +25,64 @@ import java.util.HexFormat;
 public class AuthService {
 
     private final SystemClientRepository systemClientRepository;
+    private final ClientRegistry clientRegistry;
 
     public ValidateResponse validate(ValidateRequest request) {
-        return systemClientRepository.findByClientId(request.getClientId())
-                .map(client -> {
-                    if (client.getStatus() != SystemClientStatus.ACTIVE) {
-                        return ValidateResponse.builder()
-                                .valid(false)
-                                .message("Client is not active")
-                                .build();
-                    }
+        return check(request, findClient(request.getClientId()));
+    }
+
+    /**
+     * Validate many credentials in one pass.
+     * Responses are in request order.
+     */
+    public List<ValidateResponse> validateBatch(List<ValidateRequest> requests) {
+        Map<String, RegisteredClient> clients = findClients(requests.stream()
+                .map(ValidateRequest::getClientId)
+                .collect(Collectors.toSet()));
+
+        return requests.stream()
+                .map(request -> check(request, Optional.ofNullable(clients.get(request.getClientId()))))
+                .toList();
+    }
 
-                    if (verifySecret(request.getClientSecret(), client.getClientSecretHash())) {
+    /**
+     * @return Active clients by clientId, from the registry; from one IN query
+     *         only while the registry has not loaded yet
+     */
+    public Map<String, RegisteredClient> findClients(Set<String> clientIds) {
+        if (clientRegistry.isLoaded()) {
+            return clientRegistry.findAll(clientIds);
+        }
+        if (clientIds.isEmpty()) {
+            return Map.of();
+        }
+        return systemClientRepository.findByClientIdIn(clientIds).stream()
+                .filter(client -> client.getStatus() == SystemClientStatus.ACTIVE)
+                .map(RegisteredClient::of)
+                .collect(Collectors.toMap(RegisteredClient::clientId, Function.identity()));
+    }
+
+    private Optional<RegisteredClient> findClient(String clientId) {
+        if (clientRegistry.isLoaded()) {
+            return clientRegistry.find(clientId);
+        }
+        return systemClientRepository.findByClientId(clientId)
+                .filter(client -> client.getStatus() == SystemClientStatus.ACTIVE)
+                .map(RegisteredClient::of);
+    }
+
+    private ValidateResponse check(ValidateRequest request, Optional<RegisteredClient> found) {
+        return found
+                .map(client -> {
+                    if (verifySecret(request.getClientSecret(), client.secretHash())) {
                         return ValidateResponse.builder()
                                 .valid(true)
-                                .clientId(client.getClientId())
-                                .clientName(client.getClientName())
-                                .scopes(client.getScopes())
-                                .dailyLimit(client.getDailyLimit())
+                                .clientId(client.clientId())
+                                .clientName(client.clientName())
+                                .scopes(client.scopes())
+                                .dailyLimit(client.dailyLimit())
+                                .admissionWeight(client.admissionWeight())
+                                .priority(client.priority())
                                 .build();
                     } else {
                         return ValidateResponse.builder()
@@ -48,16 +93,15 @@ public class AuthService {
                 })
                 .orElse(ValidateResponse.builder()
                         .valid(false)
-                        .message("Client not found")
+                        .message("Client not found or not active")
                         .build());
     }
 
-    private boolean verifySecret(String rawSecret, String storedHash) {
+    private boolean verifySecret(String rawSecret, ClientRegistry.SecretHash storedHash) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] encodedhash = digest.digest(rawSecret.getBytes(StandardCharsets.UTF_8));
-            String computedHash = HexFormat.of().formatHex(encodedhash);
-            return computedHash.equals(storedHash);
+            byte[] computedHash = digest.digest(rawSecret.getBytes(StandardCharsets.UTF_8));
+            return MessageDigest.isEqual(computedHash, storedHash.bytes());
         } catch (NoSuchAlgorithmException e) {
             log.error("SHA-256 algorithm not found", e);
             return false;
@@ -0,0 +1,227 @@
+package com.extraction.iam.service;
+
+import com.extraction.iam.entity.SystemClient;
+import com.extraction.iam.entity.SystemClientStatus;
+import com.extraction.iam.repository.SystemClientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-memory view of all ACTIVE system clients.
+ *
+ * Loaded in full at startup and on {@code full-reload-interval}; in between,
+ * rows with {@code updated_at} past the last seen value are polled and applied
+ * to a copy that is then swapped in, so readers never lock or see a partial
+ * update. Validation against it needs no database round trip.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClientRegistry {
+
+    private final SystemClientRepository systemClientRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${iam.registry.overlap:30s}")
+    private Duration overlap;
+
+    @Value("${iam.registry.full-reload-interval:10m}")
+    private Duration fullReloadInterval;
+
+    /** Null until the first load succeeds */
+    private volatile Map<String, RegisteredClient> clients;
+    private volatile Instant lastSeen = Instant.EPOCH;
+    private volatile long lastRefreshAt;
+    private volatile long lastFullReloadAt;
+
+    private Counter refreshFailures;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("iam.registry.size", this, r -> r.clients == null ? 0 : r.clients.size())
+                .description("Active clients held in memory")
+                .register(meterRegistry);
+        TimeGauge.builder("iam.registry.refresh.lag", this, TimeUnit.MILLISECONDS,
+                        r -> r.lastRefreshAt == 0 ? 0 : System.currentTimeMillis() - r.lastRefreshAt)
+                .description("Time since the registry last caught up with the database")
+                .register(meterRegistry);
+        refreshFailures = Counter.builder("iam.registry.refresh.failures")
+                .description("Failed registry refreshes")
+                .register(meterRegistry);
+
+        try {
+            fullReload();
+        } catch (Exception e) {
+            // Validation falls back to the database until a refresh succeeds
+            refreshFailures.increment();
+            log.error("Initial client registry load failed: {}", e.getMessage());
+        }
+    }
+
+    public boolean isLoaded() {
+        return clients != null;
+    }
+
+    public Optional<RegisteredClient> find(String clientId) {
+        return Optional.ofNullable(clients.get(clientId));
+    }
+
+    /**
+     * @return Registered clients among the given ids (inactive/unknown ids are absent)
+     */
+    public Map<String, RegisteredClient> findAll(Collection<String> clientIds) {
+        Map<String, RegisteredClient> snapshot = clients;
+        Map<String, RegisteredClient> found = new HashMap<>();
+        for (String clientId : clientIds) {
+            RegisteredClient client = snapshot.get(clientId);
+            if (client != null) {
+                found.put(clientId, client);
+            }
+        }
+        return found;
+    }
+
+    @Scheduled(fixedDelayString = "${iam.registry.refresh-ms:5000}")
+    public void refresh() {
+        try {
+            if (clients == null || System.currentTimeMillis() - lastFullReloadAt > fullReloadInterval.toMillis()) {
+                fullReload();
+            } else {
+                applyDelta();
+            }
+        } catch (Exception e) {
+            refreshFailures.increment();
+            log.error("Client registry refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-read one client now instead of waiting for the next delta poll.
+     * Used when a change is announced, so gateways reloading right after the
+     * announcement do not read the pre-change state from this registry.
+     */
+    public void reload(String clientId) {
+        if (clients == null) {
+            return;
+        }
+        try {
+            Optional<RegisteredClient> updated = systemClientRepository.findByClientId(clientId)
+                    .filter(row -> row.getStatus() == SystemClientStatus.ACTIVE)
+                    .map(RegisteredClient::of);
+            synchronized (this) {
+                Map<String, RegisteredClient> next = new HashMap<>(clients);
+                updated.ifPresentOrElse(client -> next.put(clientId, client), () -> next.remove(clientId));
+                clients = Map.copyOf(next);
+            }
+            log.debug("Client registry reloaded client: clientId={}, active={}", clientId, updated.isPresent());
+        } catch (Exception e) {
+            // The next delta poll picks the change up
+            log.warn("Client reload failed: clientId={}, error={}", clientId, e.getMessage());
+        }
+    }
+
+    private synchronized void fullReload() {
+        // Read the high-water mark first so rows changed during the load are caught by the next delta
+        Instant highWater = systemClientRepository.findMaxUpdatedAt().orElse(Instant.EPOCH);
+        Map<String, RegisteredClient> loaded = systemClientRepository.findByStatus(SystemClientStatus.ACTIVE)
+                .stream()
+                .map(RegisteredClient::of)
+                .collect(Collectors.toUnmodifiableMap(RegisteredClient::clientId, Function.identity()));
+
+        clients = loaded;
+        lastSeen = highWater;
+        lastRefreshAt = System.currentTimeMillis();
+        lastFullReloadAt = lastRefreshAt;
+        log.info("Client registry loaded: active={}", loaded.size());
+    }
+
+    private synchronized void applyDelta() {
+        // Overlap re-reads recent rows: a transaction can commit after a later updated_at was seen
+        List<SystemClient> changed = systemClientRepository.findByUpdatedAtAfter(lastSeen.minus(overlap));
+        Instant highWater = lastSeen;
+        Map<String, RegisteredClient> next = null;
+
+        for (SystemClient row : changed) {
+            RegisteredClient current = clients.get(row.getClientId());
+            RegisteredClient updated = row.getStatus() == SystemClientStatus.ACTIVE ? RegisteredClient.of(row) : null;
+            if (!Objects.equals(current, updated)) {
+                if (next == null) {
+                    next = new HashMap<>(clients);
+                }
+                if (updated == null) {
+                    next.remove(row.getClientId());
+                } else {
+                    next.put(row.getClientId(), updated);
+                }
+            }
+            if (row.getUpdatedAt() != null && row.getUpdatedAt().isAfter(highWater)) {
+                highWater = row.getUpdatedAt();
+            }
+        }
+
+        if (next != null) {
+            clients = Map.copyOf(next);
+            log.info("Client registry updated: active={}", next.size());
+        }
+        lastSeen = highWater;
+        lastRefreshAt = System.currentTimeMillis();
+    }
+
+    /**
+     * What validation needs from a SystemClient row; the secret hash is kept as raw bytes
+     */
+    public record RegisteredClient(String clientId, String clientName, String scopes, Integer dailyLimit,
+                                   Integer admissionWeight, String priority, SecretHash secretHash) {
+
+        static RegisteredClient of(SystemClient client) {
+            return new RegisteredClient(client.getClientId(), client.getClientName(), client.getScopes(),
+                    client.getDailyLimit(), client.getAdmissionWeight(),
+                    client.getPriority() != null ? client.getPriority().name() : null,
+                    new SecretHash(HexFormat.of().parseHex(client.getClientSecretHash())));
+        }
+    }
+
+    /**
+     * SHA-256 of the client secret. Value equality so unchanged rows are not re-swapped.
+     */
+    public record SecretHash(byte[] bytes) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SecretHash other && MessageDigest.isEqual(bytes, other.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public String toString() {
+            return "SecretHash[***]";
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.extraction.iam.service;
+
+import com.extraction.iam.entity.SigningKey;
+import com.extraction.iam.repository.SigningKeyRepository;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Owns the RSA keys that sign access tokens.
+ *
+ * Keys live in Postgres so every IAM instance signs with and publishes the
+ * same set. A new key is created {@code activation-delay} before it is used
+ * for signing, so gateways see it in the JWKS before the first token carrying
+ * its kid arrives. Retired keys stay published until every token they signed
+ * has expired.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SigningKeyService {
+
+    private final SigningKeyRepository signingKeyRepository;
+
+    @Value("${iam.jwt.token-ttl:15m}")
+    private Duration tokenTtl;
+
+    @Value("${iam.jwt.rotation-interval:24h}")
+    private Duration rotationInterval;
+
+    @Value("${iam.jwt.activation-delay:10m}")
+    private Duration activationDelay;
+
+    private volatile RSAKey signingKey;
+    private volatile JWKSet publishedKeys = new JWKSet();
+
+    /**
+     * @return Key new tokens are signed with
+     */
+    public RSAKey getSigningKey() {
+        RSAKey key = signingKey;
+        if (key == null) {
+            rotateIfDue();
+            key = signingKey;
+        }
+        return key;
+    }
+
+    /**
+     * @return All keys a currently valid token may be signed with (private halves included)
+     */
+    public JWKSet getPublishedKeys() {
+        if (signingKey == null) {
+            rotateIfDue();
+        }
+        return publishedKeys;
+    }
+
+    /**
+     * Create the next key when due, retire superseded keys, purge expired ones
+     * and reload the local view. Also picks up keys created by other instances.
+     */
+    @Scheduled(fixedDelayString = "${iam.jwt.key-check-ms:60000}")
+    public synchronized void rotateIfDue() {
+        Instant now = Instant.now();
+        List<SigningKey> keys = signingKeyRepository.findAllByOrderByCreatedAtDesc();
+
+        // Bootstrap: the very first key is used immediately
+        if (keys.isEmpty()) {
+            keys = List.of(createKey(now));
+        } else if (!keys.get(0).getCreatedAt().plus(rotationInterval).minus(activationDelay).isAfter(now)) {
+            createKey(now);
+            keys = signingKeyRepository.findAllByOrderByCreatedAtDesc();
+        }
+
+        // Newest key that has been published long enough; before that, the oldest one
+        SigningKey current = keys.stream()
+                .filter(k -> !k.getCreatedAt().plus(activationDelay).isAfter(now))
+                .findFirst()
+                .orElse(keys.get(keys.size() - 1));
+
+        int retired = signingKeyRepository.retireCreatedBefore(current.getCreatedAt(), now);
+        int purged = signingKeyRepository.deleteRetiredBefore(now.minus(tokenTtl).minus(activationDelay));
+        if (retired > 0 || purged > 0) {
+            log.info("Signing keys rotated: current={}, retired={}, purged={}", current.getKid(), retired, purged);
+            keys = signingKeyRepository.findAllByOrderByCreatedAtDesc();
+        }
+
+        List<JWK> jwks = keys.stream()
+                .<JWK>map(this::toJwk)
+                .toList();
+        publishedKeys = new JWKSet(jwks);
+        signingKey = toJwk(current);
+    }
+
+    private SigningKey createKey(Instant now) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair pair = generator.generateKeyPair();
+
+            SigningKey key = SigningKey.builder()
+                    .kid(UUID.randomUUID().toString())
+                    .privateKey(Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded()))
+                    .publicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()))
+                    .createdAt(now)
+                    .build();
+            log.info("Created signing key: kid={}", key.getKid());
+            return signingKeyRepository.save(key);
+
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("RSA key generation failed", e);
+        }
+    }
+
+    private RSAKey toJwk(SigningKey key) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance("RSA");
+            RSAPublicKey publicKey = (RSAPublicKey) factory.generatePublic(
+                    new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey())));
+            RSAPrivateKey privateKey = (RSAPrivateKey) factory.generatePrivate(
+                    new PKCS8EncodedKeySpec(Base64.getDecoder().decode(key.getPrivateKey())));
+
+            return new RSAKey.Builder(publicKey)
+                    .privateKey(privateKey)
+                    .keyID(key.getKid())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(JWSAlgorithm.RS256)
+                    .build();
+
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Stored signing key is unreadable: " + key.getKid(), e);
+        }
+    }
+}
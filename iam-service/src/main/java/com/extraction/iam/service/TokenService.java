@@ -0,0 +1,173 @@
+package com.extraction.iam.service;
+
+import com.extraction.iam.dto.TokenResponse;
+import com.extraction.iam.dto.ValidateResponse;
+import com.extraction.iam.service.ClientRegistry.RegisteredClient;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Issues short-lived signed access tokens and introspects them.
+ *
+ * Tokens carry everything the gateway needs (clientId, clientName, scopes,
+ * dailyLimit, admission weight and priority), so gateways verify them locally against the JWKS and only
+ * introspect when a client has changed since the token was issued.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenService {
+
+    public static final String CLAIM_CLIENT_NAME = "client_name";
+    public static final String CLAIM_SCOPE = "scope";
+    public static final String CLAIM_DAILY_LIMIT = "daily_limit";
+    public static final String CLAIM_ADMISSION_WEIGHT = "admission_weight";
+    public static final String CLAIM_PRIORITY = "priority";
+
+    private final SigningKeyService signingKeyService;
+    private final AuthService authService;
+
+    @Value("${iam.jwt.issuer:iam-service}")
+    private String issuer;
+
+    @Value("${iam.jwt.token-ttl:15m}")
+    private Duration tokenTtl;
+
+    /**
+     * Sign an access token for a client whose credentials were already validated
+     */
+    public TokenResponse issue(ValidateResponse client) {
+        RSAKey key = signingKeyService.getSigningKey();
+        Instant now = Instant.now();
+
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(client.getClientId())
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(tokenTtl)))
+                .claim(CLAIM_CLIENT_NAME, client.getClientName())
+                .claim(CLAIM_SCOPE, client.getScopes())
+                .claim(CLAIM_DAILY_LIMIT, client.getDailyLimit())
+                .claim(CLAIM_ADMISSION_WEIGHT, client.getAdmissionWeight())
+                .claim(CLAIM_PRIORITY, client.getPriority())
+                .build();
+
+        try {
+            SignedJWT jwt = new SignedJWT(
+                    new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                    claims);
+            jwt.sign(new RSASSASigner(key));
+
+            log.debug("Issued token: clientId={}, kid={}", client.getClientId(), key.getKeyID());
+            return TokenResponse.builder()
+                    .accessToken(jwt.serialize())
+                    .tokenType("Bearer")
+                    .expiresIn(tokenTtl.toSeconds())
+                    .build();
+
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Token signing failed", e);
+        }
+    }
+
+    /**
+     * Verify a token and report the client's current state from the database,
+     * so a revoked or changed client is seen even while its token is unexpired.
+     */
+    public ValidateResponse introspect(String token) {
+        return introspectBatch(List.of(token)).get(0);
+    }
+
+    /**
+     * Introspect many tokens; their clients are resolved in one registry pass.
+     * Responses are in request order.
+     */
+    public List<ValidateResponse> introspectBatch(List<String> tokens) {
+        List<Verified> verified = tokens.stream().map(this::verify).toList();
+        Map<String, RegisteredClient> clients = authService.findClients(verified.stream()
+                .filter(v -> v.claims() != null)
+                .map(v -> v.claims().getSubject())
+                .collect(Collectors.toSet()));
+
+        return verified.stream()
+                .map(v -> v.claims() == null ? v.rejection() : currentState(clients.get(v.claims().getSubject())))
+                .toList();
+    }
+
+    private Verified verify(String token) {
+        try {
+            SignedJWT jwt = SignedJWT.parse(token);
+            JWK key = signingKeyService.getPublishedKeys().getKeyByKeyId(jwt.getHeader().getKeyID());
+            if (key == null || !jwt.verify(new RSASSAVerifier(key.toRSAKey()))) {
+                return Verified.rejected(invalid("Invalid token signature"));
+            }
+
+            JWTClaimsSet claims = jwt.getJWTClaimsSet();
+            if (!issuer.equals(claims.getIssuer())) {
+                return Verified.rejected(invalid("Unexpected token issuer"));
+            }
+            if (claims.getExpirationTime() == null || claims.getExpirationTime().toInstant().isBefore(Instant.now())) {
+                return Verified.rejected(invalid("Token expired"));
+            }
+            return new Verified(claims, null);
+
+        } catch (ParseException e) {
+            return Verified.rejected(invalid("Malformed token"));
+        } catch (JOSEException e) {
+            log.error("Token verification failed", e);
+            return Verified.rejected(invalid("Token verification failed"));
+        }
+    }
+
+    private ValidateResponse currentState(RegisteredClient client) {
+        if (client == null) {
+            return invalid("Client not found or not active");
+        }
+        return ValidateResponse.builder()
+                .valid(true)
+                .clientId(client.clientId())
+                .clientName(client.clientName())
+                .scopes(client.scopes())
+                .dailyLimit(client.dailyLimit())
+                .admissionWeight(client.admissionWeight())
+                .priority(client.priority())
+                .build();
+    }
+
+    private ValidateResponse invalid(String message) {
+        return ValidateResponse.builder()
+                .valid(false)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * Either the claims of a token that checked out, or why it did not
+     */
+    private record Verified(JWTClaimsSet claims, ValidateResponse rejection) {
+        static Verified rejected(ValidateResponse rejection) {
+            return new Verified(null, rejection);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- RSA keys used to sign access tokens. Public halves are served as JWKS.
+CREATE TABLE iam_schema.signing_keys (
+    kid VARCHAR(64) PRIMARY KEY,
+    private_key TEXT NOT NULL,
+    public_key TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    retired_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX idx_signing_keys_created_at ON iam_schema.signing_keys(created_at);
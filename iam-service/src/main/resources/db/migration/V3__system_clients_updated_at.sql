@@ -0,0 +1,14 @@
+-- Keep updated_at correct for updates made outside JPA, so the in-memory
+-- client registry's delta poll sees them too.
+CREATE OR REPLACE FUNCTION iam_schema.touch_updated_at() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at = CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_system_clients_updated_at
+    BEFORE UPDATE ON iam_schema.system_clients
+    FOR EACH ROW EXECUTE FUNCTION iam_schema.touch_updated_at();
+
+CREATE INDEX idx_system_clients_updated_at ON iam_schema.system_clients(updated_at);
@@ -0,0 +1,5 @@
+-- Fair-share admission at the gateway: relative share of ingest capacity and
+-- priority class per client.
+ALTER TABLE iam_schema.system_clients
+    ADD COLUMN admission_weight INTEGER NOT NULL DEFAULT 1 CHECK (admission_weight > 0),
+    ADD COLUMN priority VARCHAR(20) NOT NULL DEFAULT 'STANDARD';